@@ -10,6 +10,8 @@ public class LogTraceConfig {
 
     @Bean
     public LogTrace logTrace() {
+//        return new AsyncLogTrace(8192, OverflowPolicy.DROP_NEWEST); // 로그 출력을 별도 스레드로
+//        return new JfrLogTrace(); // 로그 대신 JFR 이벤트로 기록
         return new ThreadLocalLogTrace();
     }
 }
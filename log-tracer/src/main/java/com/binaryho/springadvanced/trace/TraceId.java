@@ -29,6 +29,10 @@ public class TraceId {
         return new TraceId(id, level - 1);
     }
 
+    public TraceId atLevel(int level) {
+        return new TraceId(id, level);
+    }
+
     public boolean isFirstLevel() {
         return level == 0;
     }
@@ -0,0 +1,50 @@
+package com.binaryho.springadvanced.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/*
+ * MEMO : JfrLogTrace 가 span 하나마다 커밋하는 JFR 이벤트
+ *  이벤트 자체의 시작 시각 / duration 이 span 의 시작 시각 / 소요 시간이고, 스레드도 JFR 이 기록한다.
+ *  켜고 끄기, 임계값, 스택 트레이스는 JFR 설정으로 바꾼다. (proxy 모듈의 jfr/trace-spans.jfc 와 같은 형식)
+ *      jcmd <pid> JFR.start settings=/path/to/trace-spans.jfc
+ *      -XX:StartFlightRecording:settings=default,+com.binaryho.springadvanced.TraceSpan#threshold=10ms  (JDK 17+)
+ *  스택 트레이스는 비용이 크므로 기본은 끈다.
+ * */
+@Name(TraceSpanEvent.NAME)
+@Label("Trace Span")
+@Category({"Spring Advanced", "Trace"})
+@Description("LogTrace begin ~ end 구간")
+@Enabled
+@Threshold("0 ms")
+@StackTrace(false)
+public class TraceSpanEvent extends Event {
+
+    public static final String NAME = "com.binaryho.springadvanced.TraceSpan";
+
+    @Label("Trace Id")
+    String traceId;
+
+    @Label("Depth")
+    int depth;
+
+    @Label("Message")
+    String message;
+
+    @Label("Exception Class")
+    String exceptionClass;
+
+    // shouldCommit() 이 true 일 때만 채운다
+    public void setSpan(String traceId, int depth, String message, String exceptionClass) {
+        this.traceId = traceId;
+        this.depth = depth;
+        this.message = message;
+        this.exceptionClass = exceptionClass;
+    }
+}
@@ -0,0 +1,65 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import com.binaryho.springadvanced.trace.TraceId;
+import com.binaryho.springadvanced.trace.TraceStatus;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : ThreadLocalLogTrace 와 같은 로그를 남기지만,
+ *  begin() / end() 마다 TraceId, Long, TraceStatus 를 새로 만들지 않는다.
+ *  스레드별 TraceFrames 를 재사용하기 때문에 트레이스가 한 번 진행된 스레드에서는
+ *  로그 출력을 제외한 begin/end 경로에서 객체 할당이 일어나지 않는다.
+ * */
+@Slf4j
+public class FrameStackLogTrace implements LogTrace, TraceContextHolder {
+
+    private final ThreadLocal<TraceFrames> framesHolder = ThreadLocal.withInitial(TraceFrames::new);
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceFrame frame = framesHolder.get().push(message, System.nanoTime());
+        if (log.isInfoEnabled()) {
+            log.info("[{}] {}{}", frame.getOwner().getRenderedTraceId(),
+                TraceIndent.of(TraceIndent.START, frame.getLevel()), message);
+        }
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return TraceFrames.currentTraceId(framesHolder);
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return TraceFrames.attach(framesHolder, parent);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        if (log.isInfoEnabled()) {
+            long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - frame.getStartNanos());
+            String traceId = frame.getOwner().getRenderedTraceId();
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId, TraceIndent.of(TraceIndent.COMPLETE, frame.getLevel()),
+                    frame.getMessage(), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId, TraceIndent.of(TraceIndent.EX, frame.getLevel()),
+                    frame.getMessage(), resultTimeMs, e.toString());
+            }
+        }
+
+        frame.getOwner().pop(frame);
+    }
+}
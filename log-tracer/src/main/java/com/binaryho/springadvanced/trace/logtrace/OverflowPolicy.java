@@ -0,0 +1,11 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+/*
+ * MEMO : 링 버퍼가 가득 찼을 때 요청 스레드가 어떻게 할지
+ * */
+public enum OverflowPolicy {
+
+    BLOCK,       // 빈 칸이 생길 때까지 기다린다
+    DROP_NEWEST, // 새 이벤트를 버린다
+    DROP_OLDEST  // 가장 오래된 이벤트를 버리고 새 이벤트를 넣는다
+}
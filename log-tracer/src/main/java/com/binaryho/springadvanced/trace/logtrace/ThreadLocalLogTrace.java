@@ -5,7 +5,7 @@ import com.binaryho.springadvanced.trace.TraceStatus;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class ThreadLocalLogTrace implements LogTrace {
+public class ThreadLocalLogTrace implements LogTrace, TraceContextHolder {
 
     private static final String START_PREFIX = "-->";
     private static final String COMPLETE_PREFIX = "<--";
@@ -41,6 +41,24 @@ public class ThreadLocalLogTrace implements LogTrace {
         complete(status, e);
     }
 
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        TraceId previous = traceIdHolder.get();
+        traceIdHolder.set(parent);
+        return () -> {
+            if (previous == null) {
+                traceIdHolder.remove();
+            } else {
+                traceIdHolder.set(previous);
+            }
+        };
+    }
+
     private void complete(TraceStatus status, Exception e) {
         Long stopTimeMs = System.currentTimeMillis();
         long resultTimeMs = stopTimeMs - status.getStartTimeMs();
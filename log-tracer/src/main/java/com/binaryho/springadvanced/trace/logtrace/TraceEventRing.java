@@ -0,0 +1,169 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * MEMO : 여러 요청 스레드가 쓰고, 한 소비자 스레드가 읽는 고정 크기 링 버퍼
+ *  이벤트는 미리 만들어둔 원시 타입 배열의 한 칸이라 publish() 가 객체를 만들지 않는다.
+ *  - head : 생산자가 CAS 로 다음 시퀀스를 가져간다
+ *  - published[slot] : 해당 칸에 쓰기를 마친 시퀀스 + 1 (소비자는 이 값을 보고 읽는다)
+ *  - tail : 소비자가 다음에 읽을 시퀀스, DROP_OLDEST 에서는 생산자도 CAS 로 밀어낸다
+ *    소비자는 읽은 뒤 tail CAS 에 실패하면 (생산자가 버린 칸) 읽은 값을 버린다.
+ *  - exceptions[slot] : 소비자가 읽으면 비운다. 칸이 다시 쓰일 때까지 예외(와 스택 트레이스)를 붙잡지 않게.
+ *  close() 뒤에는 가득 찬 링에 넣으려는 이벤트를 정책과 관계없이 버린다. (BLOCK 생산자가 영원히 기다리지 않게)
+ * */
+public class TraceEventRing {
+
+    public static final byte BEGIN = 0;
+    public static final byte END = 1;
+    public static final byte EXCEPTION = 2;
+
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy overflowPolicy;
+
+    private final long[] traceIds;
+    private final int[] levels;
+    private final int[] messageIds;
+    private final long[] timestamps;
+    private final long[] elapsedNanos;
+    private final byte[] outcomes;
+    private final AtomicReferenceArray<Exception> exceptions;
+    private final AtomicLongArray published;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder droppedNewest = new LongAdder();
+    private final LongAdder droppedOldest = new LongAdder();
+    private volatile boolean closed;
+
+    public TraceEventRing(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.overflowPolicy = overflowPolicy;
+        this.traceIds = new long[capacity];
+        this.levels = new int[capacity];
+        this.messageIds = new int[capacity];
+        this.timestamps = new long[capacity];
+        this.elapsedNanos = new long[capacity];
+        this.outcomes = new byte[capacity];
+        this.exceptions = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    // 링에 넣었으면 true, DROP_NEWEST 로 버려졌으면 false
+    public boolean publish(long traceId, int level, int messageId, long timestamp, long elapsed,
+        byte outcome, Exception e) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return false;
+        }
+
+        int slot = (int) (sequence & mask);
+        traceIds[slot] = traceId;
+        levels[slot] = level;
+        messageIds[slot] = messageId;
+        timestamps[slot] = timestamp;
+        elapsedNanos[slot] = elapsed;
+        outcomes[slot] = outcome;
+        exceptions.lazySet(slot, e); // published.set() 이 공개한다
+        published.set(slot, sequence + 1);
+        return true;
+    }
+
+    private long claim() {
+        while (true) {
+            long sequence = head.get();
+            long oldest = tail.get();
+            if (sequence - oldest >= capacity) {
+                if (closed || overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    droppedNewest.increment();
+                    return -1;
+                }
+                if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                    dropOldest(oldest);
+                } else {
+                    LockSupport.parkNanos(1_000L);
+                }
+                continue;
+            }
+            if (head.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    private void dropOldest(long oldest) {
+        // 아직 쓰기 중인 칸은 버리지 않는다. 다른 생산자가 같은 칸을 동시에 쓰게 되기 때문이다.
+        if (published.get((int) (oldest & mask)) != oldest + 1) {
+            Thread.onSpinWait();
+            return;
+        }
+        if (tail.compareAndSet(oldest, oldest + 1)) {
+            droppedOldest.increment();
+        }
+    }
+
+    // 소비자 스레드 전용, 이벤트를 하나 처리했으면 true
+    public boolean poll(TraceEventHandler handler) {
+        while (true) {
+            long sequence = tail.get();
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence + 1) {
+                return false;
+            }
+
+            long traceId = traceIds[slot];
+            int level = levels[slot];
+            int messageId = messageIds[slot];
+            long timestamp = timestamps[slot];
+            long elapsed = elapsedNanos[slot];
+            byte outcome = outcomes[slot];
+            Exception e = exceptions.get(slot);
+            if (e != null) {
+                // 아직 tail 을 넘기지 않았으므로 BLOCK / DROP_NEWEST 에서는 이 칸을 쓰는 생산자가 없다.
+                // DROP_OLDEST 생산자가 이 칸을 버리고 새로 썼다면 CAS 가 실패하고, 아래 tail CAS 도 실패한다.
+                exceptions.compareAndSet(slot, e, null);
+            }
+
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                handler.onEvent(traceId, level, messageId, timestamp, elapsed, outcome, e);
+                return true;
+            }
+        }
+    }
+
+    // 소비자가 멈춘 뒤에 부른다. 기다리던 BLOCK 생산자도 이벤트를 버리고 돌아간다
+    public void close() {
+        closed = true;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDroppedNewest() {
+        return droppedNewest.sum();
+    }
+
+    public long getDroppedOldest() {
+        return droppedOldest.sum();
+    }
+
+    public interface TraceEventHandler {
+
+        void onEvent(long traceId, int level, int messageId, long timestamp, long elapsedNanos,
+            byte outcome, Exception e);
+    }
+}
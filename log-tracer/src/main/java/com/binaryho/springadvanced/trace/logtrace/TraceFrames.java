@@ -0,0 +1,113 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import com.binaryho.springadvanced.trace.TraceId;
+import java.util.Arrays;
+
+/*
+ * MEMO : 한 스레드의 호출 스택 상태
+ *  TraceId 를 레벨마다 새로 만드는 대신, 레벨(depth)을 int 로 들고
+ *  레벨별 TraceFrame 을 배열에 두고 재사용한다.
+ *  스레드 하나에서만 쓰이므로 동기화하지 않는다.
+ * */
+final class TraceFrames {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private TraceFrame[] frames = new TraceFrame[INITIAL_CAPACITY];
+    // 트레이스마다 한 번 만든다. 레벨별 TraceId 는 필요할 때만 atLevel 로 만든다. 다음 트레이스가 시작될 때까지 남아 있다
+    private TraceId rootTraceId;
+    private long traceId;
+    private int depth = -1;
+
+    TraceFrame push(String message, long startNanos) {
+        if (depth < 0) {
+            start(new TraceId());
+        }
+        depth++;
+        TraceFrame frame = frameAt(depth);
+        frame.reset(message, startNanos);
+        return frame;
+    }
+
+    void pop(TraceFrame frame) {
+        depth = frame.getLevel() - 1;
+        frame.reset(null, 0L);
+    }
+
+    // 다른 스레드에서 넘어온 부모 트레이스의 위치로 옮긴다. 다음 push() 는 level + 1 이 된다
+    void attach(TraceId parent) {
+        start(parent);
+        depth = parent.getLevel();
+    }
+
+    void detach() {
+        depth = -1;
+    }
+
+    // 스레드별 TraceFrames 를 쓰는 TraceContextHolder 구현이 같이 쓴다. 진행 중인 트레이스가 없으면 null
+    static TraceId currentTraceId(ThreadLocal<TraceFrames> framesHolder) {
+        TraceFrames frames = framesHolder.get();
+        if (frames.isEmpty()) {
+            return null;
+        }
+        return frames.traceIdAt(frames.getDepth());
+    }
+
+    /*
+     * MEMO : 스레드의 TraceFrames 가 비어 있으면 그대로 부모 위치만 옮겨서 쓰고,
+     *  이미 다른 트레이스가 진행 중이면(호출한 스레드에서 바로 실행되는 경우 등)
+     *  진행 중인 프레임을 덮어쓰지 않도록 새 TraceFrames 를 잠시 끼워 넣는다.
+     * */
+    static TraceScope attach(ThreadLocal<TraceFrames> framesHolder, TraceId parent) {
+        TraceFrames previous = framesHolder.get();
+        TraceFrames attached = previous.isEmpty() ? previous : new TraceFrames();
+        attached.attach(parent);
+        framesHolder.set(attached);
+        return () -> {
+            attached.detach();
+            framesHolder.set(previous);
+        };
+    }
+
+    // TraceId 의 8자리 16진수 아이디를 long 으로도 들고 있는다 (AsyncLogTrace 가 링에 그대로 싣는다)
+    private void start(TraceId root) {
+        rootTraceId = root;
+        traceId = Long.parseUnsignedLong(root.getId(), 16);
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    boolean isEmpty() {
+        return depth < 0;
+    }
+
+    long getTraceId() {
+        return traceId;
+    }
+
+    String getRenderedTraceId() {
+        return rootTraceId.getId();
+    }
+
+    TraceId traceIdAt(int level) {
+        return rootTraceId.atLevel(level);
+    }
+
+    static String render(long traceId) {
+        return String.format("%08x", traceId);
+    }
+
+    private TraceFrame frameAt(int level) {
+        if (level >= frames.length) {
+            frames = Arrays.copyOf(frames, Math.max(frames.length * 2, level + 1));
+        }
+        TraceFrame frame = frames[level];
+        if (frame == null) {
+            frame = new TraceFrame(this, level);
+            frames[level] = frame;
+        }
+        return frame;
+    }
+}
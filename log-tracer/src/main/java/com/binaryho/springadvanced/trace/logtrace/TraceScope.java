@@ -0,0 +1,7 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+public interface TraceScope extends AutoCloseable {
+
+    @Override
+    void close();
+}
@@ -0,0 +1,20 @@
+package com.binaryho.springadvanced.trace.propagation;
+
+import com.binaryho.springadvanced.trace.logtrace.TraceContextHolder;
+import java.util.concurrent.Executor;
+
+public class TraceContextExecutor implements Executor {
+
+    private final Executor delegate;
+    private final TraceContextTaskDecorator decorator;
+
+    public TraceContextExecutor(Executor delegate, TraceContextHolder holder) {
+        this.delegate = delegate;
+        this.decorator = new TraceContextTaskDecorator(holder);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(decorator.decorate(command));
+    }
+}
@@ -0,0 +1,61 @@
+package com.binaryho.springadvanced.trace.propagation;
+
+import com.binaryho.springadvanced.trace.logtrace.LogTrace;
+import com.binaryho.springadvanced.trace.logtrace.TraceContextHolder;
+import java.lang.reflect.Field;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ReflectionUtils;
+
+/*
+ * MEMO : 스프링 빈으로 등록된 ThreadPoolTaskExecutor 에 TraceContextTaskDecorator 를 건다.
+ *  (@Async 가 쓰는 applicationTaskExecutor 포함)
+ *  TaskDecorator 는 initialize() 전에만 반영되기 때문에 초기화 전 콜백에서 설정한다.
+ *  이미 걸려 있는 TaskDecorator 는 버리지 않고 TraceContextTaskDecorator 안쪽에 감싼다.
+ *  LogTrace 빈은 실행기가 처음 나올 때 찾는다. 빈 후처리기가 LogTrace 를 일찍 만들지 않도록.
+ * */
+@Slf4j
+public class TraceContextExecutorPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<LogTrace> logTraceProvider;
+
+    public TraceContextExecutorPostProcessor(ObjectProvider<LogTrace> logTraceProvider) {
+        this.logTraceProvider = logTraceProvider;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        if (!(bean instanceof ThreadPoolTaskExecutor)) {
+            return bean;
+        }
+
+        LogTrace logTrace = logTraceProvider.getIfAvailable();
+        if (!(logTrace instanceof TraceContextHolder)) {
+            log.warn("trace context is not propagated to executor '{}': {} does not support propagation",
+                beanName, logTrace == null ? null : logTrace.getClass().getSimpleName());
+            return bean;
+        }
+
+        TaskDecorator existing = existingDecorator(bean);
+        if (existing instanceof TraceContextTaskDecorator) {
+            return bean;
+        }
+        ((ThreadPoolTaskExecutor) bean).setTaskDecorator(
+            new TraceContextTaskDecorator((TraceContextHolder) logTrace, existing));
+        return bean;
+    }
+
+    // ThreadPoolTaskExecutor 에는 taskDecorator getter 가 없어서 필드를 읽는다
+    private static TaskDecorator existingDecorator(Object executor) {
+        Field field = ReflectionUtils.findField(executor.getClass(), "taskDecorator", TaskDecorator.class);
+        if (field == null) {
+            return null;
+        }
+        ReflectionUtils.makeAccessible(field);
+        return (TaskDecorator) ReflectionUtils.getField(field, executor);
+    }
+}
@@ -0,0 +1,57 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.binaryho.springadvanced.trace.TraceStatus;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncLogTraceTest {
+
+    AsyncLogTrace trace = new AsyncLogTrace(16, OverflowPolicy.DROP_NEWEST);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        trace.close();
+    }
+
+    @Test
+    void begin_end_level2() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.end(status2);
+        trace.end(status1);
+    }
+
+    @Test
+    void begin_exception_level2() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+    }
+
+    @Test
+    void 소비한_예외는_링에서_비운다() throws InterruptedException {
+        TraceStatus status = trace.begin("hello1");
+        trace.exception(status, new IllegalStateException("예외 발생!!"));
+        trace.close();
+
+        assertThat(trace).extracting("ring").extracting("exceptions").asString().doesNotContain("예외 발생!!");
+    }
+
+    @Test
+    void 닫힌_뒤에는_BLOCK_이라도_가득_찬_링에서_기다리지_않고_버린다() throws InterruptedException {
+        AsyncLogTrace blocking = new AsyncLogTrace(2, OverflowPolicy.BLOCK);
+        blocking.close();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 3; i++) {
+                blocking.begin("hello" + i);
+            }
+        });
+        assertThat(blocking.getDroppedNewest()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.binaryho.springadvanced.trace.TraceStatus;
+import org.junit.jupiter.api.Test;
+
+public class FrameStackLogTraceTest {
+
+    FrameStackLogTrace trace = new FrameStackLogTrace();
+
+    @Test
+    void begin_end_level2() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+
+        assertThat(status2.getTraceId().getId()).isEqualTo(status1.getTraceId().getId());
+        assertThat(status2.getTraceId().getLevel()).isEqualTo(1);
+
+        trace.end(status2);
+        trace.end(status1);
+    }
+
+    @Test
+    void begin_exception_level2() {
+        TraceStatus status1 = trace.begin("hello1");
+        TraceStatus status2 = trace.begin("hello2");
+        trace.exception(status2, new IllegalStateException());
+        trace.exception(status1, new IllegalStateException());
+    }
+
+    @Test
+    void 같은_스레드에서는_레벨별_상태_객체를_재사용한다() {
+        TraceStatus first = trace.begin("hello1");
+        trace.end(first);
+
+        TraceStatus second = trace.begin("hello2");
+        trace.end(second);
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void 루트가_끝나면_새로운_트레이스_아이디로_시작한다() {
+        TraceStatus first = trace.begin("hello1");
+        String firstId = first.getTraceId().getId();
+        trace.end(first);
+
+        TraceStatus second = trace.begin("hello2");
+        String secondId = second.getTraceId().getId();
+        trace.end(second);
+
+        assertThat(secondId).isNotEqualTo(firstId);
+    }
+}
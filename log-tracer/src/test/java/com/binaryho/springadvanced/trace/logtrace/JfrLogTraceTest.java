@@ -0,0 +1,46 @@
+package com.binaryho.springadvanced.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.binaryho.springadvanced.trace.TraceStatus;
+import com.binaryho.springadvanced.trace.jfr.TraceSpanEvent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrLogTraceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void span_마다_이벤트를_커밋한다() throws IOException {
+        JfrLogTrace trace = new JfrLogTrace();
+        Path file = dir.resolve("trace.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(TraceSpanEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            TraceStatus root = trace.begin("hello1");
+            TraceStatus child = trace.begin("hello2");
+            trace.exception(child, new IllegalStateException());
+            trace.end(root);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(TraceSpanEvent.NAME))
+            .collect(Collectors.toList());
+        assertThat(events).extracting(event -> event.getString("message") + ":" + event.getInt("depth")
+                + ":" + event.getString("exceptionClass"))
+            .containsExactly("hello2:1:java.lang.IllegalStateException", "hello1:0:null");
+    }
+}
@@ -0,0 +1,131 @@
+package com.binaryho.springadvanced.trace.propagation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.binaryho.springadvanced.trace.TraceId;
+import com.binaryho.springadvanced.trace.TraceStatus;
+import com.binaryho.springadvanced.trace.logtrace.FrameStackLogTrace;
+import com.binaryho.springadvanced.trace.logtrace.LogTrace;
+import com.binaryho.springadvanced.trace.logtrace.TraceContextHolder;
+import com.binaryho.springadvanced.trace.logtrace.ThreadLocalLogTrace;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class TraceContextPropagationTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void threadLocalLogTrace_작업_스레드에서_자식으로_이어진다() throws Exception {
+        assertPropagated(new ThreadLocalLogTrace());
+    }
+
+    @Test
+    void frameStackLogTrace_작업_스레드에서_자식으로_이어진다() throws Exception {
+        assertPropagated(new FrameStackLogTrace());
+    }
+
+    @Test
+    void 호출한_스레드에서_바로_실행돼도_진행_중인_프레임을_덮어쓰지_않는다() {
+        FrameStackLogTrace trace = new FrameStackLogTrace();
+        TraceContextTaskDecorator decorator = new TraceContextTaskDecorator(trace);
+
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+        Runnable task = decorator.decorate(() -> trace.end(trace.begin("async")));
+        trace.end(child);
+
+        TraceStatus sibling = trace.begin("sibling"); // child 가 쓰던 레벨 1 프레임을 다시 쓴다
+        task.run();
+
+        assertThat(sibling.getMessage()).isEqualTo("sibling");
+        assertThat(trace.currentTraceId().getLevel()).isEqualTo(1);
+        trace.end(sibling);
+        trace.end(root);
+        assertThat(trace.currentTraceId()).isNull();
+    }
+
+    @Test
+    void 빈_후처리기가_ThreadPoolTaskExecutor_에_데코레이터를_건다() throws Exception {
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        new TraceContextExecutorPostProcessor(new StaticListableBeanFactory(Map.of("logTrace", trace))
+            .getBeanProvider(LogTrace.class))
+            .postProcessBeforeInitialization(taskExecutor, "taskExecutor");
+        taskExecutor.initialize();
+
+        try {
+            TraceStatus root = trace.begin("root");
+            TraceId traceId = taskExecutor.submit(trace::currentTraceId).get();
+            trace.end(root);
+
+            assertThat(traceId).isNotNull();
+            assertThat(traceId.getId()).isEqualTo(root.getTraceId().getId());
+        } finally {
+            taskExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void 빈_후처리기는_이미_걸려_있던_데코레이터를_안쪽에_감싼다() throws Exception {
+        ThreadLocalLogTrace trace = new ThreadLocalLogTrace();
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        AtomicInteger decorated = new AtomicInteger();
+        taskExecutor.setTaskDecorator(runnable -> {
+            decorated.incrementAndGet();
+            return runnable;
+        });
+        new TraceContextExecutorPostProcessor(new StaticListableBeanFactory(Map.of("logTrace", trace))
+            .getBeanProvider(LogTrace.class))
+            .postProcessBeforeInitialization(taskExecutor, "taskExecutor");
+        taskExecutor.initialize();
+
+        try {
+            TraceStatus root = trace.begin("root");
+            TraceId traceId = taskExecutor.submit(trace::currentTraceId).get();
+            trace.end(root);
+
+            assertThat(decorated).hasValue(1);
+            assertThat(traceId).isNotNull();
+        } finally {
+            taskExecutor.shutdown();
+        }
+    }
+
+    private <T extends LogTrace & TraceContextHolder> void assertPropagated(T trace) throws Exception {
+        TraceStatus root = trace.begin("root");
+        AtomicReference<TraceId> afterTask = new AtomicReference<>();
+
+        TraceId childTraceId = TraceCompletableFutures.supplyAsync(childSpan(trace), executor, trace).get();
+        CompletableFuture.runAsync(() -> afterTask.set(trace.currentTraceId()), executor).get();
+        trace.end(root);
+
+        assertThat(childTraceId.getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(childTraceId.getLevel()).isEqualTo(1);
+        assertThat(afterTask.get()).as("작업이 끝나면 작업 스레드의 컨텍스트를 되돌린다").isNull();
+        assertThat(trace.currentTraceId()).isNull();
+    }
+
+    private <T extends LogTrace & TraceContextHolder> Supplier<TraceId> childSpan(T trace) {
+        return () -> {
+            TraceStatus status = trace.begin("child");
+            TraceId traceId = trace.currentTraceId();
+            trace.end(status);
+            return traceId;
+        };
+    }
+}
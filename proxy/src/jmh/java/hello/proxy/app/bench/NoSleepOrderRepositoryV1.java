@@ -0,0 +1,15 @@
+package hello.proxy.app.bench;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+
+// MEMO : 벤치마크용. sleep(1000) 을 뺀 OrderRepositoryV1Impl
+//  PackageLogTracePostProcessor, 포인트컷 "execution(* hello.proxy.app..*(..))" 의 대상이 되도록 hello.proxy.app 아래에 둔다.
+public class NoSleepOrderRepositoryV1 implements OrderRepositoryV1 {
+
+    @Override
+    public void save(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!!");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package hello.proxy.app.bench;
+
+import hello.proxy.app.v2.OrderRepositoryV2;
+
+// MEMO : 벤치마크용. sleep(1000) 을 뺀 OrderRepositoryV2
+public class NoSleepOrderRepositoryV2 extends OrderRepositoryV2 {
+
+    @Override
+    public void save(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!!!");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package hello.proxy.app.bench;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// MEMO : 벤치마크용. 저장소 연결 하나를 나눠 쓰는 리포지토리. save 도 saveAll 도 왕복 한 번(ROUND_TRIP_NANOS)을 연결을 잡고 기다린다.
+//  sleep(1000) 대신 1ms 로 줄였다.
+public class SingleConnectionOrderRepositoryV1 implements OrderRepositoryV1 {
+
+    private static final long ROUND_TRIP_NANOS = 1_000_000;
+
+    @Override
+    public synchronized void save(String itemId) {
+        roundTrip();
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!!");
+        }
+    }
+
+    @Override
+    public synchronized void saveAll(List<String> itemIds) {
+        roundTrip();
+    }
+
+    private static void roundTrip() {
+        long deadline = System.nanoTime() + ROUND_TRIP_NANOS;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package hello.proxy.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV1;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV2;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV3;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.app.v3.OrderControllerV3;
+import hello.proxy.app.v3.OrderServiceV3;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.trace.agent.AgentTrace;
+import hello.proxy.trace.logtrace.FrameStackLogTrace;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/*
+ * MEMO : trace-agent 가 위빙한 코드와 스프링 프록시(LogTraceAspect, AutoProxyConfig)를 같은 호출 체인으로 비교한다.
+ *  - agent     : 프록시 없이 객체를 직접 만든다. 메서드 안에 심어진 AgentTrace.begin/end 만 돈다.
+ *  - aspect    : AopConfig (@Aspect LogTraceAspect)
+ *  - autoProxy : AutoProxyConfig (어드바이저 두 개)
+ *  스프링 쪽은 할당이 없는 FrameStackLogTrace 를 쓰고, 양쪽 모두 로그 출력은 끈다.
+ *
+ *  에이전트가 붙은 JVM 에서 스프링 프록시까지 띄우면 트레이스가 두 번 남으므로 strategy 에 맞는 JVM 에서만 돈다.
+ *  ./gradlew :proxy:jmh -Pjmh.includes=AgentTraceBenchmark -Pjmh.agent -Pjmh.args="-p strategy=agent"
+ *  ./gradlew :proxy:jmh -Pjmh.includes=AgentTraceBenchmark -Pjmh.args="-p strategy=aspect,autoProxy"
+ * */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AgentTraceBenchmark {
+
+    // JUL 로거는 약한 참조로 관리되므로 레벨을 바꾼 로거를 붙잡아 둔다
+    private static final java.util.logging.Logger AGENT_LOGGER =
+        java.util.logging.Logger.getLogger("hello.proxy.trace.agent");
+
+    @Param({"agent", "aspect", "autoProxy"})
+    private String strategy;
+
+    @Param({"v1", "v2", "v3"})
+    private String chain;
+
+    private Function<String, String> request;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        boolean agent = strategy.equals("agent");
+        if (agent != AgentTrace.isInstalled()) {
+            throw new IllegalStateException("strategy=" + strategy + " requires "
+                + (agent ? "-javaagent:trace-agent.jar" : "a JVM without the trace agent"));
+        }
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(Level.WARN);
+        AGENT_LOGGER.setLevel(java.util.logging.Level.WARNING);
+
+        switch (strategy) {
+            case "agent":
+                request = directChain();
+                break;
+            case "aspect":
+                context = ProxyStrategyBenchmark.startContext(new FrameStackLogTrace(), AopConfig.class,
+                    OrderControllerV3.class, OrderServiceV3.class, NoSleepOrderRepositoryV3.class);
+                request = contextChain();
+                break;
+            case "autoProxy":
+                context = ProxyStrategyBenchmark.startContext(new FrameStackLogTrace(), AutoProxyConfig.class,
+                    OrderControllerV3.class, OrderServiceV3.class, NoSleepOrderRepositoryV3.class);
+                request = contextChain();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String request() {
+        return request.apply("itemA");
+    }
+
+    private Function<String, String> directChain() {
+        switch (chain) {
+            case "v1":
+                return new OrderControllerV1Impl(new OrderServiceV1Impl(new NoSleepOrderRepositoryV1()))::request;
+            case "v2":
+                return new OrderControllerV2(new OrderServiceV2(new NoSleepOrderRepositoryV2()))::request;
+            case "v3":
+                return new OrderControllerV3(new OrderServiceV3(new NoSleepOrderRepositoryV3()))::request;
+            default:
+                throw new IllegalArgumentException("unknown chain: " + chain);
+        }
+    }
+
+    private Function<String, String> contextChain() {
+        switch (chain) {
+            case "v1":
+                return context.getBean(OrderControllerV1.class)::request;
+            case "v2":
+                return context.getBean(OrderControllerV2.class)::request;
+            case "v3":
+                return context.getBean(OrderControllerV3.class)::request;
+            default:
+                throw new IllegalArgumentException("unknown chain: " + chain);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package hello.proxy.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v4.OrderControllerV4;
+import hello.proxy.app.v4.OrderRepositoryV4;
+import hello.proxy.app.v4.OrderServiceV4;
+import hello.proxy.config.reactive.ReactiveLogTraceAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.thread.VirtualThreads;
+import hello.proxy.trace.logtrace.ReactorLogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+/*
+ * MEMO : 주문 체인이 감당하는 동시성 비교
+ *  - platform : V1 체인(LogTraceAdvice + ThreadLocalLogTrace)을 톰캣 워커 풀 크기(기본 최대 200개)의 풀에서 호출
+ *  - virtual  : 같은 V1 체인을 요청마다 가상 스레드에서 호출 (JDK 21+)
+ *  - reactive : V4 체인(ReactiveLogTraceAdvice + ReactorLogTrace)을 구독만 하고 Mono.delay 가 끝나길 기다린다
+ *  리포지토리는 모두 1초 기다린다. 동시에 N 개를 한꺼번에 넣고 각 요청이 끝날 때까지를 지연으로 잡는다. (줄 선 시간 포함)
+ *  p99 가 1초의 2배 안이면 그 동시성을 감당한 것으로 보고, 못 감당하면 그 모드는 더 올리지 않는다.
+ *  스레드 모드에서는 요청이 끝난 뒤 스레드에 트레이스 상태가 남아 있으면 leaked 로 센다.
+ *  ./gradlew :proxy:loadTest (-Pvirtual 이면 JDK 21 툴체인으로 돌고, 21 미만에서는 virtual 을 건너뛴다)
+ * */
+public class ConcurrencyLoadTest {
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final long SLEEP_MS = 1000;
+    private static final int[] DEFAULT_LEVELS = {200, 1_000, 10_000, 100_000};
+
+    public static void main(String[] args) throws InterruptedException {
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(Level.WARN);
+        int[] levels = args.length == 0 ? DEFAULT_LEVELS : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        runThreads("platform(" + PLATFORM_POOL_SIZE + ")", () -> Executors.newFixedThreadPool(PLATFORM_POOL_SIZE),
+            levels);
+        if (VirtualThreads.isSupported()) {
+            runThreads("virtual", () -> VirtualThreads.newThreadPerTaskExecutor("load-virtual-"), levels);
+        } else {
+            System.out.println("virtual : not supported on " + Runtime.version());
+        }
+        runReactive(levels);
+    }
+
+    private static void runThreads(String mode, Supplier<ExecutorService> executors, int[] levels)
+        throws InterruptedException {
+        ThreadLocalLogTrace logTrace = new ThreadLocalLogTrace();
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        OrderRepositoryV1 repository = proxy(new OrderRepositoryV1Impl(), advice);
+        OrderServiceV1 service = proxy(new OrderServiceV1Impl(repository), advice);
+        OrderControllerV1 controller = proxy(new OrderControllerV1Impl(service), advice);
+
+        for (int concurrency : levels) {
+            long[] latencies = new long[concurrency];
+            AtomicInteger leaked = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(concurrency);
+            ExecutorService executor = executors.get();
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) {
+                int index = i;
+                executor.execute(() -> {
+                    controller.request("itemA");
+                    if (logTrace.currentTraceId() != null) {
+                        leaked.incrementAndGet();
+                    }
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                });
+            }
+            done.await();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            if (!report(mode, start, latencies, leaked.get())) {
+                return;
+            }
+        }
+    }
+
+    private static void runReactive(int[] levels) throws InterruptedException {
+        ReactiveLogTraceAdvice advice = new ReactiveLogTraceAdvice(new ReactorLogTrace());
+        OrderRepositoryV4 repository = proxy(new OrderRepositoryV4(), advice);
+        OrderServiceV4 service = proxy(new OrderServiceV4(repository), advice);
+        OrderControllerV4 controller = proxy(new OrderControllerV4(service), advice);
+
+        for (int concurrency : levels) {
+            long[] latencies = new long[concurrency];
+            CountDownLatch done = new CountDownLatch(concurrency);
+            long start = System.nanoTime();
+            for (int i = 0; i < concurrency; i++) {
+                int index = i;
+                controller.request("itemA").subscribe(result -> {
+                    latencies[index] = System.nanoTime() - start;
+                    done.countDown();
+                });
+            }
+            done.await();
+            if (!report("reactive", start, latencies, 0)) {
+                return;
+            }
+        }
+    }
+
+    // 감당했으면 true
+    private static boolean report(String mode, long start, long[] latencies, int leaked) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Arrays.sort(latencies);
+        long p99Ms = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(latencies.length * 0.99) - 1]);
+        boolean sustained = p99Ms <= SLEEP_MS * 2;
+        System.out.printf("%-14s concurrency=%7d elapsed=%6dms throughput=%9.1f req/s p99=%6dms leaked=%d %s%n",
+            mode, latencies.length, elapsedMs, latencies.length * 1000.0 / elapsedMs, p99Ms, leaked,
+            sustained ? "OK" : "SATURATED");
+        return sustained;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, MethodInterceptor advice) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(advice);
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,283 @@
+package hello.proxy.config;
+
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV1;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV2;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderControllerV1TraceProxy;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1TraceProxy;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v1.OrderServiceV1TraceProxy;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderControllerConcreteProxy;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderRepositoryConcreteProxy;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderServiceConcreteProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceFilterHandler;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceMethodHandleHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.v6_aop.ProfilingAopConfig;
+import hello.proxy.trace.logtrace.FrameStackLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.NoopLogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+/*
+ * MEMO : 같은 Controller -> Service -> Repository 호출을 프록시 방식별로 잰다.
+ *  - direct-*          : 프록시 없이 호출 (기준선)
+ *  - interfaceProxy    : config.v1_proxy.interface_proxy (V1)
+ *  - concreteProxy     : config.v1_proxy.concrete_proxy (V2)
+ *  - generatedProxy    : trace-processor 가 컴파일 시점에 만든 <인터페이스>TraceProxy (V1)
+ *  - dynamicProxy*     : JDK 동적 프록시 + LogTraceBasicHandler / LogTraceFilterHandler / LogTraceMethodHandleHandler (V1)
+ *  - proxyFactoryV1/V2 : ProxyFactory + LogTraceAdvice (JDK 동적 프록시 / CGLIB)
+ *  - postProcessor-*, autoProxy-*, aspect-* : 실제 설정 클래스로 스프링 컨텍스트를 띄워서 꺼낸 빈
+ *  - profiling-*       : ProfilingAopConfig. 컨트롤러만 감싸고 SamplingProfiler 가 50Hz 로 샘플링한다
+ *  리포지토리는 sleep 을 뺀 NoSleepOrderRepositoryV1/V2 로 바꾸고, 메트릭 기록은 끈다.
+ *  logTrace=noop 이면 트레이스 비용이 빠지므로 프록시 호출 자체의 비용만 남는다.
+ *  할당량은 -prof gc 의 gc.alloc.rate.norm (B/op) 으로 비교한다.
+ * */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyStrategyBenchmark {
+
+    private static final String[] PATTERNS = {"request*", "order*", "save*"};
+
+    @Param({"direct-v1", "direct-v2", "interfaceProxy", "concreteProxy", "generatedProxy",
+        "dynamicProxyBasic", "dynamicProxyFilter", "dynamicProxyMethodHandle", "proxyFactoryV1", "proxyFactoryV2",
+        "postProcessor-v1", "postProcessor-v2", "autoProxy-v1", "autoProxy-v2", "aspect-v1", "aspect-v2",
+        "profiling-v1", "profiling-v2"})
+    private String strategy;
+
+    @Param({"noop", "threadLocal", "frameStack"})
+    private String logTrace;
+
+    private Function<String, String> request;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(ch.qos.logback.classic.Level.WARN);
+        LogTrace trace = createLogTrace();
+
+        switch (strategy) {
+            case "direct-v1":
+                request = v1(new OrderControllerV1Impl(new OrderServiceV1Impl(new NoSleepOrderRepositoryV1())));
+                break;
+            case "direct-v2":
+                request = v2(new OrderControllerV2(new OrderServiceV2(new NoSleepOrderRepositoryV2())));
+                break;
+            case "interfaceProxy":
+                request = v1(interfaceProxy(trace));
+                break;
+            case "concreteProxy":
+                request = v2(concreteProxy(trace));
+                break;
+            case "generatedProxy":
+                request = v1(generatedProxy(trace));
+                break;
+            case "dynamicProxyBasic":
+                request = v1(dynamicProxy(trace, "basic"));
+                break;
+            case "dynamicProxyFilter":
+                request = v1(dynamicProxy(trace, "filter"));
+                break;
+            case "dynamicProxyMethodHandle":
+                request = v1(dynamicProxy(trace, "methodHandle"));
+                break;
+            case "proxyFactoryV1":
+                request = v1(proxyFactoryV1(trace));
+                break;
+            case "proxyFactoryV2":
+                request = v2(proxyFactoryV2(trace));
+                break;
+            case "postProcessor-v1":
+            case "postProcessor-v2":
+                context = startContext(trace, BeanPostProcessorConfig.class);
+                break;
+            case "autoProxy-v1":
+            case "autoProxy-v2":
+                context = startContext(trace, AutoProxyConfig.class);
+                break;
+            case "aspect-v1":
+            case "aspect-v2":
+                context = startContext(trace, AopConfig.class);
+                break;
+            case "profiling-v1":
+            case "profiling-v2":
+                context = startContext(trace, ProfilingAopConfig.class);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+
+        if (context != null) {
+            request = strategy.endsWith("-v1")
+                ? v1(context.getBean(OrderControllerV1.class))
+                : v2(context.getBean(OrderControllerV2.class));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String request() {
+        return request.apply("itemA");
+    }
+
+    private LogTrace createLogTrace() {
+        switch (logTrace) {
+            case "noop":
+                return new NoopLogTrace();
+            case "threadLocal":
+                return new ThreadLocalLogTrace();
+            case "frameStack":
+                return new FrameStackLogTrace();
+            default:
+                throw new IllegalArgumentException("unknown logTrace: " + logTrace);
+        }
+    }
+
+    private static Function<String, String> v1(OrderControllerV1 controller) {
+        return controller::request;
+    }
+
+    private static Function<String, String> v2(OrderControllerV2 controller) {
+        return controller::request;
+    }
+
+    private static OrderControllerV1 interfaceProxy(LogTrace trace) {
+        OrderRepositoryV1 repository = new OrderRepositoryInterfaceProxy(new NoSleepOrderRepositoryV1(), trace);
+        OrderServiceV1 service = new OrderServiceInterfaceProxy(new OrderServiceV1Impl(repository), trace);
+        return new OrderControllerInterfaceProxy(new OrderControllerV1Impl(service), trace);
+    }
+
+    private static OrderControllerV2 concreteProxy(LogTrace trace) {
+        OrderRepositoryV2 repository = new OrderRepositoryConcreteProxy(new NoSleepOrderRepositoryV2(), trace);
+        OrderServiceV2 service = new OrderServiceConcreteProxy(new OrderServiceV2(repository), trace);
+        return new OrderControllerConcreteProxy(new OrderControllerV2(service), trace);
+    }
+
+    private static OrderControllerV1 generatedProxy(LogTrace trace) {
+        OrderRepositoryV1 repository = new OrderRepositoryV1TraceProxy(new NoSleepOrderRepositoryV1(), trace);
+        OrderServiceV1 service = new OrderServiceV1TraceProxy(new OrderServiceV1Impl(repository), trace);
+        return new OrderControllerV1TraceProxy(new OrderControllerV1Impl(service), trace);
+    }
+
+    private static OrderControllerV1 dynamicProxy(LogTrace trace, String handler) {
+        OrderRepositoryV1 repository = jdkProxy(OrderRepositoryV1.class,
+            handler(new NoSleepOrderRepositoryV1(), trace, handler));
+        OrderServiceV1 service = jdkProxy(OrderServiceV1.class,
+            handler(new OrderServiceV1Impl(repository), trace, handler));
+        return jdkProxy(OrderControllerV1.class, handler(new OrderControllerV1Impl(service), trace, handler));
+    }
+
+    private static InvocationHandler handler(Object target, LogTrace trace, String handler) {
+        switch (handler) {
+            case "filter":
+                return new LogTraceFilterHandler(target, trace, PATTERNS);
+            case "methodHandle":
+                return new LogTraceMethodHandleHandler(target, trace, PATTERNS);
+            default:
+                return new LogTraceBasicHandler(target, trace);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T jdkProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    private static OrderControllerV1 proxyFactoryV1(LogTrace trace) {
+        Advisor advisor = advisor(trace);
+        OrderRepositoryV1 repository = proxy(new NoSleepOrderRepositoryV1(), advisor);
+        OrderServiceV1 service = proxy(new OrderServiceV1Impl(repository), advisor);
+        return proxy(new OrderControllerV1Impl(service), advisor);
+    }
+
+    private static OrderControllerV2 proxyFactoryV2(LogTrace trace) {
+        Advisor advisor = advisor(trace);
+        OrderRepositoryV2 repository = proxy(new NoSleepOrderRepositoryV2(), advisor);
+        OrderServiceV2 service = proxy(new OrderServiceV2(repository), advisor);
+        return proxy(new OrderControllerV2(service), advisor);
+    }
+
+    private static Advisor advisor(LogTrace trace) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames(PATTERNS);
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(trace));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, Advisor advisor) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvisor(advisor);
+        return (T) factory.getProxy();
+    }
+
+    /*
+     * MEMO : 직접 등록한 빈 정의가 설정 클래스의 같은 이름 @Bean 보다 우선한다.
+     *  그래서 AppV1Config / AppV2Config 의 리포지토리와 TraceMetricsConfig 의 레지스트리를 여기서 바꿔 끼운다.
+     * */
+    static AnnotationConfigApplicationContext startContext(LogTrace trace, Class<?>... componentClasses) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean("logTrace", LogTrace.class, () -> trace);
+        context.registerBean("methodMetricsRegistry", MethodMetricsRegistry.class, MethodMetricsRegistry::disabled);
+        context.registerBean("orderRepositoryV1", OrderRepositoryV1.class, NoSleepOrderRepositoryV1::new);
+        context.registerBean("orderRepositoryV2", OrderRepositoryV2.class, NoSleepOrderRepositoryV2::new);
+        context.register(AutoProxyInfrastructure.class);
+        context.register(componentClasses);
+        context.refresh();
+        return context;
+    }
+
+    // 스프링 부트의 AopAutoConfiguration 과 같은 설정 (spring.aop.proxy-target-class=true)
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class AutoProxyInfrastructure {
+    }
+}
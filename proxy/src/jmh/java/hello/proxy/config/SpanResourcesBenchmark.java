@@ -0,0 +1,88 @@
+package hello.proxy.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV1;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.FrameStackLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.resource.ThreadResources;
+import hello.proxy.trace.toggle.TraceSwitch;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+/*
+ * MEMO : span 마다 CPU 시간 / 할당 바이트를 잴 때의 비용
+ *  - nanoTime / cpuTimeNanos / allocatedBytes : 시계 하나를 읽는 비용
+ *  - request : proxyFactoryV1 체인(span 3개)을 resources 를 켜고 / 끄고 호출
+ *  ./gradlew :proxy:jmh -Pjmh.include=SpanResourcesBenchmark
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpanResourcesBenchmark {
+
+    @Param({"off", "on"})
+    private String resources;
+
+    private OrderControllerV1 controller;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(Level.WARN);
+        TraceSwitch traceSwitch = new TraceSwitch();
+        traceSwitch.setResourcesEnabled("on".equals(resources));
+        LogTraceAdvice advice = new LogTraceAdvice(new FrameStackLogTrace(), new MethodMetricsRegistry(),
+            traceSwitch.gate("proxyFactoryV1"));
+        OrderRepositoryV1 repository = proxy(new NoSleepOrderRepositoryV1(), advice);
+        OrderServiceV1 service = proxy(new OrderServiceV1Impl(repository), advice);
+        controller = proxy(new OrderControllerV1Impl(service), advice);
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Benchmark
+    public long cpuTimeNanos() {
+        return ThreadResources.cpuTimeNanos();
+    }
+
+    @Benchmark
+    public long allocatedBytes() {
+        return ThreadResources.allocatedBytes();
+    }
+
+    @Benchmark
+    public String request() {
+        return controller.request("itemA");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, LogTraceAdvice advice) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(advice);
+        return (T) factory.getProxy();
+    }
+}
@@ -0,0 +1,146 @@
+package hello.proxy.config;
+
+import ch.qos.logback.classic.Logger;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV1;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceMethodHandleHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.trace.logtrace.FrameStackLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import hello.proxy.trace.toggle.TraceSwitch;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/*
+ * MEMO : 프록시는 그대로 두고 TraceSwitch 만 바꿨을 때의 비용
+ *  - on        : 평소처럼 트레이스
+ *  - off       : 전역으로 끔. direct 와의 차이가 프록시 호출 + 스위치 확인 비용이다
+ *  - perMethod : "*.save" 만 켬. 나머지 메서드는 캐시된 결정으로 건너뛴다
+ *  ./gradlew :proxy:jmh -Pjmh.include=TraceSwitchBenchmark
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceSwitchBenchmark {
+
+    private static final String[] PATTERNS = {"request*", "order*", "save*"};
+
+    @Param({"direct", "proxyFactoryV1", "dynamicProxyMethodHandle", "aspect-v2"})
+    private String strategy;
+
+    @Param({"on", "off", "perMethod"})
+    private String switchState;
+
+    private Function<String, String> request;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger("hello.proxy")).setLevel(ch.qos.logback.classic.Level.WARN);
+        FrameStackLogTrace trace = new FrameStackLogTrace();
+        TraceSwitch traceSwitch = new TraceSwitch();
+
+        switch (strategy) {
+            case "direct":
+                request = new OrderControllerV1Impl(new OrderServiceV1Impl(new NoSleepOrderRepositoryV1()))::request;
+                break;
+            case "proxyFactoryV1":
+                request = proxyFactoryV1(trace, traceSwitch.gate(strategy))::request;
+                break;
+            case "dynamicProxyMethodHandle":
+                request = dynamicProxy(trace, traceSwitch.gate(strategy))::request;
+                break;
+            case "aspect-v2":
+                context = ProxyStrategyBenchmark.startContext(trace, AopConfig.class);
+                traceSwitch = context.getBean(TraceSwitch.class);
+                request = context.getBean(OrderControllerV2.class)::request;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown strategy: " + strategy);
+        }
+
+        switch (switchState) {
+            case "on":
+                break;
+            case "off":
+                traceSwitch.setGlobalEnabled(false);
+                break;
+            case "perMethod":
+                traceSwitch.setGlobalEnabled(false);
+                traceSwitch.setMethodEnabled("*.save", true);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown switchState: " + switchState);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String request() {
+        return request.apply("itemA");
+    }
+
+    private static OrderControllerV1 proxyFactoryV1(FrameStackLogTrace trace, TraceGate gate) {
+        LogTraceAdvice advice = new LogTraceAdvice(trace, MethodMetricsRegistry.disabled(), gate);
+        OrderRepositoryV1 repository = proxy(new NoSleepOrderRepositoryV1(), advice);
+        OrderServiceV1 service = proxy(new OrderServiceV1Impl(repository), advice);
+        return proxy(new OrderControllerV1Impl(service), advice);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, LogTraceAdvice advice) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(advice);
+        return (T) factory.getProxy();
+    }
+
+    private static OrderControllerV1 dynamicProxy(FrameStackLogTrace trace, TraceGate gate) {
+        OrderRepositoryV1 repository = jdkProxy(OrderRepositoryV1.class,
+            handler(new NoSleepOrderRepositoryV1(), trace, gate));
+        OrderServiceV1 service = jdkProxy(OrderServiceV1.class,
+            handler(new OrderServiceV1Impl(repository), trace, gate));
+        return jdkProxy(OrderControllerV1.class, handler(new OrderControllerV1Impl(service), trace, gate));
+    }
+
+    private static InvocationHandler handler(Object target, FrameStackLogTrace trace, TraceGate gate) {
+        return new LogTraceMethodHandleHandler(target, trace, PATTERNS, MethodMetricsRegistry.disabled(), gate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T jdkProxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[]{type}, handler);
+    }
+}
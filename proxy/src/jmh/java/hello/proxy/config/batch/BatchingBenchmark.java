@@ -0,0 +1,65 @@
+package hello.proxy.config.batch;
+
+import hello.proxy.app.bench.SingleConnectionOrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+
+/*
+ * MEMO : 동시 호출 32개가 왕복 1ms 짜리 저장소 연결 하나로 save 할 때의 처리량
+ *  - off : 호출마다 왕복 한 번 -> 연결 하나가 초당 ~1000 건으로 막힌다
+ *  - on  : SaveBatchingAdvice 로 모아 saveAll 한 번 -> 왕복 한 번에 여러 건
+ *  ./gradlew :proxy:jmh -Pjmh.include=BatchingBenchmark
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class BatchingBenchmark {
+
+    @Param({"off", "on"})
+    private String batching;
+
+    private SaveBatchingAdvice advice;
+    private OrderRepositoryV1 repository;
+
+    @Setup
+    public void setUp() {
+        ProxyFactory factory = new ProxyFactory(new SingleConnectionOrderRepositoryV1());
+        if ("on".equals(batching)) {
+            advice = new SaveBatchingAdvice("bench", BatchingAdvisorConfig.MAX_BATCH_SIZE,
+                BatchingAdvisorConfig.MAX_WAIT_MICROS, BatchingAdvisorConfig.QUEUE_CAPACITY,
+                BatchingAdvisorConfig.RESULT_TIMEOUT_MS);
+            factory.addAdvice(advice);
+        }
+        repository = (OrderRepositoryV1) factory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        if (advice != null) {
+            advice.close();
+        }
+    }
+
+    @Benchmark
+    public void save() {
+        repository.save("itemA");
+    }
+}
@@ -0,0 +1,72 @@
+package hello.proxy.config.v2_dynamicproxy.handler;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.trace.logtrace.NoopLogTrace;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * MEMO : JDK 동적 프록시 하나를 통과하는 호출 비용을 InvocationHandler 별로 비교한다.
+ *  트레이스 비용을 빼기 위해 NoopLogTrace 를 쓴다.
+ *  request() 는 패턴에 걸리는 메서드, noLog() 는 패턴에서 빠지는 메서드.
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DynamicProxyHandlerBenchmark {
+
+    private static final String[] PATTERNS = {"request*", "order*", "save*"};
+
+    @Param({"basic", "filter", "methodHandle"})
+    private String handler;
+
+    private OrderControllerV1 proxy;
+
+    @Setup
+    public void setUp() {
+        OrderControllerV1 target = new OrderControllerV1Impl(itemId -> {
+        });
+        proxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+            new Class[]{OrderControllerV1.class}, createHandler(target));
+    }
+
+    @Benchmark
+    public String request() {
+        return proxy.request("itemA");
+    }
+
+    @Benchmark
+    public String noLog() {
+        return proxy.noLog();
+    }
+
+    private InvocationHandler createHandler(OrderControllerV1 target) {
+        NoopLogTrace logTrace = new NoopLogTrace();
+        switch (handler) {
+            case "basic":
+                return new LogTraceBasicHandler(target, logTrace);
+            case "filter":
+                return new LogTraceFilterHandler(target, logTrace, PATTERNS);
+            case "methodHandle":
+                return new LogTraceMethodHandleHandler(target, logTrace, PATTERNS);
+            default:
+                throw new IllegalArgumentException("unknown handler: " + handler);
+        }
+    }
+}
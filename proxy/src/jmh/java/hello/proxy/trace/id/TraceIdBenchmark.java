@@ -0,0 +1,59 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * MEMO : 여러 스레드가 동시에 루트 트레이스를 시작할 때의 아이디 생성 처리량
+ *  uuid 는 기존 TraceId.createId() 와 같은 UUID.randomUUID() 경로이다.
+ *  스레드 수는 -t 옵션으로 바꿔볼 수 있다.
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TraceIdBenchmark {
+
+    @Param({"uuid", "random", "snowflake"})
+    private String type;
+
+    private TraceIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        switch (type) {
+            case "uuid":
+                generator = new UuidTraceIdGenerator();
+                break;
+            case "random":
+                generator = new RandomTraceIdGenerator();
+                break;
+            default:
+                generator = new SnowflakeTraceIdGenerator(1);
+        }
+    }
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextIdRendered() {
+        return generator.render(generator.nextId());
+    }
+}
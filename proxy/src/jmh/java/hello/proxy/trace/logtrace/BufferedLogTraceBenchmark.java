@@ -0,0 +1,123 @@
+package hello.proxy.trace.logtrace;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import hello.proxy.app.bench.NoSleepOrderRepositoryV1;
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderRepositoryInterfaceProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderServiceInterfaceProxy;
+import hello.proxy.trace.journal.JournalReader;
+import hello.proxy.trace.journal.TraceJournal;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/*
+ * MEMO : /v1/request 와 같은 Controller -> Service -> Repository (V1, 인터페이스 프록시) 호출을 여러 스레드에서 동시에 실행한다.
+ *  LogTraceBenchmark 와 달리 로그를 실제로 남긴다. 어펜더는 콘솔 대신 버리는 스트림에 쓰는 OutputStreamAppender 라서
+ *  패턴 인코딩과 어펜더 잠금 비용은 그대로 들고 I/O 만 빠진다.
+ *  journal 은 로그 대신 임시 디렉터리의 TraceJournal 세그먼트에 바이너리로 기록한다.
+ *  ./gradlew :proxy:jmh -Pjmh.include=BufferedLogTraceBenchmark
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BufferedLogTraceBenchmark {
+
+    @Param({"threadLocal", "frameStack", "buffered", "journal"})
+    private String type;
+
+    private OrderControllerV1 controller;
+    private OutputStreamAppender<ILoggingEvent> appender;
+    private TraceJournal journal;
+    private Path journalDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+        appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger logger = (Logger) LoggerFactory.getLogger("hello.proxy.trace.logtrace");
+        logger.setLevel(ch.qos.logback.classic.Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+
+        LogTrace trace = createLogTrace();
+        OrderRepositoryV1 repository = new OrderRepositoryInterfaceProxy(new NoSleepOrderRepositoryV1(), trace);
+        OrderServiceV1 service = new OrderServiceInterfaceProxy(new OrderServiceV1Impl(repository), trace);
+        controller = new OrderControllerInterfaceProxy(new OrderControllerV1Impl(service), trace);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Logger logger = (Logger) LoggerFactory.getLogger("hello.proxy.trace.logtrace");
+        logger.detachAppender(appender);
+        logger.setAdditive(true);
+        appender.stop();
+        if (journal != null) {
+            journal.close();
+            for (Path segment : JournalReader.segments(journalDirectory)) {
+                Files.delete(segment);
+            }
+            Files.delete(journalDirectory);
+        }
+    }
+
+    @Benchmark
+    public String request() {
+        return controller.request("itemA");
+    }
+
+    private LogTrace createLogTrace() throws IOException {
+        switch (type) {
+            case "threadLocal":
+                return new ThreadLocalLogTrace();
+            case "frameStack":
+                return new FrameStackLogTrace();
+            case "buffered":
+                return new BufferedLogTrace();
+            case "journal":
+                journalDirectory = Files.createTempDirectory("trace-journal");
+                journal = new TraceJournal(journalDirectory);
+                return new JournalLogTrace(journal);
+            default:
+                throw new IllegalArgumentException("unknown type: " + type);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package hello.proxy.trace.logtrace;
+
+import ch.qos.logback.classic.Logger;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.inflight.InFlightRegistry;
+import hello.proxy.trace.recorder.TraceFlightRecorder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+/*
+ * MEMO : Controller -> Service -> Repository 3단계 호출의 begin/end 비용
+ *  할당량은 -prof gc 의 gc.alloc.rate.norm (B/op) 으로 비교한다.
+ *  로그 출력 자체의 할당을 빼고 트레이스 상태 관리 비용만 보기 위해 로그 레벨을 WARN 으로 올린다.
+ *  beginEnd3Level 은 매번 새 루트 트레이스(트레이스 아이디 생성 포함)이고,
+ *  nestedBeginEnd2Level 은 이미 열린 루트 아래에서 반복되는 하위 호출만 잰다.
+ *  flightRecorder 는 로그 없이(NoopLogTrace) TraceFlightRecorder 링에만 기록하는 비용이다.
+ *  inFlight 는 NoopLogTrace 에 InFlightRegistry 슬롯 쓰기만 더한 비용이다. (noop 과 비교)
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogTraceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Tracer {
+
+        @Param({"threadLocal", "frameStack", "flightRecorder", "noop", "inFlight"})
+        private String type;
+
+        protected LogTrace trace;
+
+        @Setup
+        public void setUp() {
+            Logger logger = (Logger) LoggerFactory.getLogger("hello.proxy.trace");
+            logger.setLevel(ch.qos.logback.classic.Level.WARN);
+            switch (type) {
+                case "frameStack":
+                    trace = new FrameStackLogTrace();
+                    break;
+                case "flightRecorder":
+                    trace = new FlightRecorderLogTrace(new NoopLogTrace(), new TraceFlightRecorder());
+                    break;
+                case "noop":
+                    trace = new NoopLogTrace();
+                    break;
+                case "inFlight":
+                    trace = new InFlightLogTrace(new NoopLogTrace(), new InFlightRegistry());
+                    break;
+                default:
+                    trace = new ThreadLocalLogTrace();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OpenRoot extends Tracer {
+
+        private TraceStatus root;
+
+        @Setup(Level.Iteration)
+        public void open() {
+            root = trace.begin("OrderController.request()");
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            trace.end(root);
+        }
+    }
+
+    @Benchmark
+    public TraceStatus beginEnd3Level(Tracer tracer) {
+        LogTrace trace = tracer.trace;
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+        return controller;
+    }
+
+    @Benchmark
+    public TraceStatus nestedBeginEnd2Level(OpenRoot openRoot) {
+        LogTrace trace = openRoot.trace;
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        trace.end(repository);
+        trace.end(service);
+        return service;
+    }
+}
@@ -1,6 +1,9 @@
 package hello.proxy;
 
+import hello.proxy.config.TracePropagationConfig;
+import hello.proxy.config.reactive.ReactiveTraceConfig;
 import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.vthread.VirtualThreadConfig;
 import hello.proxy.trace.logtrace.LogTrace;
 import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
 import org.springframework.boot.SpringApplication;
@@ -13,9 +16,15 @@ import org.springframework.context.annotation.Import;
 //@Import(InterfaceProxyConfig.class)
 //@Import(ConcreteProxyConfig.class)
 //@Import(DynamicProxyBasicConfig.class)
+//@Import(DynamicProxyMethodHandleConfig.class)
 //@Import(ProxyFactoryConfigV2.class)
 //@Import(AutoProxyConfig.class)
-@Import(AopConfig.class)
+//@Import({AutoProxyConfig.class, CachingAdvisorConfig.class}) // OrderRepository.find 결과와 save 실패를 캐시 (/cache)
+//@Import({AutoProxyConfig.class, SingleFlightAdvisorConfig.class}) // 동시에 들어온 같은 orderItem 을 한 번만 실행
+//@Import({AutoProxyConfig.class, BatchingAdvisorConfig.class}) // 동시에 들어온 save 를 saveAll 한 번으로 (/batch)
+//@Import(GeneratedProxyConfig.class)
+//@Import(ProfilingAopConfig.class) // 컨트롤러 진입만 계측하고 나머지는 스택 샘플링 (/trace/profiler)
+@Import({AopConfig.class, ReactiveTraceConfig.class, TracePropagationConfig.class, VirtualThreadConfig.class})
 @SpringBootApplication(scanBasePackages = "hello.proxy.app") //주의
 public class ProxyApplication {
 
@@ -25,6 +34,15 @@ public class ProxyApplication {
 
 	@Bean
 	public LogTrace logTrace() {
+//		return new AsyncLogTrace(8192, OverflowPolicy.DROP_NEWEST); // 로그 출력을 별도 스레드로
+//		return new SamplingLogTrace(new ThreadLocalLogTrace(), 0.01); // 루트 트레이스의 1%만 기록
+//		return new TailSamplingLogTrace(500); // 500ms 이상 걸렸거나 예외가 난 트레이스만 기록
+//		return new BufferedLogTrace(); // 트레이스 전체를 모아서 루트가 끝날 때 로그 한 건으로
+//		return new JfrLogTrace(); // 로그 대신 JFR 이벤트로 기록 (JfrTraceReport 로 분석)
+//		return new JournalLogTrace(new TraceJournal(Path.of("build/trace-journal"))); // 바이너리 저널
+//		return new CallTreeLogTrace(callTree); // CallTreeConfig 를 @Import 하고 CallTree 를 파라미터로 받아 경로별로 합산
+//		return new FlightRecorderLogTrace(new NoopLogTrace(), recorder); // TraceRecorderConfig 를 @Import, 최근 span 을 링에 보관
+//		return new InFlightLogTrace(new ThreadLocalLogTrace(), registry); // InFlightConfig 를 @Import, 멈춘 요청을 /trace/inflight 로
 		return new ThreadLocalLogTrace();
 	}
 }
@@ -0,0 +1,21 @@
+package hello.proxy.app.v1;
+
+import java.util.Collections;
+import java.util.Map;
+
+// MEMO : saveAll 에서 일부 항목만 실패했을 때. failures 는 (목록 안의 위치 -> 그 항목의 예외), 나머지 항목은 저장되었다
+public class BulkSaveException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Integer, RuntimeException> failures;
+
+    public BulkSaveException(Map<Integer, RuntimeException> failures) {
+        super(failures.size() + " item(s) failed");
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public Map<Integer, RuntimeException> getFailures() {
+        return failures;
+    }
+}
@@ -1,5 +1,6 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.trace.processor.TraceProxy;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 // MEMO : 스프링은 @Controller 또는 @RequestMapping 이 있어야 스프링 컨트롤러로 인식된다.
 @RequestMapping
 @ResponseBody
+@TraceProxy
 public interface OrderControllerV1 {
 
     // MEMO : request string `http://localhost:8080/v1/request?itemId=ex`
@@ -1,6 +1,32 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.trace.processor.TraceProxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@TraceProxy
 public interface OrderRepositoryV1 {
 
     void save(String itemId);
+
+    // MEMO : 저장된 주문 조회. 부수 효과가 없어서 반환값을 캐시해도 된다 (CachingAdvisorConfig)
+    default String find(String itemId) {
+        throw new UnsupportedOperationException("find");
+    }
+
+    // MEMO : 여러 건을 한 번에 저장. 기본 구현은 save 를 하나씩 부르고, 실패한 항목은 BulkSaveException 으로 모아서 던진다
+    default void saveAll(List<String> itemIds) {
+        Map<Integer, RuntimeException> failures = new LinkedHashMap<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            try {
+                save(itemIds.get(i));
+            } catch (RuntimeException e) {
+                failures.put(i, e);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BulkSaveException(failures);
+        }
+    }
 }
@@ -1,5 +1,9 @@
 package hello.proxy.app.v1;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class OrderRepositoryV1Impl implements OrderRepositoryV1 {
 
     @Override
@@ -12,6 +16,33 @@ public class OrderRepositoryV1Impl implements OrderRepositoryV1 {
         sleep(1000);
     }
 
+    @Override
+    public String find(String itemId) {
+        // 조회 로직
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!!");
+        }
+
+        sleep(1000);
+        return itemId;
+    }
+
+    // 저장소 왕복은 건수와 관계없이 한 번
+    @Override
+    public void saveAll(List<String> itemIds) {
+        Map<Integer, RuntimeException> failures = new LinkedHashMap<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            if (itemIds.get(i).equals("ex")) {
+                failures.put(i, new IllegalStateException("예외 발생!!"));
+            }
+        }
+
+        sleep(1000);
+        if (!failures.isEmpty()) {
+            throw new BulkSaveException(failures);
+        }
+    }
+
     private void sleep(int millis) {
         try {
             Thread.sleep(millis);
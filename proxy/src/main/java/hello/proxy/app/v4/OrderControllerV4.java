@@ -0,0 +1,29 @@
+package hello.proxy.app.v4;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// MEMO : 스프링 MVC 는 Mono 를 돌려주면 비동기 요청으로 처리한다. 톰캣 스레드는 저장을 기다리지 않고 바로 풀로 돌아간다
+@Slf4j
+@RestController
+public class OrderControllerV4 {
+
+    private final OrderServiceV4 orderService;
+
+    public OrderControllerV4(OrderServiceV4 orderService) {
+        this.orderService = orderService;
+    }
+
+    @GetMapping("/v4/request")
+    public Mono<String> request(String itemId) {
+        return orderService.orderItem(itemId).thenReturn("ok");
+    }
+
+    @GetMapping("/v4/no-log")
+    public Mono<String> noLog() {
+        return Mono.just("ok");
+    }
+
+}
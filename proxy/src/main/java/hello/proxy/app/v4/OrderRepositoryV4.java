@@ -0,0 +1,19 @@
+package hello.proxy.app.v4;
+
+import java.time.Duration;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+// MEMO : sleep(1000) 대신 논블로킹 타이머. 기다리는 동안 스레드를 잡고 있지 않는다
+@Repository
+public class OrderRepositoryV4 {
+
+    public Mono<Void> save(String itemId) {
+        //저장 로직
+        if (itemId.equals("ex")) {
+            return Mono.error(new IllegalStateException("예외 발생!"));
+        }
+        return Mono.delay(Duration.ofMillis(1000)).then();
+    }
+
+}
@@ -0,0 +1,19 @@
+package hello.proxy.app.v4;
+
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+public class OrderServiceV4 {
+
+    private final OrderRepositoryV4 orderRepository;
+
+    public OrderServiceV4(OrderRepositoryV4 orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    public Mono<Void> orderItem(String itemId) {
+        return orderRepository.save(itemId);
+    }
+
+}
@@ -0,0 +1,21 @@
+package hello.proxy.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// MEMO : queueTime 은 submit 부터 writer 호출 직전까지 큐에서 기다린 시간 (마이크로초)
+@Getter
+@RequiredArgsConstructor
+public class BatchStats {
+
+    private final String name;
+    private final long batches;
+    private final long items;
+    private final long failedBatches;
+    private final double meanBatchSize;
+    private final long p50BatchSize;
+    private final long maxBatchSize;
+    private final long meanQueueTimeMicros;
+    private final long p99QueueTimeMicros;
+    private final int pending;
+}
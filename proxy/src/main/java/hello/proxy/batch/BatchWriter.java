@@ -0,0 +1,15 @@
+package hello.proxy.batch;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * MEMO : MicroBatcher 가 모은 항목을 한 번에 쓰는 쪽
+ *  일부 항목만 실패하면 (목록 안의 위치 -> 예외) 를 돌려준다. 비어 있으면 모두 성공이다.
+ *  예외를 던지면 배치 전체가 그 예외로 실패한다.
+ * */
+@FunctionalInterface
+public interface BatchWriter<T> {
+
+    Map<Integer, ? extends Exception> write(List<T> items) throws Exception;
+}
@@ -0,0 +1,207 @@
+package hello.proxy.batch;
+
+import hello.proxy.trace.metrics.LatencyHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 여러 스레드가 하나씩 넣은 항목을 모아서 BatchWriter 로 한 번에 쓰는 마이크로 배처
+ *  - 호출 스레드는 큐에 넣고 자기 항목의 결과(CompletableFuture)를 기다린다.
+ *  - flusher 스레드 하나가 첫 항목이 들어온 뒤 maxBatchSize 개가 모이거나 maxWait 가 지나면 쓴다.
+ *  - 항목마다 자기 결과를 받는다. 일부만 실패하면 그 항목만 예외로 끝난다.
+ *  저장소 왕복 한 번에 여러 건을 보내므로 처리량이 호출당 지연이 아니라 동시 호출 수에 비례해 늘어난다.
+ *  대신 각 호출은 최대 maxWait 만큼 더 기다린다. 큐가 가득 차면 submit 하는 쪽이 기다린다. (배압)
+ *  submitAndWait 는 큐에 넣고 결과를 받기까지 timeout 안에서만 기다린다. 시간이 지났을 때 항목이 아직 큐에 있으면
+ *  꺼내서 쓰지 않는다. flusher 가 이미 가져간 항목은 쓰는 중이므로, TimeoutException 을 받은 뒤에도 쓰일 수 있다.
+ *  close() 이후에 들어온 항목, flusher 가 끝날 때 큐에 남은 항목은 IllegalStateException 으로 실패한다.
+ *  배치 크기 / 큐 대기 시간은 LatencyHistogram 에 기록한다. (배치 크기는 나노초 대신 건수를 넣는다)
+ * */
+@Slf4j
+public class MicroBatcher<T> implements AutoCloseable {
+
+    private static final long IDLE_POLL_MS = 100;
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BatchWriter<T> writer;
+    private final BlockingQueue<Pending<T>> queue;
+    private final LatencyHistogram batchSizes = new LatencyHistogram(1);
+    private final LatencyHistogram queueTimes = new LatencyHistogram(1);
+    private final LongAdder failedBatches = new LongAdder();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public MicroBatcher(String name, int maxBatchSize, long maxWaitMicros, int queueCapacity, BatchWriter<T> writer) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.writer = writer;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::run, "micro-batcher-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public CompletableFuture<Void> submit(T item) throws InterruptedException {
+        checkRunning();
+        Pending<T> pending = new Pending<>(item, System.nanoTime());
+        queue.put(pending);
+        return rejectIfClosed(pending);
+    }
+
+    // submit 하고 timeout 안에서 결과를 기다린다. 항목이 실패했으면 그 예외를 그대로 던진다
+    public void submitAndWait(T item, long timeout, TimeUnit unit) throws Exception {
+        checkRunning();
+        long deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+        Pending<T> pending = new Pending<>(item, System.nanoTime());
+        if (!queue.offer(pending, timeout, unit)) {
+            throw new TimeoutException("batcher " + name + " queue is full");
+        }
+        try {
+            rejectIfClosed(pending).get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                pending.result.completeExceptionally(e);
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+
+    private void checkRunning() {
+        if (!running) {
+            throw new IllegalStateException("batcher " + name + " is closed");
+        }
+    }
+
+    // 넣는 사이에 close() 되었으면 큐에서 도로 꺼내 실패시킨다. 못 꺼냈으면 flusher 가 이미 가져가서 끝내 준다
+    private CompletableFuture<Void> rejectIfClosed(Pending<T> pending) {
+        if (!running && queue.remove(pending)) {
+            pending.result.completeExceptionally(new IllegalStateException("batcher " + name + " is closed"));
+        }
+        return pending.result;
+    }
+
+    private void run() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<T> first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, first.enqueuedNanos + maxWaitNanos);
+            } catch (InterruptedException e) {
+                // close() 가 깨운 경우. 모은 항목은 아래에서 쓰고, 남은 큐는 루프가 비운다
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+        // 루프를 나온 뒤에 들어온 항목
+        queue.drainTo(batch);
+        for (Pending<T> pending : batch) {
+            pending.result.completeExceptionally(new IllegalStateException("batcher " + name + " is closed"));
+        }
+    }
+
+    private void collect(List<Pending<T>> batch, long deadlineNanos) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        long now = System.nanoTime();
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            queueTimes.record(now - pending.enqueuedNanos);
+            items.add(pending.item);
+        }
+        batchSizes.record(batch.size());
+
+        // writer 가 무엇을 던지거나 돌려주든 flusher 는 죽지 않고, 배치의 모든 항목은 끝난다
+        try {
+            Map<Integer, ? extends Exception> failures = writer.write(items);
+            if (failures == null) {
+                throw new IllegalStateException("writer of batcher " + name + " returned null");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                Exception failure = failures.get(i);
+                if (failure == null) {
+                    batch.get(i).result.complete(null);
+                } else {
+                    batch.get(i).result.completeExceptionally(failure);
+                }
+            }
+        } catch (Throwable e) {
+            failedBatches.increment();
+            log.warn("batch {} of {} items failed: {}", name, batch.size(), e.toString());
+            for (Pending<T> pending : batch) {
+                pending.result.completeExceptionally(e); // 이미 끝난 항목은 그대로 둔다
+            }
+        }
+    }
+
+    public BatchStats stats() {
+        LatencyHistogram.Snapshot sizes = batchSizes.snapshot();
+        LatencyHistogram.Snapshot waits = queueTimes.snapshot();
+        long batches = sizes.getTotalCount();
+        long items = waits.getTotalCount();
+        return new BatchStats(name, batches, items, failedBatches.sum(),
+            batches == 0 ? 0.0 : (double) items / batches,
+            sizes.getValueAtPercentile(50.0),
+            sizes.getMax(),
+            TimeUnit.NANOSECONDS.toMicros(waits.getMean()),
+            TimeUnit.NANOSECONDS.toMicros(waits.getValueAtPercentile(99.0)),
+            queue.size());
+    }
+
+    // 큐에 남은 항목까지 쓰고 끝낸다
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static final class Pending<T> {
+
+        private final T item;
+        private final long enqueuedNanos;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Pending(T item, long enqueuedNanos) {
+            this.item = item;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package hello.proxy.cache;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/cache`
+ *  curl localhost:8080/cache              캐시별 hit / miss / eviction / expiration
+ *  curl -X DELETE localhost:8080/cache    모든 항목 비우기 (통계는 그대로)
+ * */
+@RestController
+public class CacheController {
+
+    private final List<SegmentedLruCache<?, ?>> caches;
+
+    public CacheController(List<SegmentedLruCache<?, ?>> caches) {
+        this.caches = caches;
+    }
+
+    @GetMapping("/cache")
+    public List<CacheStats> stats() {
+        return caches.stream().map(SegmentedLruCache::stats).collect(Collectors.toList());
+    }
+
+    @DeleteMapping("/cache")
+    public void invalidateAll() {
+        caches.forEach(SegmentedLruCache::invalidateAll);
+    }
+}
@@ -0,0 +1,142 @@
+package hello.proxy.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * MEMO : SegmentedLruCache 의 세그먼트 하나. 모든 메서드가 이 세그먼트의 락 안에서 돈다.
+ *  probation / protected 는 센티넬 노드를 둔 원형 이중 연결 리스트이고, 앞쪽이 최근에 쓴 항목이다.
+ * */
+final class CacheSegment<K, V> {
+
+    static final Object MISS = new Object();
+    static final Object EXPIRED = new Object();
+    static final long NEVER = Long.MIN_VALUE; // 만료 없음
+
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final int capacity;
+    private final int protectedCapacity;
+    private final Node<K, V> probation = Node.sentinel();
+    private final Node<K, V> protectedList = Node.sentinel();
+    private int protectedSize;
+
+    CacheSegment(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.protectedCapacity = Math.max(1, this.capacity * PROTECTED_PERCENT / 100);
+    }
+
+    synchronized Object get(K key, long nowNanos) {
+        Node<K, V> node = nodes.get(key);
+        if (node == null) {
+            return MISS;
+        }
+        if (node.expiresAtNanos != NEVER && nowNanos - node.expiresAtNanos >= 0) {
+            remove(node);
+            return EXPIRED;
+        }
+        touch(node);
+        return node.value;
+    }
+
+    // 꽉 차서 다른 항목을 축출했으면 true
+    synchronized boolean put(K key, V value, long expiresAtNanos) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            node.expiresAtNanos = expiresAtNanos;
+            touch(node);
+            return false;
+        }
+        boolean evicted = false;
+        if (nodes.size() >= capacity) {
+            Node<K, V> victim = probation.prev != probation ? probation.prev : protectedList.prev;
+            remove(victim);
+            evicted = true;
+        }
+        node = new Node<>(key, value, expiresAtNanos);
+        nodes.put(key, node);
+        node.linkAfter(probation);
+        return evicted;
+    }
+
+    synchronized void remove(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    synchronized void clear() {
+        nodes.clear();
+        probation.prev = probation.next = probation;
+        protectedList.prev = protectedList.next = protectedList;
+        protectedSize = 0;
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    private void touch(Node<K, V> node) {
+        node.unlink();
+        if (!node.inProtected) {
+            node.inProtected = true;
+            protectedSize++;
+        }
+        node.linkAfter(protectedList);
+        if (protectedSize > protectedCapacity) {
+            Node<K, V> demoted = protectedList.prev;
+            demoted.unlink();
+            demoted.inProtected = false;
+            protectedSize--;
+            demoted.linkAfter(probation);
+        }
+    }
+
+    private void remove(Node<K, V> node) {
+        node.unlink();
+        if (node.inProtected) {
+            protectedSize--;
+        }
+        nodes.remove(node.key);
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+        private V value;
+        private long expiresAtNanos;
+        private boolean inProtected;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        private Node(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private static <K, V> Node<K, V> sentinel() {
+            Node<K, V> sentinel = new Node<>(null, null, 0L);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            return sentinel;
+        }
+
+        private void linkAfter(Node<K, V> head) {
+            prev = head;
+            next = head.next;
+            head.next.prev = this;
+            head.next = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hello.proxy.cache;
+
+import lombok.Getter;
+
+// MEMO : 캐시 하나의 누적 통계. 만료된 항목을 읽은 경우도 miss 로 센다
+@Getter
+public class CacheStats {
+
+    private final String name;
+    private final int capacity;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final double hitRate;
+    private final long evictions;
+    private final long expirations;
+
+    CacheStats(String name, int capacity, int size, long hits, long misses, long evictions, long expirations) {
+        this.name = name;
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+}
@@ -0,0 +1,109 @@
+package hello.proxy.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/*
+ * MEMO : 크기 제한이 있는 동시성 캐시. 축출 정책은 Segmented LRU (SLRU)
+ *  - 새 항목은 probation 구간에 들어가고, probation 에서 한 번 더 읽히면 protected 구간으로 올라간다.
+ *  - protected 가 정해진 크기(80%)를 넘으면 가장 오래된 항목을 probation 맨 앞으로 내린다.
+ *  - 자리가 모자라면 probation 의 가장 오래된 항목부터 축출한다.
+ *  한 번만 읽히고 마는 항목(스캔)이 여러 번 읽힌 항목을 밀어내지 못한다.
+ *  키 해시로 나눈 세그먼트마다 락이 따로 있어서 서로 다른 세그먼트의 호출은 경합하지 않는다.
+ *  항목마다 TTL 이 있고(0 이하면 만료 없음), 만료된 항목은 읽을 때 지운다.
+ * */
+public class SegmentedLruCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final String name;
+    private final int capacity;
+    private final CacheSegment<K, V>[] segments;
+    private final int mask;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public SegmentedLruCache(String name, int capacity) {
+        this(name, capacity, System::nanoTime);
+    }
+
+    // 작은 캐시는 세그먼트 하나(정확한 SLRU), 크면 최대 16개로 나눈다. 전체 크기는 capacity 를 넘지 않는다
+    public SegmentedLruCache(String name, int capacity, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, capacity / MIN_SEGMENT_CAPACITY)));
+        this.name = name;
+        this.capacity = capacity;
+        this.segments = newSegments(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new CacheSegment<>(capacity / segmentCount);
+        }
+        this.mask = segmentCount - 1;
+        this.nanoClock = nanoClock;
+    }
+
+    // 없거나 만료되었으면 null
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Object found = segmentOf(key).get(key, nanoClock.getAsLong());
+        if (found == CacheSegment.MISS || found == CacheSegment.EXPIRED) {
+            misses.increment();
+            if (found == CacheSegment.EXPIRED) {
+                expirations.increment();
+            }
+            return null;
+        }
+        hits.increment();
+        return (V) found;
+    }
+
+    public void put(K key, V value, long ttl, TimeUnit unit) {
+        long expiresAtNanos = ttl > 0 ? nanoClock.getAsLong() + unit.toNanos(ttl) : CacheSegment.NEVER;
+        if (segmentOf(key).put(key, value, expiresAtNanos)) {
+            evictions.increment();
+        }
+    }
+
+    public void invalidate(K key) {
+        segmentOf(key).remove(key);
+    }
+
+    public void invalidateAll() {
+        for (CacheSegment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (CacheSegment<K, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(name, capacity, size(), hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    // 제네릭 배열은 만들 수 없으므로 와일드카드 배열을 만들어 캐스팅한다. 배열은 밖으로 나가지 않는다
+    @SuppressWarnings("unchecked")
+    private static <K, V> CacheSegment<K, V>[] newSegments(int count) {
+        return (CacheSegment<K, V>[]) new CacheSegment<?, ?>[count];
+    }
+
+    private CacheSegment<K, V> segmentOf(K key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & mask];
+    }
+}
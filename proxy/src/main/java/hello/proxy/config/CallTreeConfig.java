@@ -0,0 +1,20 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.calltree.CallTree;
+import hello.proxy.trace.calltree.CallTreeController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CallTreeConfig {
+
+    @Bean
+    public CallTree callTree() {
+        return new CallTree();
+    }
+
+    @Bean
+    public CallTreeController callTreeController(CallTree callTree) {
+        return new CallTreeController(callTree);
+    }
+}
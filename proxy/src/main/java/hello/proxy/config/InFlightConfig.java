@@ -0,0 +1,20 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.inflight.InFlightController;
+import hello.proxy.trace.inflight.InFlightRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class InFlightConfig {
+
+    @Bean
+    public InFlightRegistry inFlightRegistry() {
+        return new InFlightRegistry();
+    }
+
+    @Bean
+    public InFlightController inFlightController(InFlightRegistry inFlightRegistry) {
+        return new InFlightController(inFlightRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.inflight.InFlightRegistry;
+import hello.proxy.trace.profiler.SamplingProfiler;
+import hello.proxy.trace.profiler.SamplingProfilerController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import(InFlightConfig.class)
+public class SamplingProfilerConfig {
+
+    @Bean
+    public SamplingProfiler samplingProfiler(InFlightRegistry inFlightRegistry) {
+        return new SamplingProfiler(inFlightRegistry);
+    }
+
+    @Bean
+    public SamplingProfilerController samplingProfilerController(SamplingProfiler samplingProfiler) {
+        return new SamplingProfilerController(samplingProfiler);
+    }
+}
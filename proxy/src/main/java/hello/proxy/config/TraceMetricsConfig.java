@@ -0,0 +1,20 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.metrics.MethodMetricsController;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TraceMetricsConfig {
+
+    @Bean
+    public MethodMetricsRegistry methodMetricsRegistry() {
+        return new MethodMetricsRegistry();
+    }
+
+    @Bean
+    public MethodMetricsController methodMetricsController(MethodMetricsRegistry methodMetricsRegistry) {
+        return new MethodMetricsController(methodMetricsRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.propagation.TraceContextExecutorPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TracePropagationConfig {
+
+    // 빈 후처리기는 다른 빈보다 먼저 만들어져야 하므로 static 으로 등록한다
+    @Bean
+    public static TraceContextExecutorPostProcessor traceContextExecutorPostProcessor(
+        ObjectProvider<LogTrace> logTraceProvider) {
+        return new TraceContextExecutorPostProcessor(logTraceProvider);
+    }
+}
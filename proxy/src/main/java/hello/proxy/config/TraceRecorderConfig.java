@@ -0,0 +1,20 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.recorder.TraceFlightRecorder;
+import hello.proxy.trace.recorder.TraceRecorderController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TraceRecorderConfig {
+
+    @Bean
+    public TraceFlightRecorder traceFlightRecorder() {
+        return new TraceFlightRecorder();
+    }
+
+    @Bean
+    public TraceRecorderController traceRecorderController(TraceFlightRecorder traceFlightRecorder) {
+        return new TraceRecorderController(traceFlightRecorder);
+    }
+}
@@ -0,0 +1,32 @@
+package hello.proxy.config;
+
+import hello.proxy.trace.toggle.TraceSwitch;
+import hello.proxy.trace.toggle.TraceSwitchController;
+import java.util.Map;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.jmx.support.RegistrationPolicy;
+
+@Configuration
+public class TraceSwitchConfig {
+
+    @Bean
+    public TraceSwitch traceSwitch() {
+        return new TraceSwitch();
+    }
+
+    @Bean
+    public TraceSwitchController traceSwitchController(TraceSwitch traceSwitch) {
+        return new TraceSwitchController(traceSwitch);
+    }
+
+    // 스프링 부트의 JMX 자동 설정(spring.jmx.enabled)은 기본으로 꺼져 있어서 직접 등록한다
+    @Bean
+    public MBeanExporter traceSwitchExporter(TraceSwitch traceSwitch) {
+        MBeanExporter exporter = new MBeanExporter();
+        exporter.setBeans(Map.of(TraceSwitch.OBJECT_NAME, traceSwitch));
+        exporter.setRegistrationPolicy(RegistrationPolicy.REPLACE_EXISTING);
+        return exporter;
+    }
+}
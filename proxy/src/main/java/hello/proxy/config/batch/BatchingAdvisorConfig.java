@@ -0,0 +1,42 @@
+package hello.proxy.config.batch;
+
+import java.util.List;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * MEMO : save 마이크로 배칭 어드바이저. AutoProxyConfig 와 함께 @Import 해서 쓴다.
+ *  최대 64건을 모으거나, 첫 항목이 들어오고 2ms 가 지나면 saveAll 한 번으로 저장한다.
+ * */
+@Configuration
+public class BatchingAdvisorConfig {
+
+    public static final String POINTCUT = "execution(void hello.proxy.app..OrderRepositoryV1*.save(String))";
+
+    static final int MAX_BATCH_SIZE = 64;
+    static final long MAX_WAIT_MICROS = 2_000;
+    static final int QUEUE_CAPACITY = 10_000;
+    static final long RESULT_TIMEOUT_MS = 30_000;
+
+    @Bean
+    public SaveBatchingAdvice orderRepositorySaveBatching() {
+        return new SaveBatchingAdvice("orderRepository", MAX_BATCH_SIZE, MAX_WAIT_MICROS, QUEUE_CAPACITY,
+            RESULT_TIMEOUT_MS);
+    }
+
+    @Bean
+    public Advisor saveBatchingAdvisor(SaveBatchingAdvice orderRepositorySaveBatching) {
+        //pointcut
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(POINTCUT);
+        return new DefaultPointcutAdvisor(pointcut, orderRepositorySaveBatching);
+    }
+
+    @Bean
+    public BatchingController batchingController(List<SaveBatchingAdvice> advices) {
+        return new BatchingController(advices);
+    }
+}
@@ -0,0 +1,28 @@
+package hello.proxy.config.batch;
+
+import hello.proxy.batch.BatchStats;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/batch`
+ *  curl localhost:8080/batch    배처별 배치 수, 평균 / 최대 배치 크기, 큐 대기 시간
+ * */
+@RestController
+public class BatchingController {
+
+    private final List<SaveBatchingAdvice> advices;
+
+    public BatchingController(List<SaveBatchingAdvice> advices) {
+        this.advices = advices;
+    }
+
+    @GetMapping("/batch")
+    public List<BatchStats> stats() {
+        return advices.stream()
+            .flatMap(advice -> advice.stats().stream())
+            .collect(Collectors.toList());
+    }
+}
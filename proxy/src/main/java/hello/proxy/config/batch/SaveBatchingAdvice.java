@@ -0,0 +1,101 @@
+package hello.proxy.config.batch;
+
+import hello.proxy.app.v1.BulkSaveException;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.batch.BatchStats;
+import hello.proxy.batch.MicroBatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/*
+ * MEMO : OrderRepositoryV1.save(itemId) 호출을 MicroBatcher 에 넣고, 모인 항목을 대상의 saveAll 로 한 번에 저장한다.
+ *  호출한 스레드는 자기 항목의 결과를 기다렸다가 성공하면 그냥 돌아가고, 실패하면 그 항목의 예외를 받는다.
+ *  saveAll 은 프록시가 아니라 대상 객체에 직접 부르므로 이 어드바이스를 다시 타지 않는다.
+ *  대상 객체마다 배처(와 flusher 스레드)가 하나씩 생긴다.
+ *  결과는 resultTimeoutMs 까지만 기다린다. save(String) 은 검사 예외를 선언하지 않으므로 시간 초과, 인터럽트는
+ *  IllegalStateException 으로 바꿔 던진다. (그대로 던지면 JDK 프록시가 UndeclaredThrowableException 으로 감싼다)
+ *  시간이 지났을 때 항목이 아직 큐에 있으면 쓰지 않는다. 이미 saveAll 에 넘어간 항목은 예외를 받은 뒤에도 저장될 수 있다.
+ * */
+public class SaveBatchingAdvice implements MethodInterceptor, AutoCloseable {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxWaitMicros;
+    private final int queueCapacity;
+    private final long resultTimeoutMs;
+    private final ConcurrentMap<OrderRepositoryV1, MicroBatcher<String>> batchers = new ConcurrentHashMap<>();
+
+    public SaveBatchingAdvice(String name, int maxBatchSize, long maxWaitMicros, int queueCapacity,
+        long resultTimeoutMs) {
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitMicros = maxWaitMicros;
+        this.queueCapacity = queueCapacity;
+        this.resultTimeoutMs = resultTimeoutMs;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        if (!(invocation.getThis() instanceof OrderRepositoryV1) || arguments.length != 1
+            || !(arguments[0] instanceof String)) {
+            return invocation.proceed();
+        }
+        OrderRepositoryV1 target = (OrderRepositoryV1) invocation.getThis();
+        String itemId = (String) arguments[0];
+        try {
+            batcherOf(target).submitAndWait(itemId, resultTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            throw e; // 항목 자신의 실패
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(
+                "save(" + itemId + ") was not confirmed within " + resultTimeoutMs + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for save(" + itemId + ")", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("save(" + itemId + ") failed", e);
+        }
+        return null;
+    }
+
+    private MicroBatcher<String> batcherOf(OrderRepositoryV1 target) {
+        MicroBatcher<String> batcher = batchers.get(target);
+        if (batcher == null) {
+            batcher = batchers.computeIfAbsent(target, repository -> new MicroBatcher<>(
+                name + "-" + repository.getClass().getSimpleName(), maxBatchSize, maxWaitMicros, queueCapacity,
+                itemIds -> saveAll(repository, itemIds)));
+        }
+        return batcher;
+    }
+
+    private static Map<Integer, RuntimeException> saveAll(OrderRepositoryV1 repository, List<String> itemIds) {
+        try {
+            repository.saveAll(itemIds);
+            return Collections.emptyMap();
+        } catch (BulkSaveException e) {
+            return e.getFailures();
+        }
+    }
+
+    public List<BatchStats> stats() {
+        List<BatchStats> stats = new ArrayList<>();
+        batchers.values().forEach(batcher -> stats.add(batcher.stats()));
+        return stats;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        for (MicroBatcher<String> batcher : batchers.values()) {
+            batcher.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package hello.proxy.config.cache;
+
+/*
+ * MEMO : 캐시에 넣는 메서드 결과. 반환값(null 포함) 또는 대상이 던진 예외
+ *  예외도 캐시하면(negative caching) 같은 인자로 실패하는 호출이 대상까지 가지 않고 같은 예외 인스턴스를 다시 던진다.
+ * */
+public final class CachedResult {
+
+    private final Object value;
+    private final Exception failure;
+
+    private CachedResult(Object value, Exception failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    static CachedResult value(Object value) {
+        return new CachedResult(value, null);
+    }
+
+    static CachedResult failure(Exception failure) {
+        return new CachedResult(null, failure);
+    }
+
+    Object get() throws Exception {
+        if (failure != null) {
+            throw failure;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+package hello.proxy.config.cache;
+
+import hello.proxy.cache.SegmentedLruCache;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/*
+ * MEMO : pureproxy 의 CacheProxy 를 어드바이스로 일반화한 것
+ *  CacheProxy 는 값 하나를 영원히 들고 있고 스레드 안전하지 않다.
+ *  여기서는 (메서드, 인자) 별로 결과를 SegmentedLruCache 에 넣고, 항목마다 TTL 을 둔다.
+ *  반환값은 ttl 동안 캐시한다. (0 이면 반환값은 캐시하지 않는다)
+ *  반환값 캐시는 부수 효과가 없는 조회 메서드에만 켠다. 쓰기 메서드에 켜면 같은 인자의 두 번째 쓰기가 대상까지 가지 않는다.
+ *  대상이 던진 예외는 negativeTtl 동안 캐시한다. (0 이면 예외는 캐시하지 않는다)
+ *  같은 키로 동시에 miss 가 나면 각자 대상을 부르고 마지막 결과가 남는다.
+ *  어떤 메서드에 적용할지는 포인트컷이 정한다. (CachingAdvisorConfig)
+ * */
+@Slf4j
+public class CachingAdvice implements MethodInterceptor {
+
+    private final SegmentedLruCache<MethodCacheKey, CachedResult> cache;
+    private final long ttlMs;
+    private final long negativeTtlMs;
+
+    public CachingAdvice(SegmentedLruCache<MethodCacheKey, CachedResult> cache, long ttlMs, long negativeTtlMs) {
+        this.cache = cache;
+        this.ttlMs = ttlMs;
+        this.negativeTtlMs = negativeTtlMs;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodCacheKey key = new MethodCacheKey(invocation.getMethod(), invocation.getArguments());
+        CachedResult cached = cache.get(key);
+        if (cached != null) {
+            return cached.get();
+        }
+
+        try {
+            Object result = invocation.proceed();
+            if (ttlMs > 0) {
+                cache.put(key, CachedResult.value(result), ttlMs, TimeUnit.MILLISECONDS);
+            }
+            return result;
+        } catch (Exception e) {
+            if (negativeTtlMs > 0) {
+                log.debug("cache failure {} for {}ms: {}", key, negativeTtlMs, e.toString());
+                cache.put(key, CachedResult.failure(e), negativeTtlMs, TimeUnit.MILLISECONDS);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package hello.proxy.config.cache;
+
+import hello.proxy.cache.CacheController;
+import hello.proxy.cache.SegmentedLruCache;
+import java.util.List;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * MEMO : 캐싱 어드바이저. AutoProxyConfig 와 함께 @Import 하면 자동 프록시 생성기가 이 어드바이저도 적용한다.
+ *  ProxyFactory 에 직접 넣을 때는 cachingAdvisor() 와 같은 방식으로 factory.addAdvisor() 하면 된다.
+ *  OrderRepository 의 find 는 부수 효과가 없는 조회라서 반환값을 1초간 캐시한다.
+ *  save 는 쓰기라서 실패만 캐시한다. (negative caching) 성공한 save 는 매번 리포지토리까지 간다.
+ *  둘 다 "ex" 처럼 예외가 나는 itemId 는 1초간 리포지토리를 부르지 않고 같은 예외를 던진다.
+ *  두 어드바이저는 캐시 하나를 같이 쓴다. 키에 메서드가 들어가므로 find 와 save 의 결과가 섞이지 않는다.
+ * */
+@Configuration
+public class CachingAdvisorConfig {
+
+    public static final String READ_POINTCUT = "execution(* hello.proxy.app..OrderRepository*.find(..))";
+    public static final String WRITE_POINTCUT = "execution(* hello.proxy.app..OrderRepository*.save(..))";
+
+    private static final int CAPACITY = 10_000;
+    private static final long READ_TTL_MS = 1_000;
+    private static final long WRITE_TTL_MS = 0; // save 의 성공은 캐시하지 않는다
+    private static final long NEGATIVE_TTL_MS = 1_000;
+
+    @Bean
+    public SegmentedLruCache<MethodCacheKey, CachedResult> orderRepositoryCache() {
+        return new SegmentedLruCache<>("orderRepository", CAPACITY);
+    }
+
+    @Bean
+    public Advisor cachingAdvisor(SegmentedLruCache<MethodCacheKey, CachedResult> orderRepositoryCache) {
+        return advisor(READ_POINTCUT, new CachingAdvice(orderRepositoryCache, READ_TTL_MS, NEGATIVE_TTL_MS));
+    }
+
+    @Bean
+    public Advisor failureCachingAdvisor(SegmentedLruCache<MethodCacheKey, CachedResult> orderRepositoryCache) {
+        return advisor(WRITE_POINTCUT, new CachingAdvice(orderRepositoryCache, WRITE_TTL_MS, NEGATIVE_TTL_MS));
+    }
+
+    private static Advisor advisor(String expression, CachingAdvice advice) {
+        //pointcut
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return new DefaultPointcutAdvisor(pointcut, advice);
+    }
+
+    @Bean
+    public CacheController cacheController(List<SegmentedLruCache<?, ?>> caches) {
+        return new CacheController(caches);
+    }
+}
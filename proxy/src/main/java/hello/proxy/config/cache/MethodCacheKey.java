@@ -0,0 +1,40 @@
+package hello.proxy.config.cache;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+// MEMO : (메서드, 인자) 캐시 키. 배열 인자도 내용으로 비교하고, 해시는 만들 때 한 번만 계산한다
+public final class MethodCacheKey {
+
+    private final Method method;
+    private final Object[] arguments;
+    private final int hash;
+
+    public MethodCacheKey(Method method, Object[] arguments) {
+        this.method = method;
+        this.arguments = arguments.clone();
+        this.hash = 31 * method.hashCode() + Arrays.deepHashCode(this.arguments);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MethodCacheKey)) {
+            return false;
+        }
+        MethodCacheKey other = (MethodCacheKey) o;
+        return hash == other.hash && method.equals(other.method) && Arrays.deepEquals(arguments, other.arguments);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + Arrays.deepToString(arguments);
+    }
+}
@@ -0,0 +1,83 @@
+package hello.proxy.config.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/*
+ * MEMO : 같은 (메서드, 인자) 호출이 동시에 들어오면 처음 들어온 호출 하나만 대상을 부르고,
+ *  나머지는 그 결과(또는 예외)를 기다렸다가 같이 받는다. (single-flight)
+ *  CachingAdvice 와 달리 결과를 남겨 두지 않는다. 호출이 끝나면 in-flight 맵에서 지우고 나서 결과를 알리므로
+ *  끝난 뒤에 들어온 호출은 대상을 새로 부른다.
+ *  in-flight 맵은 ConcurrentHashMap 이라 키 해시별로 나뉜 버킷 단위로만 경합한다.
+ *  대상 안에서 같은 키로 다시 들어오면(같은 스레드) 기다리지 않고 그대로 부른다.
+ *  기다리던 스레드가 인터럽트되면 인터럽트 상태를 되살리고 IllegalStateException 을 던진다. (대상 호출은 그대로 진행된다)
+ *  합친 호출은 한 번만 실행되므로 조회처럼 여러 번 불러도 결과가 같은 메서드에만 건다.
+ *  기본 포인트컷의 orderItem 은 쓰기라서, 같은 itemId 로 동시에 들어온 두 주문이 주문 하나로 합쳐진다.
+ *  (단일 주문만 받는 데모 동작. 주문마다 따로 기록해야 하면 이 어드바이저를 걸지 않는다)
+ * */
+public class SingleFlightAdvice implements MethodInterceptor {
+
+    private final String name;
+    private final ConcurrentMap<MethodCacheKey, Flight> flights = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlightAdvice(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodCacheKey key = new MethodCacheKey(invocation.getMethod(), invocation.getArguments());
+        Flight flight = new Flight(Thread.currentThread());
+        Flight leader = flights.putIfAbsent(key, flight);
+        if (leader == null) {
+            return lead(key, flight, invocation);
+        }
+        if (leader.thread == Thread.currentThread()) {
+            return invocation.proceed();
+        }
+        coalesced.increment();
+        try {
+            return leader.result.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for in-flight " + key, e);
+        }
+    }
+
+    private Object lead(MethodCacheKey key, Flight flight, MethodInvocation invocation) throws Throwable {
+        executed.increment();
+        try {
+            Object result = invocation.proceed();
+            flights.remove(key, flight);
+            flight.result.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(name, executed.sum(), coalesced.sum(), flights.size());
+    }
+
+    private static final class Flight {
+
+        private final Thread thread;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private Flight(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
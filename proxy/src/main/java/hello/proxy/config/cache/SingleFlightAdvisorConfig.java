@@ -0,0 +1,37 @@
+package hello.proxy.config.cache;
+
+import java.util.List;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+ * MEMO : single-flight 어드바이저. CachingAdvisorConfig 처럼 AutoProxyConfig 와 함께 @Import 해서 쓴다.
+ *  적용할 메서드는 포인트컷으로 고른다. 메서드마다 따로 세고 싶으면 어드바이저(와 어드바이스)를 하나 더 등록한다.
+ *  orderItem 은 쓰기이므로 동시에 들어온 같은 주문이 한 건으로 합쳐진다. (SingleFlightAdvice 참고)
+ * */
+@Configuration
+public class SingleFlightAdvisorConfig {
+
+    public static final String POINTCUT = "execution(* hello.proxy.app..OrderService*.orderItem(..))";
+
+    @Bean
+    public SingleFlightAdvice orderServiceSingleFlight() {
+        return new SingleFlightAdvice("orderService.orderItem");
+    }
+
+    @Bean
+    public Advisor singleFlightAdvisor(SingleFlightAdvice orderServiceSingleFlight) {
+        //pointcut
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(POINTCUT);
+        return new DefaultPointcutAdvisor(pointcut, orderServiceSingleFlight);
+    }
+
+    @Bean
+    public SingleFlightController singleFlightController(List<SingleFlightAdvice> advices) {
+        return new SingleFlightController(advices);
+    }
+}
@@ -0,0 +1,25 @@
+package hello.proxy.config.cache;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/single-flight`
+ *  curl localhost:8080/single-flight    어드바이스별 executed / coalesced / inFlight
+ * */
+@RestController
+public class SingleFlightController {
+
+    private final List<SingleFlightAdvice> advices;
+
+    public SingleFlightController(List<SingleFlightAdvice> advices) {
+        this.advices = advices;
+    }
+
+    @GetMapping("/single-flight")
+    public List<SingleFlightStats> stats() {
+        return advices.stream().map(SingleFlightAdvice::stats).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,15 @@
+package hello.proxy.config.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// MEMO : executed 는 실제로 대상을 부른 호출, coalesced 는 다른 호출의 결과를 나눠 받은 호출, inFlight 는 지금 진행 중인 키 수
+@Getter
+@RequiredArgsConstructor
+public class SingleFlightStats {
+
+    private final String name;
+    private final long executed;
+    private final long coalesced;
+    private final int inFlight;
+}
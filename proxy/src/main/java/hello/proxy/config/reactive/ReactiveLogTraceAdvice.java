@@ -0,0 +1,115 @@
+package hello.proxy.config.reactive;
+
+import hello.proxy.trace.TraceMessages;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.ReactorLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/*
+ * MEMO : Mono / Flux 를 돌려주는 메서드용 LogTraceAdvice
+ *  LogTraceAdvice 는 proceed() 가 돌아올 때 end() 를 부르는데, 리액티브 메서드는 그때 publisher 를 조립만 했을 뿐이다.
+ *  그래서 이 어드바이스는 돌려받은 publisher 를 감싸서
+ *  - 구독할 때 begin() 하고 (Context 의 부모 span 을 이어받는다)
+ *  - 완료 / 에러 / 취소 신호 중 먼저 온 하나에서만 end() / exception() / cancel() 하고 메서드 메트릭을 남긴다.
+ *    취소는 실패가 아니므로 에러가 아니라 cancels 로 센다.
+ *  다른 타입을 돌려주면 트레이스하지 않고 그대로 돌려준다.
+ * */
+public class ReactiveLogTraceAdvice implements MethodInterceptor {
+
+    private final ReactorLogTrace logTrace;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
+
+    public ReactiveLogTraceAdvice(ReactorLogTrace logTrace) {
+        this(logTrace, MethodMetricsRegistry.disabled(), TraceGate.alwaysOn());
+    }
+
+    public ReactiveLogTraceAdvice(ReactorLogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceGate gate) {
+        this.logTrace = logTrace;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!gate.isOpen(invocation.getMethod())) {
+            return invocation.proceed();
+        }
+
+        Object result = invocation.proceed();
+        if (result instanceof Mono) {
+            return trace(TraceMessages.of(invocation.getMethod()), (Mono<?>) result);
+        }
+        if (result instanceof Flux) {
+            return trace(TraceMessages.of(invocation.getMethod()), (Flux<?>) result);
+        }
+        return result;
+    }
+
+    private <T> Mono<T> trace(String message, Mono<T> source) {
+        return Mono.deferContextual(context -> {
+            Span span = new Span(message, logTrace.begin(context, message));
+            return source
+                .doOnSuccess(value -> span.end())
+                .doOnError(span::exception)
+                .doOnCancel(span::cancel)
+                .contextWrite(inner -> logTrace.with(inner, span.status));
+        });
+    }
+
+    private <T> Flux<T> trace(String message, Flux<T> source) {
+        return Flux.deferContextual(context -> {
+            Span span = new Span(message, logTrace.begin(context, message));
+            return source
+                .doOnComplete(span::end)
+                .doOnError(span::exception)
+                .doOnCancel(span::cancel)
+                .contextWrite(inner -> logTrace.with(inner, span.status));
+        });
+    }
+
+    /*
+     * 구독 한 번의 span
+     * 취소는 완료와 다른 스레드에서 동시에 올 수 있고 (클라이언트 연결 끊김, 타임아웃),
+     * next() / take() 처럼 onNext 를 받은 뒤 취소하는 연산자도 있어서 먼저 CAS 한 쪽만 span 을 닫는다.
+     * */
+    private final class Span {
+
+        private final String message;
+        private final TraceStatus status;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Span(String message, TraceStatus status) {
+            this.message = message;
+            this.status = status;
+        }
+
+        private void end() {
+            if (closed.compareAndSet(false, true)) {
+                metricsRegistry.record(message, System.nanoTime() - startNanos, false);
+                logTrace.end(status);
+            }
+        }
+
+        private void exception(Throwable e) {
+            if (closed.compareAndSet(false, true)) {
+                metricsRegistry.record(message, System.nanoTime() - startNanos, true);
+                logTrace.exception(status, e);
+            }
+        }
+
+        private void cancel() {
+            if (closed.compareAndSet(false, true)) {
+                metricsRegistry.recordCancel(message);
+                logTrace.cancel(status);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hello.proxy.config.reactive;
+
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
+import hello.proxy.trace.logtrace.ReactorLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceSwitch;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/*
+ * MEMO : app.v4 (Mono 를 돌려주는 컨트롤러 / 서비스 / 리포지토리)에 ReactiveLogTraceAdvice 를 건다.
+ *  스프링 부트의 자동 프록시 생성기가 어드바이저 빈을 찾아 적용한다. (v4 는 구체 클래스라 CGLIB)
+ *  LogTraceAspect 는 Publisher 를 돌려주는 메서드를 건너뛰므로 span 이 두 번 남지 않는다.
+ * */
+@Configuration
+@Import({TraceMetricsConfig.class, TraceSwitchConfig.class})
+public class ReactiveTraceConfig {
+
+    public static final String POINTCUT = "execution(org.reactivestreams.Publisher+ hello.proxy.app..*(..))";
+
+    @Bean
+    public ReactorLogTrace reactorLogTrace() {
+        return new ReactorLogTrace();
+    }
+
+    @Bean
+    public Advisor reactiveLogTraceAdvisor(ReactorLogTrace reactorLogTrace, MethodMetricsRegistry metricsRegistry,
+        TraceSwitch traceSwitch) {
+        //pointcut
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(POINTCUT);
+        //advice
+        ReactiveLogTraceAdvice advice = new ReactiveLogTraceAdvice(reactorLogTrace, metricsRegistry,
+            traceSwitch.gate("reactiveLogTraceAdvice"));
+        return new DefaultPointcutAdvisor(pointcut, advice);
+    }
+}
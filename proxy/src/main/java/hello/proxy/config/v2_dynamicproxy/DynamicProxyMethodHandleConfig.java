@@ -0,0 +1,61 @@
+package hello.proxy.config.v2_dynamicproxy;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceMethodHandleHandler;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import hello.proxy.trace.toggle.TraceSwitch;
+import java.lang.reflect.Proxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+@Configuration
+@Import({TraceMetricsConfig.class, TraceSwitchConfig.class})
+public class DynamicProxyMethodHandleConfig {
+
+    private static final String[] PATTERNS = {"request*", "order*", "save*"};
+
+    private final TraceGate gate;
+
+    public DynamicProxyMethodHandleConfig(TraceSwitch traceSwitch) {
+        this.gate = traceSwitch.gate("dynamicProxyMethodHandle");
+    }
+
+    @Bean
+    public OrderControllerV1 orderControllerV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderControllerV1 orderControllerV1 = new OrderControllerV1Impl(orderServiceV1(logTrace, metricsRegistry));
+        OrderControllerV1 proxy = (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+                new Class[]{OrderControllerV1.class},
+                new LogTraceMethodHandleHandler(orderControllerV1, logTrace, PATTERNS, metricsRegistry, gate));
+        return proxy;
+    }
+
+
+    @Bean
+    public OrderServiceV1 orderServiceV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderServiceV1 orderServiceV1 = new OrderServiceV1Impl(orderRepositoryV1(logTrace, metricsRegistry));
+        OrderServiceV1 proxy = (OrderServiceV1) Proxy.newProxyInstance(OrderServiceV1.class.getClassLoader(),
+                new Class[]{OrderServiceV1.class},
+                new LogTraceMethodHandleHandler(orderServiceV1, logTrace, PATTERNS, metricsRegistry, gate));
+        return proxy;
+    }
+
+    @Bean
+    public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderRepositoryV1 orderRepository = new OrderRepositoryV1Impl();
+
+        OrderRepositoryV1 proxy = (OrderRepositoryV1) Proxy.newProxyInstance(OrderRepositoryV1.class.getClassLoader(),
+                new Class[]{OrderRepositoryV1.class},
+                new LogTraceMethodHandleHandler(orderRepository, logTrace, PATTERNS, metricsRegistry, gate));
+        return proxy;
+    }
+}
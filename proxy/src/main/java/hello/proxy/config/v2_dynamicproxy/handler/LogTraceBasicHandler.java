@@ -1,7 +1,10 @@
 package hello.proxy.config.v2_dynamicproxy.handler;
 
-import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.TraceMessages;
+import hello.proxy.trace.TracedCall;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
@@ -9,27 +12,41 @@ public class LogTraceBasicHandler implements InvocationHandler {
 
     private final Object target;
     private final LogTrace logTrace;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
 
     public LogTraceBasicHandler(Object target, LogTrace logTrace) {
+        this(target, logTrace, MethodMetricsRegistry.disabled());
+    }
+
+    public LogTraceBasicHandler(Object target, LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        this(target, logTrace, metricsRegistry, TraceGate.alwaysOn());
+    }
+
+    public LogTraceBasicHandler(Object target, LogTrace logTrace, MethodMetricsRegistry metricsRegistry,
+        TraceGate gate) {
         this.target = target;
         this.logTrace = logTrace;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!gate.isOpen(method)) {
+            return method.invoke(target, args);
+        }
 
-        TraceStatus status = null;
+        TracedCall call = new TracedCall(logTrace, metricsRegistry, gate);
         try {
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
-            status = logTrace.begin(message);
+            call.begin(TraceMessages.of(method));
 
             //로직 호출
             Object result = method.invoke(target, args);
-            logTrace.end(status);
+            call.end();
             return result;
-        } catch (Exception e) {
-            logTrace.exception(status, e);
+        } catch (Throwable e) {
+            call.exception(e);
             throw e;
         }
     }
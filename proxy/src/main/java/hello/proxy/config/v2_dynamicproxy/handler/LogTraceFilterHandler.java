@@ -1,7 +1,10 @@
 package hello.proxy.config.v2_dynamicproxy.handler;
 
-import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.TraceMessages;
+import hello.proxy.trace.TracedCall;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import org.springframework.util.PatternMatchUtils;
@@ -11,11 +14,25 @@ public class LogTraceFilterHandler implements InvocationHandler {
     private final Object target;
     private final LogTrace logTrace;
     private final String[] patterns;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
 
     public LogTraceFilterHandler(Object target, LogTrace logTrace, String[] patterns) {
+        this(target, logTrace, patterns, MethodMetricsRegistry.disabled());
+    }
+
+    public LogTraceFilterHandler(Object target, LogTrace logTrace, String[] patterns,
+        MethodMetricsRegistry metricsRegistry) {
+        this(target, logTrace, patterns, metricsRegistry, TraceGate.alwaysOn());
+    }
+
+    public LogTraceFilterHandler(Object target, LogTrace logTrace, String[] patterns,
+        MethodMetricsRegistry metricsRegistry, TraceGate gate) {
         this.target = target;
         this.logTrace = logTrace;
         this.patterns = patterns;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
     }
 
     @Override
@@ -23,22 +40,20 @@ public class LogTraceFilterHandler implements InvocationHandler {
 
         // 메서드 이름 패턴 필터 추가
         String methodName = method.getName();
-        if (!PatternMatchUtils.simpleMatch(patterns, methodName)) {
+        if (!gate.isOpen(method) || !PatternMatchUtils.simpleMatch(patterns, methodName)) {
             return method.invoke(target, args);
         }
 
-        TraceStatus status = null;
+        TracedCall call = new TracedCall(logTrace, metricsRegistry, gate);
         try {
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
-            status = logTrace.begin(message);
+            call.begin(TraceMessages.of(method));
 
             //로직 호출
             Object result = method.invoke(target, args);
-            logTrace.end(status);
+            call.end();
             return result;
-        } catch (Exception e) {
-            logTrace.exception(status, e);
+        } catch (Throwable e) {
+            call.exception(e);
             throw e;
         }
     }
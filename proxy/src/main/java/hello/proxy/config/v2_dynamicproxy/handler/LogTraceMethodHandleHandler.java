@@ -0,0 +1,120 @@
+package hello.proxy.config.v2_dynamicproxy.handler;
+
+import hello.proxy.trace.TraceMessages;
+import hello.proxy.trace.TracedCall;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.util.PatternMatchUtils;
+
+/*
+ * MEMO : LogTraceFilterHandler 와 같은 일을 하지만,
+ *  Method 마다 처음 한 번만 MethodDescriptor 를 만들어 캐시한다.
+ *  - target 에 바인딩된 MethodHandle (Object[] 인자를 펼쳐서 호출)
+ *  - 패턴 매칭 결과
+ *  - 트레이스 메시지
+ *  그래서 호출마다 method.invoke() 의 리플렉션, PatternMatchUtils, 문자열 연결이 일어나지 않는다.
+ *  MethodHandle 은 target 의 예외를 InvocationTargetException 으로 감싸지 않고 그대로 던진다.
+ *  그래서 Error(AssertionError, StackOverflowError)도 그대로 올라온다. Throwable 로 잡아서 트레이스를 닫아야
+ *  레벨이 어긋나지 않는다. (TracedCall.exception)
+ * */
+public class LogTraceMethodHandleHandler implements InvocationHandler {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Object target;
+    private final LogTrace logTrace;
+    private final String[] patterns;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
+    private final ConcurrentMap<Method, MethodDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    public LogTraceMethodHandleHandler(Object target, LogTrace logTrace, String[] patterns) {
+        this(target, logTrace, patterns, MethodMetricsRegistry.disabled());
+    }
+
+    public LogTraceMethodHandleHandler(Object target, LogTrace logTrace, String[] patterns,
+        MethodMetricsRegistry metricsRegistry) {
+        this(target, logTrace, patterns, metricsRegistry, TraceGate.alwaysOn());
+    }
+
+    public LogTraceMethodHandleHandler(Object target, LogTrace logTrace, String[] patterns,
+        MethodMetricsRegistry metricsRegistry, TraceGate gate) {
+        this.target = target;
+        this.logTrace = logTrace;
+        this.patterns = patterns;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDescriptor descriptor = descriptorOf(method);
+        Object[] arguments = args == null ? NO_ARGS : args;
+        if (!descriptor.traced || !gate.isOpen(method)) {
+            return descriptor.invoker.invokeExact(arguments);
+        }
+
+        TracedCall call = new TracedCall(logTrace, metricsRegistry, gate);
+        try {
+            call.begin(descriptor.message);
+
+            //로직 호출
+            Object result = descriptor.invoker.invokeExact(arguments);
+            call.end();
+            return result;
+        } catch (Throwable e) {
+            call.exception(e);
+            throw e;
+        }
+    }
+
+    private MethodDescriptor descriptorOf(Method method) {
+        MethodDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null) {
+            descriptor = new MethodDescriptor(bind(method),
+                PatternMatchUtils.simpleMatch(patterns, method.getName()), TraceMessages.of(method));
+            descriptors.putIfAbsent(method, descriptor);
+        }
+        return descriptor;
+    }
+
+    private MethodHandle bind(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // public 이 아닌 인터페이스 등 접근 검사에 걸리는 경우
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException("cannot access " + method, ex);
+            }
+        }
+        return handle.bindTo(target)
+            .asSpreader(Object[].class, method.getParameterCount())
+            .asType(SPREAD_TYPE);
+    }
+
+    private static final class MethodDescriptor {
+
+        private final MethodHandle invoker;
+        private final boolean traced;
+        private final String message;
+
+        private MethodDescriptor(MethodHandle invoker, boolean traced, String message) {
+            this.invoker = invoker;
+            this.traced = traced;
+            this.message = message;
+        }
+    }
+}
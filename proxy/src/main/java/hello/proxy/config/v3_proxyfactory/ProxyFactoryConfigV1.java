@@ -6,8 +6,13 @@ import hello.proxy.app.v1.OrderRepositoryV1;
 import hello.proxy.app.v1.OrderRepositoryV1Impl;
 import hello.proxy.app.v1.OrderServiceV1;
 import hello.proxy.app.v1.OrderServiceV1Impl;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import hello.proxy.trace.toggle.TraceSwitch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
@@ -15,50 +20,58 @@ import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 @Slf4j
 @Configuration
+@Import({TraceMetricsConfig.class, TraceSwitchConfig.class})
 public class ProxyFactoryConfigV1 {
 
+    private final TraceGate gate;
+
+    public ProxyFactoryConfigV1(TraceSwitch traceSwitch) {
+        this.gate = traceSwitch.gate("proxyFactoryV1");
+    }
+
     // 인터페이스 버전
 
     @Bean
-    public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace) {
+    public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
         OrderRepositoryV1Impl orderRepository = new OrderRepositoryV1Impl();
 
         ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
 
         OrderRepositoryV1 repositoryProxy = (OrderRepositoryV1) factory.getProxy();
         log.info("ProxyFactory repositoryProxy = {}, target = {}", repositoryProxy.getClass(), orderRepository.getClass());
         return repositoryProxy;
     }
 
-    private Advisor createAdvisor(LogTrace logTrace) {
+    private Advisor createAdvisor(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
         //pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
 
         //advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, gate);
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 
     @Bean
-    public OrderServiceV1 orderServiceV1(LogTrace logTrace) {
-        OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
+    public OrderServiceV1 orderServiceV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace, metricsRegistry));
         ProxyFactory factory = new ProxyFactory(orderService);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
         OrderServiceV1 serviceProxy = (OrderServiceV1) factory.getProxy();
         log.info("ProxyFactory serviceProxy = {}, target = {}", serviceProxy.getClass(), orderService.getClass());
         return serviceProxy;
     }
 
     @Bean
-    public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
-        OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
+    public OrderControllerV1 orderControllerV1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace, metricsRegistry));
         ProxyFactory factory = new ProxyFactory(orderController);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
         OrderControllerV1 controllerProxy = (OrderControllerV1) factory.getProxy();
         log.info("ProxyFactory controllerProxy = {}, target = {}", controllerProxy.getClass(), orderController.getClass());
         return controllerProxy;
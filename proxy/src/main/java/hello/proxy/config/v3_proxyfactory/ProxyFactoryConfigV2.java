@@ -3,8 +3,13 @@ package hello.proxy.config.v3_proxyfactory;
 import hello.proxy.app.v2.OrderControllerV2;
 import hello.proxy.app.v2.OrderRepositoryV2;
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import hello.proxy.trace.toggle.TraceSwitch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
@@ -12,51 +17,59 @@ import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 @Slf4j
 @Configuration
+@Import({TraceMetricsConfig.class, TraceSwitchConfig.class})
 public class ProxyFactoryConfigV2 {
 
+    private final TraceGate gate;
+
+    public ProxyFactoryConfigV2(TraceSwitch traceSwitch) {
+        this.gate = traceSwitch.gate("proxyFactoryV2");
+    }
+
     // 구체 클래스 버전
     // 인터페이스 버전이랑 사실상 다를 바가 없다.
 
     @Bean
-    public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace) {
+    public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
         OrderRepositoryV2 orderRepository = new OrderRepositoryV2();
 
         ProxyFactory factory = new ProxyFactory(orderRepository);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
 
         OrderRepositoryV2 proxy = (OrderRepositoryV2) factory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderRepository.getClass());
         return proxy;
     }
 
-    private Advisor createAdvisor(LogTrace logTrace) {
+    private Advisor createAdvisor(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
         // pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
 
         // advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, gate);
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 
     @Bean
-    public OrderControllerV2 orderControllerV2(LogTrace logTrace) {
-        OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace));
+    public OrderControllerV2 orderControllerV2(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace, metricsRegistry));
         ProxyFactory factory = new ProxyFactory(orderController);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
         OrderControllerV2 proxy = (OrderControllerV2) factory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
         return proxy;
     }
 
     @Bean
-    public OrderServiceV2 orderServiceV2(LogTrace logTrace) {
-        OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace));
+    public OrderServiceV2 orderServiceV2(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace, metricsRegistry));
         ProxyFactory factory = new ProxyFactory(orderService);
-        factory.addAdvisor(createAdvisor(logTrace));
+        factory.addAdvisor(createAdvisor(logTrace, metricsRegistry));
         OrderServiceV2 proxy = (OrderServiceV2) factory.getProxy();
         log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderService.getClass());
         return proxy;
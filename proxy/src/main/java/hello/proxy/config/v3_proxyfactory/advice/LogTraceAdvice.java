@@ -1,35 +1,50 @@
 package hello.proxy.config.v3_proxyfactory.advice;
 
-import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.TraceMessages;
+import hello.proxy.trace.TracedCall;
 import hello.proxy.trace.logtrace.LogTrace;
-import java.lang.reflect.Method;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
 public class LogTraceAdvice implements MethodInterceptor {
 
     private final LogTrace logTrace;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
 
     public LogTraceAdvice(LogTrace logTrace) {
+        this(logTrace, MethodMetricsRegistry.disabled());
+    }
+
+    public LogTraceAdvice(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        this(logTrace, metricsRegistry, TraceGate.alwaysOn());
+    }
+
+    public LogTraceAdvice(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceGate gate) {
         this.logTrace = logTrace;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        TraceStatus status = null;
+        // 꺼져 있으면 메시지, 시계, ThreadLocal 을 건드리지 않고 바로 넘긴다
+        if (!gate.isOpen(invocation.getMethod())) {
+            return invocation.proceed();
+        }
+
+        TracedCall call = new TracedCall(logTrace, metricsRegistry, gate);
         try {
-            Method method = invocation.getMethod();
-            String message = method.getDeclaringClass().getSimpleName()
-                + "." + method.getName() + "()";
-            status = logTrace.begin(message);
+            call.begin(TraceMessages.of(invocation.getMethod()));
 
             // 훨씬 편해졌다. invocation 안에 정보가 다 있다
             Object result = invocation.proceed();
-
-            logTrace.end(status);
+            call.end();
             return result;
-        } catch (Exception e) {
-            logTrace.exception(status, e);
+        } catch (Throwable e) {
+            call.exception(e);
             throw e;
         }
     }
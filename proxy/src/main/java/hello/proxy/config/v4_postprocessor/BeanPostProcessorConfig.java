@@ -2,9 +2,13 @@ package hello.proxy.config.v4_postprocessor;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceSwitch;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
@@ -15,21 +19,22 @@ import org.springframework.context.annotation.Import;
 
 @Slf4j
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class})
+@Import({AppV1Config.class, AppV2Config.class, TraceMetricsConfig.class, TraceSwitchConfig.class})
 public class BeanPostProcessorConfig {
 
     @Bean
-    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace) {
-        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace));
+    public PackageLogTracePostProcessor logTracePostProcessor(LogTrace logTrace,
+        MethodMetricsRegistry metricsRegistry, TraceSwitch traceSwitch) {
+        return new PackageLogTracePostProcessor("hello.proxy.app", getAdvisor(logTrace, metricsRegistry, traceSwitch));
     }
 
-    private Advisor getAdvisor(LogTrace logTrace) {
+    private Advisor getAdvisor(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceSwitch traceSwitch) {
         //pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
 
         //advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, traceSwitch.gate("postProcessor"));
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 }
@@ -2,8 +2,12 @@ package hello.proxy.config.v5_autoproxy;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceSwitch;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.aspectj.AspectJExpressionPointcut;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
@@ -13,7 +17,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class})
+@Import({AppV1Config.class, AppV2Config.class, TraceMetricsConfig.class, TraceSwitchConfig.class})
 public class AutoProxyConfig {
 
 
@@ -31,13 +35,13 @@ public class AutoProxyConfig {
     * */
 
     // 이름으로 구분하는 기본적인 포인트컷컷 방식    @Bean
-    public Advisor advisor1(LogTrace logTrace) {
+    public Advisor advisor1(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceSwitch traceSwitch) {
         //pointcut
         NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
         pointcut.setMappedNames("request*", "order*", "save*");
 
         //advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, traceSwitch.gate("advisor1"));
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 
@@ -46,24 +50,24 @@ public class AutoProxyConfig {
     * 물론 이 버전은 no-log가 포함된다.
     *  */
     @Bean
-    public Advisor advisor2(LogTrace logTrace) {
+    public Advisor advisor2(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceSwitch traceSwitch) {
         //pointcut
         AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
         pointcut.setExpression("execution(* hello.proxy.app..*(..))");
         //advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, traceSwitch.gate("advisor2"));
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 
     /*
      * no-log 메서드를 제외한 방식식     *  */
 //    @Bean
-    public Advisor advisor3(LogTrace logTrace) {
+    public Advisor advisor3(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceSwitch traceSwitch) {
         //pointcut
         AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
         pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
         //advice
-        LogTraceAdvice advice = new LogTraceAdvice(logTrace);
+        LogTraceAdvice advice = new LogTraceAdvice(logTrace, metricsRegistry, traceSwitch.gate("advisor3"));
         return new DefaultPointcutAdvisor(pointcut, advice);
     }
 
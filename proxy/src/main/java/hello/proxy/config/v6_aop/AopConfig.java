@@ -2,18 +2,23 @@ package hello.proxy.config.v6_aop;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.TraceMetricsConfig;
+import hello.proxy.config.TraceSwitchConfig;
 import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceSwitch;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
 @Configuration
-@Import({AppV1Config.class, AppV2Config.class})
+@Import({AppV1Config.class, AppV2Config.class, TraceMetricsConfig.class, TraceSwitchConfig.class})
 public class AopConfig {
 
     @Bean
-    public LogTraceAspect logTraceAspect(LogTrace logTrace) {
-        return new LogTraceAspect(logTrace);
+    public LogTraceAspect logTraceAspect(LogTrace logTrace, MethodMetricsRegistry metricsRegistry,
+        TraceSwitch traceSwitch) {
+        return new LogTraceAspect(logTrace, metricsRegistry, traceSwitch.gate("logTraceAspect"));
     }
 }
@@ -0,0 +1,21 @@
+package hello.proxy.config.v6_aop;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.AppV2Config;
+import hello.proxy.config.SamplingProfilerConfig;
+import hello.proxy.config.v6_aop.aspect.RootSpanProfilingAspect;
+import hello.proxy.trace.profiler.SamplingProfiler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// MEMO : AopConfig 의 하이브리드 버전. 루트 span 만 계측하고 나머지는 SamplingProfiler 가 샘플링한다
+@Configuration
+@Import({AppV1Config.class, AppV2Config.class, SamplingProfilerConfig.class})
+public class ProfilingAopConfig {
+
+    @Bean
+    public RootSpanProfilingAspect rootSpanProfilingAspect(SamplingProfiler samplingProfiler) {
+        return new RootSpanProfilingAspect(samplingProfiler);
+    }
+}
@@ -1,20 +1,40 @@
 package hello.proxy.config.v6_aop.aspect;
 
-import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.TracedCall;
 import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
 @Slf4j
 @Aspect
 public class LogTraceAspect {
 
     private final LogTrace logTrace;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
+    // toShortString() 은 호출마다 문자열을 새로 만들기 때문에 Method 별로 한 번만 계산한다
+    private final ConcurrentMap<Method, String> messages = new ConcurrentHashMap<>();
 
     public LogTraceAspect(LogTrace logTrace) {
+        this(logTrace, MethodMetricsRegistry.disabled());
+    }
+
+    public LogTraceAspect(LogTrace logTrace, MethodMetricsRegistry metricsRegistry) {
+        this(logTrace, metricsRegistry, TraceGate.alwaysOn());
+    }
+
+    public LogTraceAspect(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceGate gate) {
         this.logTrace = logTrace;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
     }
 
     /* MEMO : @Around 의 값이 포인트 컷이 되고,
@@ -22,21 +42,39 @@ public class LogTraceAspect {
         입력으로 조인 포인트를 받는다.
         이 하나의 메서드가 결국 어드바이저를 표현한 것이다!
     * */
-    @Around("execution(* hello.proxy.app..*(..))")
+    // Mono / Flux 를 돌려주는 메서드는 조립만 하고 바로 돌아오므로 ReactiveLogTraceAdvice 에 맡긴다
+    @Around("execution(* hello.proxy.app..*(..)) && !execution(org.reactivestreams.Publisher+ *(..))")
     public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
-        TraceStatus status = null;
+        // getSignature() 는 메서드 패턴 규칙이 있을 때만 부른다
+        if (!gate.isOpen(joinPoint, LogTraceAspect::methodOf)) {
+            return joinPoint.proceed();
+        }
+
+        TracedCall call = new TracedCall(logTrace, metricsRegistry, gate);
         try {
-            String message = joinPoint.getSignature().toShortString();
-            status = logTrace.begin(message);
+            call.begin(messageOf(joinPoint));
 
             //로직 호출
             Object result = joinPoint.proceed();
-
-            logTrace.end(status);
+            call.end();
             return result;
-        } catch (Exception e) {
-            logTrace.exception(status, e);
+        } catch (Throwable e) {
+            call.exception(e);
             throw e;
         }
     }
+
+    private String messageOf(ProceedingJoinPoint joinPoint) {
+        Method method = methodOf(joinPoint);
+        String message = messages.get(method);
+        if (message == null) {
+            message = joinPoint.getSignature().toShortString();
+            messages.putIfAbsent(method, message);
+        }
+        return message;
+    }
+
+    private static Method methodOf(ProceedingJoinPoint joinPoint) {
+        return ((MethodSignature) joinPoint.getSignature()).getMethod();
+    }
 }
@@ -0,0 +1,45 @@
+package hello.proxy.config.v6_aop.aspect;
+
+import hello.proxy.trace.profiler.SamplingProfiler;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/*
+ * MEMO : LogTraceAspect 대신 컨트롤러 진입만 감싸는 애스펙트
+ *  서비스 / 리포지토리는 프록시를 만들지 않고, 그 안에서 쓰는 시간은 SamplingProfiler 의 스택 샘플로 본다.
+ * */
+@Aspect
+public class RootSpanProfilingAspect {
+
+    private final SamplingProfiler profiler;
+    private final ConcurrentMap<Method, String> endpoints = new ConcurrentHashMap<>();
+
+    public RootSpanProfilingAspect(SamplingProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Around("execution(* hello.proxy.app..*Controller*.*(..))")
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        profiler.enter(endpointOf(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profiler.exit();
+        }
+    }
+
+    private String endpointOf(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        String endpoint = endpoints.get(method);
+        if (endpoint == null) {
+            endpoint = joinPoint.getSignature().toShortString();
+            endpoints.putIfAbsent(method, endpoint);
+        }
+        return endpoint;
+    }
+}
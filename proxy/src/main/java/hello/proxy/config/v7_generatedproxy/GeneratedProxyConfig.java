@@ -0,0 +1,23 @@
+package hello.proxy.config.v7_generatedproxy;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.v7_generatedproxy.postprocessor.GeneratedTraceProxyPostProcessor;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/*
+ * MEMO : v1_proxy.interface_proxy 처럼 리플렉션 없는 프록시를 쓰지만, 프록시 코드는 직접 쓰지 않는다.
+ *  @TraceProxy 를 붙인 인터페이스의 프록시는 trace-processor 애너테이션 프로세서가 컴파일할 때 만들고,
+ *  빈 후처리기가 자동으로 끼워 넣는다. 런타임에 프록시 클래스를 만들지 않는다.
+ * */
+@Configuration
+@Import(AppV1Config.class)
+public class GeneratedProxyConfig {
+
+    @Bean
+    public GeneratedTraceProxyPostProcessor generatedTraceProxyPostProcessor(LogTrace logTrace) {
+        return new GeneratedTraceProxyPostProcessor(logTrace);
+    }
+}
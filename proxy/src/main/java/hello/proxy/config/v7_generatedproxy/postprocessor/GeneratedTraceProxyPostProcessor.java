@@ -0,0 +1,53 @@
+package hello.proxy.config.v7_generatedproxy.postprocessor;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.processor.TraceProxy;
+import java.lang.reflect.Constructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+/*
+ * MEMO : @TraceProxy 인터페이스를 구현한 빈을 컴파일 시점에 생성된 <인터페이스 이름>TraceProxy 로 감싼다.
+ *  생성된 클래스를 찾고 생성자를 부르는 데만 리플렉션을 쓰고 (빈마다 한 번),
+ *  이후 호출은 손으로 작성한 인터페이스 프록시와 같은 일반 메서드 호출이다.
+ *  @TraceProxy 인터페이스를 여러 개 구현하면 처음 찾은 인터페이스의 프록시만 만든다.
+ * */
+@Slf4j
+public class GeneratedTraceProxyPostProcessor implements BeanPostProcessor {
+
+    private final LogTrace logTrace;
+
+    public GeneratedTraceProxyPostProcessor(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (type.isAnnotationPresent(TraceProxy.class)) {
+                Object proxy = createProxy(type, bean, beanName);
+                log.info("create generated proxy: target={} proxy={}", bean.getClass(), proxy.getClass());
+                return proxy;
+            }
+        }
+        return bean;
+    }
+
+    private Object createProxy(Class<?> type, Object bean, String beanName) {
+        // 중첩 인터페이스 Outer.Inner 는 Outer_InnerTraceProxy
+        String proxyName = type.getPackageName() + "."
+            + type.getName().substring(type.getPackageName().length() + 1).replace('$', '_') + TraceProxy.SUFFIX;
+        try {
+            Class<?> proxyClass = ClassUtils.forName(proxyName, type.getClassLoader());
+            Constructor<?> constructor = proxyClass.getConstructor(type, LogTrace.class);
+            return BeanUtils.instantiateClass(constructor, bean, logTrace);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new BeanCreationException(beanName,
+                proxyName + " not found. Is the trace-processor annotation processor enabled?", e);
+        }
+    }
+}
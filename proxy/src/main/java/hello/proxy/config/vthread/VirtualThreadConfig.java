@@ -0,0 +1,41 @@
+package hello.proxy.config.vthread;
+
+import hello.proxy.thread.VirtualThreads;
+import java.util.concurrent.ExecutorService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/*
+ * MEMO : proxy.virtual-threads.enabled=true 일 때 요청과 주문 호출 체인을 가상 스레드에서 실행한다. (JDK 21+)
+ *  - 톰캣 워커 풀(기본 최대 200개) 대신 요청마다 가상 스레드를 띄운다. 컨트롤러 -> 서비스 -> 리포지토리가
+ *    그 스레드에서 그대로 돌기 때문에 Thread.sleep 으로 막혀 있는 동안 캐리어 스레드는 다른 요청을 처리한다.
+ *  - @Async 등이 쓰는 applicationTaskExecutor 도 가상 스레드로 바꾼다.
+ *    (TraceContextExecutorPostProcessor 가 트레이스 문맥 전파를 건다)
+ *  스레드가 요청마다 새로 생기므로 ThreadLocal 에 둔 트레이스 상태는 요청이 끝나면 스레드와 함께 사라진다.
+ *  ./gradlew :proxy:bootRun -Pvirtual
+ * */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "proxy.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("tomcat-virtual-");
+            protocolHandler.setExecutor(executor);
+            log.info("tomcat requests run on virtual threads");
+        };
+    }
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task-virtual-"));
+    }
+}
@@ -0,0 +1,76 @@
+package hello.proxy.thread;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/*
+ * MEMO : 가상 스레드(JDK 21+)를 소스 레벨 11 에서 쓰기 위한 리플렉션 래퍼
+ *  프로젝트는 11 로 컴파일하고, 가상 스레드 모드만 21 툴체인으로 실행한다. (./gradlew :proxy:bootRun -Pvirtual)
+ *  isVirtual() 은 span 마다 불리므로 MethodHandle 로 찾아 둔다. 11 ~ 20 에서는 항상 false 다.
+ * */
+public final class VirtualThreads {
+
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+    private static final boolean SUPPORTED = IS_VIRTUAL != null && tryFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 작업마다 새 가상 스레드를 띄우는 실행기. 스레드 이름은 prefix0, prefix1, ...
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (!SUPPORTED) {
+            throw new IllegalStateException("virtual threads require JDK 21+, running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory factory(String prefix) throws ReflectiveOperationException {
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup()
+                .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // 19, 20 에서는 --enable-preview 없이 ofVirtual() 이 UnsupportedOperationException 을 던진다
+    private static boolean tryFactory() {
+        try {
+            factory("probe-");
+            return true;
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
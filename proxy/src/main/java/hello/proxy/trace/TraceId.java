@@ -1,32 +1,43 @@
 package hello.proxy.trace;
 
-import java.util.UUID;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
 
 public class TraceId {
 
-    private String id;
+    private static final TraceIdGenerator DEFAULT_GENERATOR = new RandomTraceIdGenerator();
+
+    private long id;
     private int level;
+    private TraceIdGenerator generator;
+    private String renderedId; // 로그를 찍을 때 처음 한 번만 만든다
 
     public TraceId() {
-        this.id = createId();
-        this.level = 0;
+        this(DEFAULT_GENERATOR);
     }
 
-    private TraceId(String id, int level) {
-        this.id = id;
-        this.level = level;
+    public TraceId(TraceIdGenerator generator) {
+        this(generator.nextId(), 0, generator);
     }
 
-    private String createId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+    public TraceId(long id, int level, TraceIdGenerator generator) {
+        this.id = id;
+        this.level = level;
+        this.generator = generator;
     }
 
     public TraceId createNextId() {
-        return new TraceId(id, level + 1);
+        return copyWithLevel(level + 1);
     }
 
     public TraceId createPreviousId() {
-        return new TraceId(id, level - 1);
+        return copyWithLevel(level - 1);
+    }
+
+    private TraceId copyWithLevel(int level) {
+        TraceId traceId = new TraceId(id, level, generator);
+        traceId.renderedId = renderedId;
+        return traceId;
     }
 
     public boolean isFirstLevel() {
@@ -34,10 +45,21 @@ public class TraceId {
     }
 
     public String getId() {
+        if (renderedId == null) {
+            renderedId = generator.render(id);
+        }
+        return renderedId;
+    }
+
+    public long getIdValue() {
         return id;
     }
 
     public int getLevel() {
         return level;
     }
+
+    public static TraceIdGenerator defaultGenerator() {
+        return DEFAULT_GENERATOR;
+    }
 }
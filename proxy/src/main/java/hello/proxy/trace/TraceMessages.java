@@ -0,0 +1,26 @@
+package hello.proxy.trace;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+ * MEMO : "OrderServiceV1.orderItem()" 같은 트레이스 메시지를 Method 별로 한 번만 만든다.
+ *  어드바이스가 호출될 때마다 문자열을 이어 붙이지 않기 위한 캐시.
+ * */
+public final class TraceMessages {
+
+    private static final ConcurrentMap<Method, String> MESSAGES = new ConcurrentHashMap<>();
+
+    private TraceMessages() {
+    }
+
+    public static String of(Method method) {
+        String message = MESSAGES.get(method);
+        if (message == null) {
+            message = method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+            MESSAGES.putIfAbsent(method, message);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,58 @@
+package hello.proxy.trace;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.resource.SpanResources;
+import hello.proxy.trace.toggle.TraceGate;
+import java.lang.reflect.InvocationTargetException;
+
+/*
+ * MEMO : 어드바이스, 애스펙트, 동적 프록시 핸들러가 같이 쓰는 span 하나의 begin / end / exception
+ *  begin 에서 트레이스를 열고 리소스 측정을 시작한다. 시작 시각은 메트릭이나 리소스를 모을 때만 잡는다. (timed)
+ *  end / exception 에서 메트릭을 남기고 트레이스를 닫는다.
+ *  begin 도중에 실패해도 exception 을 부를 수 있다. 그때는 메트릭 없이 열린 만큼만 닫는다.
+ *  exception 은 Error 도 받는다. LogTrace 에는 리플렉션이 감싸던 것처럼 InvocationTargetException 으로 넘긴다.
+ * */
+public final class TracedCall {
+
+    private final LogTrace logTrace;
+    private final MethodMetricsRegistry metricsRegistry;
+    private final TraceGate gate;
+    private String message;
+    private TraceStatus status;
+    private SpanResources resources = SpanResources.disabled();
+    private boolean timed;
+    private long startNanos;
+
+    public TracedCall(LogTrace logTrace, MethodMetricsRegistry metricsRegistry, TraceGate gate) {
+        this.logTrace = logTrace;
+        this.metricsRegistry = metricsRegistry;
+        this.gate = gate;
+    }
+
+    public void begin(String message) {
+        this.message = message;
+        status = logTrace.begin(message);
+        resources = SpanResources.start(gate.isSamplingResources());
+        timed = metricsRegistry.isEnabled() || resources.isEnabled();
+        if (timed) {
+            startNanos = System.nanoTime();
+        }
+    }
+
+    public void end() {
+        record(false);
+        logTrace.end(status);
+    }
+
+    public void exception(Throwable e) {
+        record(true);
+        logTrace.exception(status, e instanceof Exception ? (Exception) e : new InvocationTargetException(e));
+    }
+
+    private void record(boolean error) {
+        if (timed) {
+            resources.record(metricsRegistry, message, System.nanoTime() - startNanos, error);
+        }
+    }
+}
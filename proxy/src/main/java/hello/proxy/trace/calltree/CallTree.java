@@ -0,0 +1,111 @@
+package hello.proxy.trace.calltree;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * MEMO : 완료된 트레이스를 호출 경로별로 합친 트리
+ *  노드 수가 maxNodes 에 닿으면 더 이상 새 경로를 만들지 않고 그 아래 호출은 모두 "(truncated)" 노드 하나에 모은다.
+ *  그래서 메모리는 트래픽이 아니라 노드 수에 비례한다.
+ *  이미 있는 경로는 ConcurrentHashMap 조회 한 번으로 찾고, 값은 LongAdder 에 더하므로 잠금이 없다.
+ *  노드 수는 computeIfAbsent 의 매핑 함수 안에서만 센다. 같은 경로를 두 스레드가 동시에 만들어도 한 번만 센다.
+ * */
+public class CallTree {
+
+    public static final int DEFAULT_MAX_NODES = 10_000;
+    public static final String ROOT = "(root)";
+    public static final String TRUNCATED = "(truncated)";
+
+    private final int maxNodes;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private volatile CallTreeNode root = new CallTreeNode(ROOT);
+    private volatile CallTreeNode truncated = new CallTreeNode(TRUNCATED);
+
+    public CallTree() {
+        this(DEFAULT_MAX_NODES);
+    }
+
+    public CallTree(int maxNodes) {
+        this.maxNodes = maxNodes;
+    }
+
+    public CallTreeNode root() {
+        return root;
+    }
+
+    // parent 아래 message 경로의 노드. 한도를 넘으면 truncated 노드를 돌려준다
+    public CallTreeNode child(CallTreeNode parent, String message) {
+        CallTreeNode child = parent.child(message);
+        if (child != null) {
+            return child;
+        }
+        CallTreeNode sink = truncated;
+        if (parent == sink) {
+            return sink;
+        }
+        CallTreeNode added = parent.addChild(message, this::reserveNode);
+        return added != null ? added : sink;
+    }
+
+    private boolean reserveNode() {
+        if (nodeCount.incrementAndGet() > maxNodes) {
+            nodeCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public int getNodeCount() {
+        return nodeCount.get();
+    }
+
+    public int getMaxNodes() {
+        return maxNodes;
+    }
+
+    // 진행 중인 트레이스는 이전 트리에 기록되고 버려진다
+    public void clear() {
+        root = new CallTreeNode(ROOT);
+        truncated = new CallTreeNode(TRUNCATED);
+        nodeCount.set(0);
+    }
+
+    public CallTreeSnapshot snapshot() {
+        CallTreeSnapshot snapshot = root.snapshot();
+        CallTreeSnapshot dropped = truncated.snapshot();
+        if (dropped.getCount() > 0) {
+            snapshot.add(dropped);
+            snapshot.sortChildren();
+        }
+        return snapshot;
+    }
+
+    /*
+     * MEMO : flamegraph.pl / speedscope 가 읽는 collapsed stack 형식
+     *  "OrderControllerV1.request();OrderServiceV1.orderItem();OrderRepositoryV1.save() 1234"
+     *  값은 self 시간(마이크로초)이다. 부모의 폭은 그래프 쪽에서 자식 값을 더해 만든다. 값이 0 인 줄은 뺀다.
+     * */
+    public String collapsed() {
+        StringBuilder out = new StringBuilder();
+        for (CallTreeSnapshot child : snapshot().getChildren()) {
+            appendCollapsed(out, new StringBuilder(), child);
+        }
+        return out.toString();
+    }
+
+    private static void appendCollapsed(StringBuilder out, StringBuilder path, CallTreeSnapshot node) {
+        int length = path.length();
+        if (length > 0) {
+            path.append(';');
+        }
+        path.append(node.getName().replace(';', ':').replace(' ', '_'));
+
+        long value = node.getSelfNanos() / 1_000;
+        if (value > 0) {
+            out.append(path).append(' ').append(value).append('\n');
+        }
+        for (CallTreeSnapshot child : node.getChildren()) {
+            appendCollapsed(out, path, child);
+        }
+        path.setLength(length);
+    }
+}
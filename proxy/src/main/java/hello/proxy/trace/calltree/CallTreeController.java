@@ -0,0 +1,35 @@
+package hello.proxy.trace.calltree;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/trace/calltree`
+ *  curl localhost:8080/trace/calltree/collapsed > calltree.txt && flamegraph.pl calltree.txt > calltree.svg
+ * */
+@RestController
+public class CallTreeController {
+
+    private final CallTree callTree;
+
+    public CallTreeController(CallTree callTree) {
+        this.callTree = callTree;
+    }
+
+    @GetMapping("/trace/calltree")
+    public CallTreeSnapshot tree() {
+        return callTree.snapshot();
+    }
+
+    @GetMapping(value = "/trace/calltree/collapsed", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String collapsed() {
+        return callTree.collapsed();
+    }
+
+    @DeleteMapping("/trace/calltree")
+    public void reset() {
+        callTree.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package hello.proxy.trace.calltree;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/*
+ * MEMO : 호출 경로 하나(루트부터 이 메시지까지)의 누적 값
+ *  total 은 자식 호출을 포함한 시간, self 는 자식 호출 시간을 뺀 시간이다.
+ *  자식은 메시지로 찾는다. 새 자식은 CallTree 가 노드 수 한도 안에서만 만든다.
+ * */
+public final class CallTreeNode {
+
+    private final String name;
+    private final Map<String, CallTreeNode> children = new ConcurrentHashMap<>();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder selfNanos = new LongAdder();
+
+    CallTreeNode(String name) {
+        this.name = name;
+    }
+
+    public void record(long totalNanos, long selfNanos, boolean error) {
+        count.increment();
+        this.totalNanos.add(totalNanos);
+        this.selfNanos.add(selfNanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    CallTreeNode child(String message) {
+        return children.get(message);
+    }
+
+    // reserve 는 실제로 새 노드를 넣을 때만 (키마다 한 번) 불린다. false 면 아무것도 넣지 않고 null 을 돌려준다
+    CallTreeNode addChild(String message, BooleanSupplier reserve) {
+        return children.computeIfAbsent(message, key -> reserve.getAsBoolean() ? new CallTreeNode(key) : null);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    CallTreeSnapshot snapshot() {
+        CallTreeSnapshot snapshot = new CallTreeSnapshot(name, count.sum(), errors.sum(), totalNanos.sum(),
+            selfNanos.sum());
+        for (CallTreeNode child : children.values()) {
+            snapshot.add(child.snapshot());
+        }
+        snapshot.sortChildren();
+        return snapshot;
+    }
+}
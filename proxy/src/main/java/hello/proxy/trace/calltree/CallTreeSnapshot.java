@@ -0,0 +1,34 @@
+package hello.proxy.trace.calltree;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.Getter;
+
+// MEMO : 시간 값은 모두 나노초. 자식은 total 이 큰 순서
+@Getter
+public class CallTreeSnapshot {
+
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final long totalNanos;
+    private final long selfNanos;
+    private final List<CallTreeSnapshot> children = new ArrayList<>();
+
+    CallTreeSnapshot(String name, long count, long errors, long totalNanos, long selfNanos) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.totalNanos = totalNanos;
+        this.selfNanos = selfNanos;
+    }
+
+    void add(CallTreeSnapshot child) {
+        children.add(child);
+    }
+
+    void sortChildren() {
+        children.sort(Comparator.comparingLong(CallTreeSnapshot::getTotalNanos).reversed());
+    }
+}
@@ -0,0 +1,19 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * MEMO : 스레드별 ThreadLocalRandom 으로 만드는 64비트 아이디
+ *  스레드 간 공유 상태가 없어서 경합이 없다.
+ * */
+public class RandomTraceIdGenerator implements TraceIdGenerator {
+
+    @Override
+    public long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        return id;
+    }
+}
@@ -0,0 +1,49 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * MEMO : 시간(41비트, ms) + 노드(10비트) + 시퀀스(12비트) 로 만드는 정렬 가능한 아이디
+ *  마지막 (시간, 시퀀스) 상태를 AtomicLong 하나에 두고 CAS 로 갱신한다. (락 없음)
+ *  같은 ms 에 시퀀스를 다 쓰면 다음 ms 값을 미리 빌려 쓴다.
+ * */
+public class SnowflakeTraceIdGenerator implements TraceIdGenerator {
+
+    private static final long EPOCH_MS = 1672531200000L; // 2023-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final AtomicLong lastState = new AtomicLong();
+
+    public SnowflakeTraceIdGenerator(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+    }
+
+    @Override
+    public long nextId() {
+        long now = System.currentTimeMillis() - EPOCH_MS;
+        while (true) {
+            long last = lastState.get();
+            long lastTime = last >>> SEQUENCE_BITS;
+            long next;
+            if (now > lastTime) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = (lastTime + 1) << SEQUENCE_BITS;
+            }
+            if (lastState.compareAndSet(last, next)) {
+                long time = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (time << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package hello.proxy.trace.id;
+
+final class TraceIdFormat {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TraceIdFormat() {
+    }
+
+    static String toHex(long id, int digits) {
+        char[] chars = new char[digits];
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,14 @@
+package hello.proxy.trace.id;
+
+/*
+ * MEMO : 트레이스 아이디 생성 전략
+ *  아이디는 long 으로만 들고 다니다가, 실제로 로그를 남길 때 render() 로 문자열을 만든다.
+ * */
+public interface TraceIdGenerator {
+
+    long nextId();
+
+    default String render(long id) {
+        return TraceIdFormat.toHex(id, 16);
+    }
+}
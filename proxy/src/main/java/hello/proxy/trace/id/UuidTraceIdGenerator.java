@@ -0,0 +1,21 @@
+package hello.proxy.trace.id;
+
+import java.util.UUID;
+
+/*
+ * MEMO : 기존 UUID.randomUUID().toString().substring(0, 8) 과 같은 값을 만든다.
+ *  UUID 문자열의 앞 8자리는 mostSignificantBits 의 상위 32비트와 같다.
+ *  공유 SecureRandom 을 거치고 32비트 뿐이라 비교용으로만 남겨둔다.
+ * */
+public class UuidTraceIdGenerator implements TraceIdGenerator {
+
+    @Override
+    public long nextId() {
+        return UUID.randomUUID().getMostSignificantBits() >>> 32;
+    }
+
+    @Override
+    public String render(long id) {
+        return TraceIdFormat.toHex(id, 8);
+    }
+}
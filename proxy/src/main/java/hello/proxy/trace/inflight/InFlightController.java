@@ -0,0 +1,26 @@
+package hello.proxy.trace.inflight;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/trace/inflight`
+ *  curl 'localhost:8080/trace/inflight'                 지금 열려 있는 루트 span (오래 걸린 순서)
+ *  curl 'localhost:8080/trace/inflight?stuckOnly=true'  워치독이 잡은 span 과 그때의 스레드 스택만
+ * */
+@RestController
+public class InFlightController {
+
+    private final InFlightRegistry registry;
+
+    public InFlightController(InFlightRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping("/trace/inflight")
+    public List<InFlightSpan> inFlight(@RequestParam(defaultValue = "false") boolean stuckOnly) {
+        return stuckOnly ? registry.stuck() : registry.snapshot();
+    }
+}
@@ -0,0 +1,203 @@
+package hello.proxy.trace.inflight;
+
+import hello.proxy.thread.VirtualThreads;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 지금 열려 있는 루트 span 목록과 오래 걸리는 요청을 잡는 워치독
+ *  로그는 end() 에서야 남기 때문에 OrderRepository.save 안에서 멈춘 요청은 끝날 때까지 보이지 않는다.
+ *  - 스레드마다 처음 한 번 슬롯 배열에서 자리를 잡는다. (스레드 아이디 위치부터 CAS 로 빈 칸을 찾는다)
+ *  - begin/end 는 자기 슬롯에 plain 쓰기 두어 번과 루트일 때 volatile 쓰기 한 번만 한다. 락도 할당도 없다.
+ *  - 워치독 스레드가 주기적으로 슬롯을 훑어 threshold 보다 오래된 span 의 스레드 스택을 한 번만 잡아 둔다.
+ *  슬롯이 모자라면 그 스레드는 추적하지 않고 untracked 로 센다. 죽은 스레드의 슬롯은 워치독이 비운다.
+ *  가상 스레드는 요청마다 새로 생기고 끝나므로 스레드가 슬롯을 들고 있으면 워치독이 비우기 전에 배열이 찬다.
+ *  그래서 가상 스레드는 루트 span 이 끝날 때 슬롯을 바로 돌려주고 다음 루트에서 다시 잡는다. (CAS 두 번)
+ * */
+@Slf4j
+public class InFlightRegistry implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long DEFAULT_THRESHOLD_MS = 3000;
+    private static final long DEFAULT_INTERVAL_MS = 1000;
+
+    private final AtomicReferenceArray<InFlightSlot> slots;
+    private final int mask;
+    private final ThreadLocal<InFlightSlot> slotHolder = ThreadLocal.withInitial(this::claim);
+    private final Map<InFlightSlot, StuckSpan> stuck = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private final long thresholdNanos;
+    private final long intervalNanos;
+    private final Thread watchdog;
+    private volatile boolean running = true;
+
+    public InFlightRegistry() {
+        this(DEFAULT_CAPACITY, DEFAULT_THRESHOLD_MS, DEFAULT_INTERVAL_MS);
+    }
+
+    public InFlightRegistry(int capacity, long thresholdMs, long intervalMs) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.watchdog = new Thread(this::watch, "in-flight-watchdog");
+        this.watchdog.setDaemon(true);
+        this.watchdog.start();
+    }
+
+    public void enter(String message) {
+        enter(message, 0L);
+    }
+
+    // traceId 는 루트 span 일 때만 남는다. SamplingProfiler 가 샘플을 트레이스에 붙일 때 쓴다
+    public void enter(String message, long traceId) {
+        slotHolder.get().enter(message, traceId);
+    }
+
+    public void exit() {
+        InFlightSlot slot = slotHolder.get();
+        if (slot.exit() && slot.virtual) {
+            release(slot);
+        }
+    }
+
+    // 오래 걸린 순서
+    public List<InFlightSpan> snapshot() {
+        long now = System.nanoTime();
+        long nowMs = System.currentTimeMillis();
+        List<InFlightSpan> spans = new ArrayList<>();
+        for (int i = 0; i < slots.length(); i++) {
+            InFlightSlot slot = slots.get(i);
+            if (slot == null) {
+                continue;
+            }
+            long startNanos = slot.startNanos;
+            if (startNanos == 0L) {
+                continue;
+            }
+            String rootMessage = slot.rootMessage;
+            long traceId = slot.traceId;
+            String message = slot.message;
+            int depth = slot.depth;
+            if (slot.startNanos != startNanos) {
+                continue; // 읽는 사이에 끝났다
+            }
+            StuckSpan stuckSpan = stuck.get(slot);
+            boolean flagged = stuckSpan != null && stuckSpan.startNanos == startNanos;
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(now - startNanos);
+            List<String> stackTrace = flagged ? stuckSpan.stackTrace : Collections.emptyList();
+            spans.add(new InFlightSpan(slot.thread.getName(), slot.thread.getId(), traceId, rootMessage, message,
+                depth, nowMs - elapsedMs, elapsedMs, flagged, stackTrace));
+        }
+        spans.sort(Comparator.comparingLong(InFlightSpan::getElapsedMs).reversed());
+        return spans;
+    }
+
+    public List<InFlightSpan> stuck() {
+        List<InFlightSpan> spans = snapshot();
+        spans.removeIf(span -> !span.isStuck());
+        return spans;
+    }
+
+    public long getUntracked() {
+        return untracked.sum();
+    }
+
+    // 워치독이 interval 마다 부른다
+    public synchronized void inspect() {
+        long now = System.nanoTime();
+        for (int i = 0; i < slots.length(); i++) {
+            InFlightSlot slot = slots.get(i);
+            if (slot == null) {
+                continue;
+            }
+            if (!slot.thread.isAlive()) {
+                slots.compareAndSet(i, slot, null);
+                continue;
+            }
+            long startNanos = slot.startNanos;
+            if (startNanos != 0L && now - startNanos >= thresholdNanos && slot.reportedStartNanos != startNanos) {
+                slot.reportedStartNanos = startNanos;
+                report(slot, startNanos, now);
+            }
+        }
+        stuck.entrySet().removeIf(entry -> !entry.getKey().thread.isAlive()
+            || entry.getKey().startNanos != entry.getValue().startNanos);
+    }
+
+    private void report(InFlightSlot slot, long startNanos, long now) {
+        StackTraceElement[] stack = slot.thread.getStackTrace();
+        if (slot.startNanos != startNanos) {
+            return; // 스택을 잡는 사이에 끝났다
+        }
+        List<String> lines = new ArrayList<>(stack.length);
+        for (StackTraceElement element : stack) {
+            lines.add(element.toString());
+        }
+        stuck.put(slot, new StuckSpan(startNanos, Collections.unmodifiableList(lines)));
+        log.warn("stuck span {} thread={} elapsed={}ms depth={} current={}\n\tat {}", slot.rootMessage,
+            slot.thread.getName(), TimeUnit.NANOSECONDS.toMillis(now - startNanos), slot.depth, slot.message,
+            String.join("\n\tat ", lines));
+    }
+
+    private InFlightSlot claim() {
+        Thread thread = Thread.currentThread();
+        InFlightSlot slot = new InFlightSlot(thread, VirtualThreads.isVirtual(thread));
+        int start = (int) thread.getId() & mask;
+        for (int i = 0; i <= mask; i++) {
+            int index = (start + i) & mask;
+            InFlightSlot current = slots.get(index);
+            if ((current == null || !current.thread.isAlive()) && slots.compareAndSet(index, current, slot)) {
+                slot.index = index;
+                return slot;
+            }
+        }
+        // 배열에 없는 슬롯에 쓰므로 아무도 읽지 않는다
+        untracked.increment();
+        return slot;
+    }
+
+    private void release(InFlightSlot slot) {
+        if (slot.index >= 0) {
+            slots.compareAndSet(slot.index, slot, null);
+        }
+        slotHolder.remove();
+    }
+
+    private void watch() {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            if (running) {
+                inspect();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(watchdog);
+        watchdog.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private static final class StuckSpan {
+
+        private final long startNanos;
+        private final List<String> stackTrace;
+
+        private StuckSpan(long startNanos, List<String> stackTrace) {
+            this.startNanos = startNanos;
+            this.stackTrace = stackTrace;
+        }
+    }
+}
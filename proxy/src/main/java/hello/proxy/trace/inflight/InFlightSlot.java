@@ -0,0 +1,55 @@
+package hello.proxy.trace.inflight;
+
+import java.util.Arrays;
+
+/*
+ * MEMO : 스레드 하나가 지금 열어 둔 루트 span
+ *  주인 스레드만 쓰고, 워치독 / 엔드포인트는 읽기만 한다.
+ *  startNanos 만 volatile 이다. 루트 begin 에서 rootMessage, traceId 를 쓴 뒤 startNanos 를 써서 공개하고,
+ *  루트 end 에서 0 으로 되돌린다. depth, message 는 plain 필드라 읽는 쪽에서는 조금 늦게 보일 수 있다.
+ *  message 는 지금 열려 있는 가장 안쪽 span 이다. 레벨별 메시지를 들고 있다가 자식이 끝나면 부모 것으로 되돌린다.
+ * */
+final class InFlightSlot {
+
+    final Thread thread;
+    final boolean virtual; // 가상 스레드는 루트가 끝나면 슬롯을 돌려준다
+    int index = -1; // 배열에서 잡은 자리 (못 잡았으면 -1)
+
+    volatile long startNanos; // 0 이면 열린 루트 span 이 없다
+    String rootMessage;
+    long traceId; // 루트를 연 쪽이 넘겨준 아이디 (없으면 0)
+    String message; // 지금 열려 있는 가장 안쪽 span
+    int depth;
+    private String[] messages = new String[8]; // 주인 스레드만 쓴다. messages[depth - 1] == message
+
+    long reportedStartNanos; // 워치독 스레드만 쓴다. 같은 span 의 스택은 한 번만 잡는다
+
+    InFlightSlot(Thread thread, boolean virtual) {
+        this.thread = thread;
+        this.virtual = virtual;
+    }
+
+    void enter(String message, long traceId) {
+        if (depth == messages.length) {
+            messages = Arrays.copyOf(messages, depth * 2);
+        }
+        messages[depth] = message;
+        this.message = message;
+        if (depth++ == 0) {
+            rootMessage = message;
+            this.traceId = traceId;
+            startNanos = System.nanoTime();
+        }
+    }
+
+    // 루트 span 이 끝났으면 true
+    boolean exit() {
+        messages[--depth] = null;
+        if (depth == 0) {
+            startNanos = 0L;
+            return true;
+        }
+        message = messages[depth - 1];
+        return false;
+    }
+}
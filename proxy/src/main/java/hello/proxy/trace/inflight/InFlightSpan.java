@@ -0,0 +1,22 @@
+package hello.proxy.trace.inflight;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// MEMO : 아직 끝나지 않은 루트 span. stackTrace 는 워치독이 stuck 으로 판단했을 때 한 번 잡은 스택 (아니면 빈 목록)
+@Getter
+@RequiredArgsConstructor
+public class InFlightSpan {
+
+    private final String threadName;
+    private final long threadId;
+    private final long traceId;
+    private final String rootMessage;
+    private final String message;
+    private final int depth;
+    private final long startTimeMs;
+    private final long elapsedMs;
+    private final boolean stuck;
+    private final List<String> stackTrace;
+}
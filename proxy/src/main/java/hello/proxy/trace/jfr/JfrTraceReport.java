@@ -0,0 +1,240 @@
+package hello.proxy.trace.jfr;
+
+import hello.proxy.trace.metrics.LatencyHistogram;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/*
+ * MEMO : .jfr 녹화 파일에서 TraceSpanEvent 만 읽어서 메서드별 지연 통계와 호출 트리를 만든다.
+ *
+ *  ./gradlew :proxy:jfrReport -Pjfr.file=/path/to/trace.jfr
+ *  java -cp <proxy classpath> hello.proxy.trace.jfr.JfrTraceReport trace.jfr [event name]
+ *
+ *  - 메서드별 : 호출 수, 예외 수, 평균 / p50 / p95 / p99 / 최대 (LatencyHistogram)
+ *  - 호출 트리 : 트레이스마다 시작 시각, depth 순으로 부모를 찾고, 같은 경로의 호출은 합친다.
+ *  log-tracer 의 이벤트처럼 이름이 다른 이벤트는 두 번째 인자로 이름을 준다.
+ * */
+public class JfrTraceReport {
+
+    private final Map<String, MethodStats> methods = new LinkedHashMap<>();
+    private final CallNode root = new CallNode("");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: JfrTraceReport <recording.jfr> [event name]");
+            System.exit(1);
+        }
+        String eventName = args.length > 1 ? args[1] : TraceSpanEvent.NAME;
+        System.out.print(read(Path.of(args[0]), eventName).render());
+    }
+
+    public static JfrTraceReport read(Path recording, String eventName) throws IOException {
+        List<Span> spans = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(recording)) {
+            if (event.getEventType().getName().equals(eventName)) {
+                spans.add(Span.of(event));
+            }
+        }
+        return of(spans);
+    }
+
+    public static JfrTraceReport of(List<Span> spans) {
+        JfrTraceReport report = new JfrTraceReport();
+        for (Span span : spans) {
+            report.methods.computeIfAbsent(span.message, MethodStats::new).record(span);
+        }
+        Map<String, List<Span>> traces = spans.stream()
+            .collect(Collectors.groupingBy(span -> span.traceId, LinkedHashMap::new, Collectors.toList()));
+        for (List<Span> trace : traces.values()) {
+            report.addTrace(trace);
+        }
+        return report;
+    }
+
+    /*
+     * MEMO : 시작 시각 순으로 보면서 스택에서 자기보다 깊지 않은 span 을 꺼내면, 스택 맨 위가 부모다.
+     *  다른 스레드로 넘어간 자식도 depth 가 이어지므로 같은 방식으로 붙는다.
+     * */
+    private void addTrace(List<Span> trace) {
+        trace.sort(Comparator.comparingLong((Span span) -> span.startNanos).thenComparingInt(span -> span.depth));
+        Deque<Span> spanStack = new ArrayDeque<>();
+        Deque<CallNode> nodeStack = new ArrayDeque<>();
+        for (Span span : trace) {
+            while (!spanStack.isEmpty() && spanStack.peek().depth >= span.depth) {
+                spanStack.pop();
+                nodeStack.pop();
+            }
+            CallNode parent = nodeStack.isEmpty() ? root : nodeStack.peek();
+            CallNode node = parent.child(span.message);
+            node.record(span);
+            spanStack.push(span);
+            nodeStack.push(node);
+        }
+    }
+
+    public Map<String, MethodStats> getMethods() {
+        return methods;
+    }
+
+    public CallNode getRoot() {
+        return root;
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("== methods (us) ==\n");
+        sb.append(String.format("%-40s %8s %8s %10s %10s %10s %10s %10s%n",
+            "method", "count", "errors", "mean", "p50", "p95", "p99", "max"));
+        methods.values().stream()
+            .sorted(Comparator.comparingLong(MethodStats::getTotalNanos).reversed())
+            .forEach(stats -> {
+                LatencyHistogram.Snapshot snapshot = stats.histogram.snapshot();
+                sb.append(String.format("%-40s %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    stats.message, stats.count, stats.errors, micros(snapshot.getMean()),
+                    micros(snapshot.getValueAtPercentile(50)), micros(snapshot.getValueAtPercentile(95)),
+                    micros(snapshot.getValueAtPercentile(99)), micros(snapshot.getMax())));
+            });
+        sb.append("\n== call trees ==\n");
+        for (CallNode node : root.children.values()) {
+            renderNode(sb, node, 0);
+        }
+        return sb.toString();
+    }
+
+    private static void renderNode(StringBuilder sb, CallNode node, int level) {
+        for (int i = 0; i < level; i++) {
+            sb.append("|   ");
+        }
+        sb.append(node.message)
+            .append(" count=").append(node.count)
+            .append(" avg=").append(String.format("%.1f", micros(node.totalNanos / node.count))).append("us");
+        if (node.errors > 0) {
+            sb.append(" errors=").append(node.errors);
+        }
+        sb.append('\n');
+        for (CallNode child : node.children.values()) {
+            renderNode(sb, child, level + 1);
+        }
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+
+    public static class Span {
+
+        private final String traceId;
+        private final int depth;
+        private final String message;
+        private final long startNanos;
+        private final long durationNanos;
+        private final String exceptionClass;
+
+        public Span(String traceId, int depth, String message, long startNanos, long durationNanos,
+            String exceptionClass) {
+            this.traceId = traceId;
+            this.depth = depth;
+            this.message = message;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.exceptionClass = exceptionClass;
+        }
+
+        static Span of(RecordedEvent event) {
+            long startNanos = Duration.between(Instant.EPOCH, event.getStartTime()).toNanos();
+            return new Span(event.getString("traceId"), event.getInt("depth"), event.getString("message"),
+                startNanos, event.getDuration().toNanos(), event.getString("exceptionClass"));
+        }
+    }
+
+    public static class MethodStats {
+
+        private final String message;
+        private final LatencyHistogram histogram = new LatencyHistogram(1);
+        private long count;
+        private long errors;
+        private long totalNanos;
+
+        MethodStats(String message) {
+            this.message = message;
+        }
+
+        void record(Span span) {
+            histogram.record(span.durationNanos);
+            count++;
+            totalNanos += span.durationNanos;
+            if (span.exceptionClass != null) {
+                errors++;
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return histogram.snapshot();
+        }
+    }
+
+    public static class CallNode {
+
+        private final String message;
+        private final Map<String, CallNode> children = new LinkedHashMap<>();
+        private long count;
+        private long errors;
+        private long totalNanos;
+
+        CallNode(String message) {
+            this.message = message;
+        }
+
+        CallNode child(String message) {
+            return children.computeIfAbsent(message, CallNode::new);
+        }
+
+        void record(Span span) {
+            count++;
+            totalNanos += span.durationNanos;
+            if (span.exceptionClass != null) {
+                errors++;
+            }
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Map<String, CallNode> getChildren() {
+            return children;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+    }
+}
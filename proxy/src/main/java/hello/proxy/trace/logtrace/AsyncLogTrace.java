@@ -0,0 +1,131 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 요청 스레드는 원시 타입 이벤트를 링 버퍼에 넣기만 하고,
+ *  문자열 조립(addSpace, e.toString())과 로그 출력은 소비자 스레드 하나가 맡는다.
+ *  로그백 appender 락을 잡는 스레드가 하나뿐이라 요청 스레드끼리 경합하지 않는다.
+ *  스프링 빈으로 등록하면 종료 시 close() 가 호출되어 남은 이벤트를 모두 출력하고 끝난다.
+ * */
+@Slf4j
+public class AsyncLogTrace implements LogTrace, TraceContextHolder, AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final ThreadLocal<TraceFrames> framesHolder;
+    private final TraceIdGenerator generator;
+    private final TraceMessageDictionary messages = new TraceMessageDictionary();
+    private final TraceEventRing ring;
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    public AsyncLogTrace() {
+        this(DEFAULT_CAPACITY, OverflowPolicy.DROP_NEWEST);
+    }
+
+    public AsyncLogTrace(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, TraceId.defaultGenerator());
+    }
+
+    public AsyncLogTrace(int capacity, OverflowPolicy overflowPolicy, TraceIdGenerator generator) {
+        this.generator = generator;
+        this.framesHolder = ThreadLocal.withInitial(() -> new TraceFrames(generator));
+        this.ring = new TraceEventRing(capacity, overflowPolicy);
+        this.consumer = new Thread(this::consume, "async-log-trace");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceFrames frames = framesHolder.get();
+        TraceFrame frame = frames.push(message, System.nanoTime());
+        ring.publish(frames.getTraceId(), frame.getLevel(), messages.idOf(message), frame.getStartNanos(),
+            0L, TraceEventRing.BEGIN, null);
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        TraceFrames frames = frame.getOwner();
+        long now = System.nanoTime();
+        byte outcome = e == null ? TraceEventRing.END : TraceEventRing.EXCEPTION;
+        ring.publish(frames.getTraceId(), frame.getLevel(), messages.idOf(frame.getMessage()), now,
+            now - frame.getStartNanos(), outcome, e);
+        frames.pop(frame);
+    }
+
+    private void consume() {
+        TraceEventRing.TraceEventHandler handler = this::write;
+        while (running || !ring.isEmpty()) {
+            if (!ring.poll(handler)) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(long traceId, int level, int messageId, long timestamp, long elapsedNanos,
+        byte outcome, Exception e) {
+        String id = generator.render(traceId);
+        String message = messages.messageOf(messageId);
+        if (outcome == TraceEventRing.BEGIN) {
+            log.info("[{}] {}{}", id, TraceIndent.of(TraceIndent.START, level), message);
+            return;
+        }
+
+        long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (outcome == TraceEventRing.END) {
+            log.info("[{}] {}{} time={}ms", id, TraceIndent.of(TraceIndent.COMPLETE, level), message, resultTimeMs);
+        } else {
+            log.info("[{}] {}{} time={}ms ex={}", id, TraceIndent.of(TraceIndent.EX, level), message, resultTimeMs,
+                String.valueOf(e)); // 같은 예외가 DROP_OLDEST 로 같은 칸에 다시 들어오면 비워졌을 수 있다
+        }
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return TraceFrames.currentTraceId(framesHolder);
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return TraceFrames.attach(framesHolder, parent);
+    }
+
+    public long getDroppedNewest() {
+        return ring.getDroppedNewest();
+    }
+
+    public long getDroppedOldest() {
+        return ring.getDroppedOldest();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.join(TimeUnit.SECONDS.toMillis(5));
+        ring.close();
+        long dropped = getDroppedNewest() + getDroppedOldest();
+        if (dropped > 0) {
+            log.warn("AsyncLogTrace dropped {} events (newest={}, oldest={})", dropped, getDroppedNewest(),
+                getDroppedOldest());
+        }
+    }
+}
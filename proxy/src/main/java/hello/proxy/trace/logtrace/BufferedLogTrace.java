@@ -0,0 +1,128 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : span 마다 log.info() 를 두 번 부르는 대신, 스레드별 StringBuilder 에 트레이스 전체를 쌓아두었다가
+ *  루트가 끝날 때 한 번만 로그를 남긴다. 3단계 요청이면 어펜더 호출(과 어펜더 잠금)이 6번에서 1번으로 준다.
+ *  들여쓰기는 TraceIndent 캐시를 그대로 쓰고, StringBuilder 는 스레드마다 재사용한다.
+ *  출력 형식은 ThreadLocalLogTrace 와 같고 줄마다 트레이스 아이디가 붙는다. 대신 로그 한 건이 여러 줄이다.
+ *  버퍼가 maxChars 를 넘으면 이후 줄은 버리고 개수만 남긴다.
+ * */
+@Slf4j
+public class BufferedLogTrace implements LogTrace {
+
+    private static final int DEFAULT_MAX_CHARS = 64 * 1024;
+    private static final int RETAINED_CAPACITY = 4 * 1024;
+
+    private final int maxChars;
+    private final ThreadLocal<TraceBuffer> bufferHolder;
+
+    public BufferedLogTrace() {
+        this(DEFAULT_MAX_CHARS, TraceId.defaultGenerator());
+    }
+
+    /**
+     * @param maxChars 트레이스 하나에 쌓을 최대 문자 수. 넘치는 줄은 버리고 개수만 남긴다
+     */
+    public BufferedLogTrace(int maxChars, TraceIdGenerator generator) {
+        if (maxChars < 1) {
+            throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+        }
+        this.maxChars = maxChars;
+        this.bufferHolder = ThreadLocal.withInitial(() -> new TraceBuffer(new TraceFrames(generator)));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceBuffer buffer = bufferHolder.get();
+        TraceFrame frame = buffer.frames.push(message, System.nanoTime());
+        if (log.isInfoEnabled() && buffer.hasRoom(maxChars)) {
+            buffer.line(TraceIndent.START, frame).append(message);
+        }
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        TraceBuffer buffer = bufferHolder.get();
+        if (log.isInfoEnabled() && buffer.hasRoom(maxChars)) {
+            long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - frame.getStartNanos());
+            StringBuilder line = buffer.line(e == null ? TraceIndent.COMPLETE : TraceIndent.EX, frame)
+                .append(frame.getMessage()).append(" time=").append(resultTimeMs).append("ms");
+            if (e != null) {
+                line.append(" ex=").append(e);
+            }
+        }
+
+        if (frame.getLevel() == 0) {
+            flush(buffer);
+        }
+        frame.getOwner().pop(frame);
+    }
+
+    private static void flush(TraceBuffer buffer) {
+        StringBuilder text = buffer.text;
+        if (text.length() > 0) {
+            if (buffer.truncated > 0) {
+                text.append('\n').append('[').append(buffer.frames.getRenderedTraceId()).append("] ... ")
+                    .append(buffer.truncated).append(" lines truncated");
+            }
+            // 비동기 어펜더가 나중에 포맷해도 재사용하는 버퍼를 보지 않도록 String 으로 넘긴다
+            log.info("{}", text.toString());
+        }
+        buffer.clear();
+    }
+
+    private static final class TraceBuffer {
+
+        private final TraceFrames frames;
+        private StringBuilder text = new StringBuilder(256);
+        private int truncated;
+
+        private TraceBuffer(TraceFrames frames) {
+            this.frames = frames;
+        }
+
+        boolean hasRoom(int maxChars) {
+            if (text.length() < maxChars) {
+                return true;
+            }
+            truncated++;
+            return false;
+        }
+
+        // 첫 줄이 아니면 줄을 바꾸고 "[traceId] |   |-->" 까지 쓴다
+        StringBuilder line(int type, TraceFrame frame) {
+            if (text.length() > 0) {
+                text.append('\n');
+            }
+            return text.append('[').append(frames.getRenderedTraceId()).append("] ")
+                .append(TraceIndent.of(type, frame.getLevel()));
+        }
+
+        // 한 번 아주 긴 트레이스를 담은 버퍼는 붙잡아두지 않는다
+        void clear() {
+            if (text.capacity() > RETAINED_CAPACITY) {
+                text = new StringBuilder(256);
+            } else {
+                text.setLength(0);
+            }
+            truncated = 0;
+        }
+    }
+}
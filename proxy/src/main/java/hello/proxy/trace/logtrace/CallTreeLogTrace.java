@@ -0,0 +1,84 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.calltree.CallTree;
+import hello.proxy.trace.calltree.CallTreeNode;
+import java.util.Arrays;
+
+/*
+ * MEMO : 로그를 남기지 않고 CallTree 에 호출 경로별로 합친다.
+ *  begin() 에서 부모 노드 아래 자식 노드를 찾아 레벨별로 들고 있다가
+ *  end() / exception() 에서 total, self(total - 자식 호출 시간), 에러 수를 더한다.
+ *  레벨과 시작 시간은 FrameStackLogTrace 와 같은 TraceFrames 로 관리하므로 트레이스가 끝나도 따로 남기는 객체가 없다.
+ * */
+public class CallTreeLogTrace implements LogTrace {
+
+    private final CallTree callTree;
+    private final ThreadLocal<PathStack> stackHolder;
+
+    public CallTreeLogTrace(CallTree callTree) {
+        this.callTree = callTree;
+        this.stackHolder = ThreadLocal.withInitial(() -> new PathStack(new TraceFrames(TraceId.defaultGenerator())));
+    }
+
+    public CallTree getCallTree() {
+        return callTree;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        PathStack stack = stackHolder.get();
+        CallTreeNode parent = stack.frames.isEmpty() ? callTree.root() : stack.nodes[stack.frames.getDepth()];
+        CallTreeNode node = callTree.child(parent, message);
+        TraceFrame frame = stack.frames.push(message, System.nanoTime());
+        stack.set(frame.getLevel(), node);
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, false);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, true);
+    }
+
+    private void complete(TraceStatus status, boolean error) {
+        TraceFrame frame = (TraceFrame) status;
+        PathStack stack = stackHolder.get();
+        int level = frame.getLevel();
+        long elapsed = System.nanoTime() - frame.getStartNanos();
+
+        stack.nodes[level].record(elapsed, elapsed - stack.childNanos[level], error);
+        stack.nodes[level] = null;
+        if (level > 0) {
+            stack.childNanos[level - 1] += elapsed;
+        }
+        frame.getOwner().pop(frame);
+    }
+
+    // 레벨별 노드와 그 레벨에서 끝난 자식 호출 시간의 합
+    private static final class PathStack {
+
+        private final TraceFrames frames;
+        private CallTreeNode[] nodes = new CallTreeNode[8];
+        private long[] childNanos = new long[8];
+
+        private PathStack(TraceFrames frames) {
+            this.frames = frames;
+        }
+
+        void set(int level, CallTreeNode node) {
+            if (level >= nodes.length) {
+                int capacity = Math.max(nodes.length * 2, level + 1);
+                nodes = Arrays.copyOf(nodes, capacity);
+                childNanos = Arrays.copyOf(childNanos, capacity);
+            }
+            nodes[level] = node;
+            childNanos[level] = 0L;
+        }
+    }
+}
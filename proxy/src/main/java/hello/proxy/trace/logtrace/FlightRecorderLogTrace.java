@@ -0,0 +1,97 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.recorder.TraceFlightRecorder;
+import java.util.Arrays;
+
+/*
+ * MEMO : delegate 는 그대로 두고, 끝난 span 을 TraceFlightRecorder 에도 남기는 데코레이터
+ *  로그를 끄거나 샘플링해도(NoopLogTrace, SamplingLogTrace) 최근 트레이스는 레코더에 모두 남는다.
+ *  레벨, 트레이스 아이디, 시작 시간은 자체 TraceFrames 로 관리하고, delegate 의 TraceStatus 는 레벨별로 들고 있다.
+ *  레코더의 트레이스 아이디는 delegate 가 로그에 남기는 아이디와 다르다.
+ *  트레이스 컨텍스트 전파는 delegate 에만 넘긴다. 다른 스레드에서 실행된 작업은 레코더에 새 트레이스로 남는다.
+ * */
+public class FlightRecorderLogTrace implements LogTrace, TraceContextHolder {
+
+    private final LogTrace delegate;
+    private final TraceContextHolder delegateContext;
+    private final TraceFlightRecorder recorder;
+    private final ThreadLocal<RecorderStack> stackHolder;
+
+    public FlightRecorderLogTrace(LogTrace delegate, TraceFlightRecorder recorder) {
+        this.delegate = delegate;
+        this.delegateContext = TraceContextHolder.of(delegate);
+        this.recorder = recorder;
+        this.stackHolder = ThreadLocal.withInitial(() -> new RecorderStack(new TraceFrames(recorder.getGenerator())));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        RecorderStack stack = stackHolder.get();
+        TraceFrame frame = stack.frames.push(message, System.nanoTime());
+        stack.set(frame.getLevel(), delegate.begin(message));
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        TraceStatus delegateStatus = complete(status, null);
+        delegate.end(delegateStatus);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        TraceStatus delegateStatus = complete(status, e);
+        delegate.exception(delegateStatus, e);
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return delegateContext.currentTraceId();
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return delegateContext.attach(parent);
+    }
+
+    @Override
+    public boolean supportsPropagation() {
+        return delegateContext.supportsPropagation();
+    }
+
+    private TraceStatus complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        TraceFrames owner = frame.getOwner();
+        long startNanos = frame.getStartNanos();
+        recorder.record(owner.getTraceId(), frame.getLevel(), frame.getMessage(), startNanos,
+            System.nanoTime() - startNanos, e);
+        TraceStatus delegateStatus = stackHolder.get().take(frame.getLevel());
+        owner.pop(frame);
+        return delegateStatus;
+    }
+
+    private static final class RecorderStack {
+
+        private final TraceFrames frames;
+        private TraceStatus[] statuses = new TraceStatus[8];
+
+        private RecorderStack(TraceFrames frames) {
+            this.frames = frames;
+        }
+
+        void set(int level, TraceStatus status) {
+            if (level >= statuses.length) {
+                statuses = Arrays.copyOf(statuses, Math.max(statuses.length * 2, level + 1));
+            }
+            statuses[level] = status;
+        }
+
+        TraceStatus take(int level) {
+            TraceStatus status = statuses[level];
+            statuses[level] = null;
+            return status;
+        }
+    }
+}
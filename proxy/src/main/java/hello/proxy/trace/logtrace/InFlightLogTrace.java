@@ -0,0 +1,57 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.inflight.InFlightRegistry;
+
+/*
+ * MEMO : delegate 는 그대로 두고, 열려 있는 span 을 InFlightRegistry 에 알리는 데코레이터
+ *  begin 에서 enter, end / exception 에서 exit 만 부른다. 스레드마다 슬롯이 하나라 TraceStatus 를 감쌀 필요가 없다.
+ *  트레이스 컨텍스트 전파는 delegate 에 그대로 넘긴다.
+ * */
+public class InFlightLogTrace implements LogTrace, TraceContextHolder {
+
+    private final LogTrace delegate;
+    private final TraceContextHolder delegateContext;
+    private final InFlightRegistry registry;
+
+    public InFlightLogTrace(LogTrace delegate, InFlightRegistry registry) {
+        this.delegate = delegate;
+        this.delegateContext = TraceContextHolder.of(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceStatus status = delegate.begin(message);
+        registry.enter(message);
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        registry.exit();
+        delegate.end(status);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        registry.exit();
+        delegate.exception(status, e);
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return delegateContext.currentTraceId();
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return delegateContext.attach(parent);
+    }
+
+    @Override
+    public boolean supportsPropagation() {
+        return delegateContext.supportsPropagation();
+    }
+}
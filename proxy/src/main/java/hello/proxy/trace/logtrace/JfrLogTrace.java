@@ -0,0 +1,90 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.jfr.TraceSpanEvent;
+import java.util.Arrays;
+import jdk.jfr.EventType;
+
+/*
+ * MEMO : 로그 한 줄을 만드는 대신 span 마다 TraceSpanEvent 를 커밋한다.
+ *  레벨, 트레이스 아이디는 FrameStackLogTrace 와 같은 TraceFrames 로 관리한다.
+ *  이벤트가 꺼져 있거나 녹화 중이 아니면 이벤트 객체를 만들지 않으므로 FrameStackLogTrace 에서 로그 출력만 뺀 비용이다.
+ *  임계값(threshold)보다 짧은 span 은 shouldCommit() 에서 걸러지므로 필드를 채우지도 않는다.
+ * */
+public class JfrLogTrace implements LogTrace {
+
+    private static final EventType SPAN_TYPE = EventType.getEventType(TraceSpanEvent.class);
+
+    private final ThreadLocal<SpanStack> stackHolder;
+
+    public JfrLogTrace() {
+        this(TraceId.defaultGenerator());
+    }
+
+    public JfrLogTrace(TraceIdGenerator generator) {
+        this.stackHolder = ThreadLocal.withInitial(() -> new SpanStack(new TraceFrames(generator)));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SpanStack stack = stackHolder.get();
+        TraceFrame frame = stack.frames.push(message, System.nanoTime());
+        TraceSpanEvent event = null;
+        if (SPAN_TYPE.isEnabled()) {
+            event = new TraceSpanEvent();
+            event.begin();
+        }
+        stack.set(frame.getLevel(), event);
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        TraceSpanEvent event = stackHolder.get().take(frame.getLevel());
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setSpan(frame.getOwner().getRenderedTraceId(), frame.getLevel(), frame.getMessage(),
+                    e == null ? null : e.getClass().getName());
+                event.commit();
+            }
+        }
+        frame.getOwner().pop(frame);
+    }
+
+    // 레벨별로 진행 중인 이벤트. 녹화가 꺼져 있던 레벨은 null
+    private static final class SpanStack {
+
+        private final TraceFrames frames;
+        private TraceSpanEvent[] events = new TraceSpanEvent[8];
+
+        private SpanStack(TraceFrames frames) {
+            this.frames = frames;
+        }
+
+        void set(int level, TraceSpanEvent event) {
+            if (level >= events.length) {
+                events = Arrays.copyOf(events, Math.max(events.length * 2, level + 1));
+            }
+            events[level] = event;
+        }
+
+        TraceSpanEvent take(int level) {
+            TraceSpanEvent event = events[level];
+            events[level] = null;
+            return event;
+        }
+    }
+}
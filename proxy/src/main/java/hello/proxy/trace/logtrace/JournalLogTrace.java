@@ -0,0 +1,67 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.journal.TraceJournal;
+import java.io.Closeable;
+
+/*
+ * MEMO : 로그 대신 span 이 끝날 때마다 TraceJournal 에 32 바이트 엔트리 하나를 남긴다.
+ *  레벨, 트레이스 아이디는 FrameStackLogTrace 와 같은 TraceFrames 로 관리한다.
+ *  조회는 trace-journal 모듈의 CLI 로 한다. (./gradlew :trace-journal:query)
+ *  close() 가 있으므로 빈으로 등록하면 컨텍스트가 내려갈 때 저널을 디스크에 내려쓴다.
+ * */
+public class JournalLogTrace implements LogTrace, TraceContextHolder, Closeable {
+
+    private final TraceJournal journal;
+    private final ThreadLocal<TraceFrames> framesHolder;
+
+    public JournalLogTrace(TraceJournal journal) {
+        this(journal, TraceId.defaultGenerator());
+    }
+
+    public JournalLogTrace(TraceJournal journal, TraceIdGenerator generator) {
+        this.journal = journal;
+        this.framesHolder = ThreadLocal.withInitial(() -> new TraceFrames(generator));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        return framesHolder.get().push(message, System.nanoTime());
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, false);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, true);
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return TraceFrames.currentTraceId(framesHolder);
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return TraceFrames.attach(framesHolder, parent);
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    private void complete(TraceStatus status, boolean error) {
+        TraceFrame frame = (TraceFrame) status;
+        long startNanos = frame.getStartNanos();
+        TraceFrames owner = frame.getOwner();
+        journal.append(owner.getTraceId(), frame.getLevel(), frame.getMessage(), startNanos,
+            System.nanoTime() - startNanos, error);
+        owner.pop(frame);
+    }
+}
@@ -0,0 +1,28 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+
+// 전파를 지원하지 않는 LogTrace 자리에 쓴다. 꺼낼 컨텍스트가 없으므로 attach() 도 불리지 않는다
+final class NoTraceContextHolder implements TraceContextHolder {
+
+    static final NoTraceContextHolder INSTANCE = new NoTraceContextHolder();
+
+    private NoTraceContextHolder() {
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        return null;
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        return () -> {
+        };
+    }
+
+    @Override
+    public boolean supportsPropagation() {
+        return false;
+    }
+}
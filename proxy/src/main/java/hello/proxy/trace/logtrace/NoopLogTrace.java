@@ -0,0 +1,25 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+
+/*
+ * MEMO : 아무것도 기록하지 않는 LogTrace
+ *  프록시 방식별 비용을 잴 때 트레이스 비용을 빼고 프록시 호출 자체의 비용만 보기 위해 쓴다.
+ * */
+public class NoopLogTrace implements LogTrace {
+
+    private static final TraceStatus NOOP_STATUS = new TraceStatus(null, 0L, "noop");
+
+    @Override
+    public TraceStatus begin(String message) {
+        return NOOP_STATUS;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+    }
+}
@@ -0,0 +1,76 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/*
+ * MEMO : ThreadLocal 대신 Reactor Context 에 현재 span(TraceStatus)을 싣고 다니는 LogTrace
+ *  Mono / Flux 는 구독한 스레드와 신호를 받는 스레드가 다를 수 있어서 ThreadLocal 로는 부모를 찾을 수 없다.
+ *  - begin(context, message) : context 에 부모 span 이 있으면 그 자식 레벨로, 없으면 새 트레이스로 시작한다.
+ *  - with(context, status) : 안쪽 publisher 에 넘길 context. contextWrite() 로 위쪽(upstream)에 건다.
+ *  Context 는 구독할 때 아래(subscriber)에서 위(source)로 전달되므로 바깥 메서드의 span 이 안쪽의 부모가 된다.
+ *  출력 형식은 ThreadLocalLogTrace 와 같다. ReactiveLogTraceAdvice 가 Mono / Flux 를 돌려주는 메서드에 건다.
+ * */
+@Slf4j
+public class ReactorLogTrace {
+
+    private static final Object STATUS_KEY = TraceStatus.class;
+
+    private final TraceIdGenerator generator;
+
+    public ReactorLogTrace() {
+        this(TraceId.defaultGenerator());
+    }
+
+    public ReactorLogTrace(TraceIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    public TraceStatus begin(ContextView context, String message) {
+        TraceStatus parent = current(context);
+        TraceId traceId = parent == null ? new TraceId(generator) : parent.getTraceId().createNextId();
+        log.info("[{}] {}{}", traceId.getId(), TraceIndent.of(TraceIndent.START, traceId.getLevel()), message);
+        return new TraceStatus(traceId, System.currentTimeMillis(), message);
+    }
+
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    public void exception(TraceStatus status, Throwable e) {
+        complete(status, e);
+    }
+
+    // 결과가 나오기 전에 구독이 취소되었다. 실패가 아니므로 <X- 대신 <-- 로 남긴다
+    public void cancel(TraceStatus status) {
+        long resultTimeMs = System.currentTimeMillis() - status.getStartTimeMs();
+        TraceId traceId = status.getTraceId();
+        log.info("[{}] {}{} time={}ms cancelled", traceId.getId(),
+            TraceIndent.of(TraceIndent.COMPLETE, traceId.getLevel()), status.getMessage(), resultTimeMs);
+    }
+
+    // 진행 중인 span 이 없으면 null
+    public TraceStatus current(ContextView context) {
+        return context.getOrDefault(STATUS_KEY, null);
+    }
+
+    public Context with(Context context, TraceStatus status) {
+        return context.put(STATUS_KEY, status);
+    }
+
+    private void complete(TraceStatus status, Throwable e) {
+        long resultTimeMs = System.currentTimeMillis() - status.getStartTimeMs();
+        TraceId traceId = status.getTraceId();
+        if (e == null) {
+            log.info("[{}] {}{} time={}ms", traceId.getId(), TraceIndent.of(TraceIndent.COMPLETE, traceId.getLevel()),
+                status.getMessage(), resultTimeMs);
+        } else {
+            log.info("[{}] {}{} time={}ms ex={}", traceId.getId(), TraceIndent.of(TraceIndent.EX, traceId.getLevel()),
+                status.getMessage(), resultTimeMs, e.toString());
+        }
+    }
+}
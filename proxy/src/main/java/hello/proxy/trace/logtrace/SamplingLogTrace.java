@@ -0,0 +1,137 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * MEMO : 루트 트레이스(TraceId.isFirstLevel())가 시작될 때 한 번만 샘플링 여부를 정하고,
+ *  그 결정을 호출 트리 전체에 적용하는 데코레이터.
+ *  샘플링되지 않은 트리에서는 delegate 를 호출하지 않고 공유 NOT_SAMPLED 상태만 돌려주므로
+ *  TraceId, 타임스탬프, 로그 출력이 모두 생략된다. 스레드별로 깊이만 센다.
+ *  트레이스 컨텍스트를 다른 스레드로 넘길 때 샘플링 결정도 같이 넘긴다.
+ *  샘플링되지 않은 트리는 공유 NOT_SAMPLED_ID 를 넘기고, 받은 스레드는 새로 결정하지 않고 그대로 생략한다.
+ * */
+public class SamplingLogTrace implements LogTrace, TraceContextHolder {
+
+    private static final TraceStatus NOT_SAMPLED = new TraceStatus(null, 0L, "not-sampled");
+    private static final TraceId NOT_SAMPLED_ID = new TraceId(0L, 0, TraceId.defaultGenerator());
+
+    private final LogTrace delegate;
+    private final TraceContextHolder delegateContext;
+    private final double rate;
+    private final Map<String, Double> rootRates;
+    private final ThreadLocal<SamplingState> stateHolder = ThreadLocal.withInitial(SamplingState::new);
+
+    public SamplingLogTrace(LogTrace delegate, double rate) {
+        this(delegate, rate, Collections.emptyMap());
+    }
+
+    /**
+     * @param rate      루트 트레이스를 기록할 비율 (0.0 ~ 1.0)
+     * @param rootRates 루트 메시지별 비율. ex) "OrderControllerV1.request()" -> 0.01
+     */
+    public SamplingLogTrace(LogTrace delegate, double rate, Map<String, Double> rootRates) {
+        checkRate(rate);
+        rootRates.values().forEach(SamplingLogTrace::checkRate);
+        this.delegate = delegate;
+        this.delegateContext = TraceContextHolder.of(delegate);
+        this.rate = rate;
+        this.rootRates = Collections.unmodifiableMap(new HashMap<>(rootRates));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SamplingState state = stateHolder.get();
+        if (state.depth == 0) {
+            state.sampled = shouldSample(message);
+        }
+        if (!state.sampled) {
+            state.depth++;
+            return NOT_SAMPLED;
+        }
+
+        TraceStatus status = delegate.begin(message);
+        state.depth++;
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        if (complete(status)) {
+            delegate.end(status);
+        }
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        if (complete(status)) {
+            delegate.exception(status, e);
+        }
+    }
+
+    @Override
+    public TraceId currentTraceId() {
+        SamplingState state = stateHolder.get();
+        if (state.depth == 0) {
+            return null;
+        }
+        return state.sampled ? delegateContext.currentTraceId() : NOT_SAMPLED_ID;
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        SamplingState state = stateHolder.get();
+        int previousDepth = state.depth;
+        boolean previousSampled = state.sampled;
+        boolean sampled = parent != NOT_SAMPLED_ID;
+        TraceScope delegateScope = sampled ? delegateContext.attach(parent) : null;
+        // 깊이가 0 이 아니므로 다음 begin() 은 루트로 보지 않고 부모의 결정을 따른다
+        state.depth = previousDepth + 1;
+        state.sampled = sampled;
+        return () -> {
+            if (delegateScope != null) {
+                delegateScope.close();
+            }
+            state.depth = previousDepth;
+            state.sampled = previousSampled;
+        };
+    }
+
+    @Override
+    public boolean supportsPropagation() {
+        return delegateContext.supportsPropagation();
+    }
+
+    // begin() 자체가 실패해서 status 가 null 인 경우는 깊이를 건드리지 않고 delegate 에 맡긴다
+    private boolean complete(TraceStatus status) {
+        if (status != null) {
+            stateHolder.get().depth--;
+        }
+        return status != NOT_SAMPLED;
+    }
+
+    private boolean shouldSample(String rootMessage) {
+        Double rootRate = rootRates.get(rootMessage);
+        double effectiveRate = rootRate != null ? rootRate : rate;
+        if (effectiveRate >= 1.0) {
+            return true;
+        }
+        return effectiveRate > 0.0 && ThreadLocalRandom.current().nextDouble() < effectiveRate;
+    }
+
+    private static void checkRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("sampling rate must be between 0.0 and 1.0: " + rate);
+        }
+    }
+
+    private static final class SamplingState {
+
+        private int depth;
+        private boolean sampled;
+    }
+}
@@ -0,0 +1,117 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 테일 샘플링
+ *  begin / end 기록을 바로 로그로 남기지 않고 스레드별 버퍼에 모아두었다가,
+ *  루트가 끝났을 때 전체 시간이 임계값 이상이거나 exception() 으로 끝난 구간이 하나라도 있으면
+ *  트리 전체를 출력한다. 그렇지 않으면 문자열 포맷팅 없이 버퍼를 비우고 끝난다.
+ * */
+@Slf4j
+public class TailSamplingLogTrace implements LogTrace {
+
+    private static final int DEFAULT_MAX_RECORDS = 1024;
+
+    private final long slowThresholdNanos;
+    private final ThreadLocal<TailTrace> traceHolder;
+
+    public TailSamplingLogTrace(long slowThresholdMs) {
+        this(slowThresholdMs, DEFAULT_MAX_RECORDS, TraceId.defaultGenerator());
+    }
+
+    /**
+     * @param slowThresholdMs 이 시간 이상 걸린 트레이스는 예외가 없어도 출력한다
+     * @param maxRecords      트레이스 하나에 버퍼링할 최대 기록 수. 넘치는 기록은 버리고 개수만 남긴다
+     */
+    public TailSamplingLogTrace(long slowThresholdMs, int maxRecords, TraceIdGenerator generator) {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("maxRecords must be positive: " + maxRecords);
+        }
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.traceHolder = ThreadLocal.withInitial(() -> new TailTrace(generator, maxRecords));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TailTrace trace = traceHolder.get();
+        TraceFrame frame = trace.frames.push(message, System.nanoTime());
+        trace.records.add(TraceIndent.START, frame.getLevel(), message, 0L, null);
+        return frame;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        TraceFrame frame = (TraceFrame) status;
+        TailTrace trace = traceHolder.get();
+        long elapsed = System.nanoTime() - frame.getStartNanos();
+        int level = frame.getLevel();
+
+        if (e != null) {
+            trace.failed = true;
+        }
+        trace.records.add(e == null ? TraceIndent.COMPLETE : TraceIndent.EX, level, frame.getMessage(), elapsed, e);
+
+        if (level == 0) {
+            if (trace.failed || elapsed >= slowThresholdNanos) {
+                flush(trace);
+            }
+            trace.reset();
+        }
+        trace.frames.pop(frame);
+    }
+
+    private void flush(TailTrace trace) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        TraceRecordBuffer records = trace.records;
+        String traceId = trace.frames.getRenderedTraceId();
+        for (int i = 0; i < records.size(); i++) {
+            int type = records.typeAt(i);
+            String indent = TraceIndent.of(type, records.levelAt(i));
+            long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(records.elapsedNanosAt(i));
+            if (type == TraceIndent.START) {
+                log.info("[{}] {}{}", traceId, indent, records.messageAt(i));
+            } else if (type == TraceIndent.COMPLETE) {
+                log.info("[{}] {}{} time={}ms", traceId, indent, records.messageAt(i), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId, indent, records.messageAt(i), resultTimeMs,
+                    records.exceptionAt(i).toString());
+            }
+        }
+        if (records.getTruncated() > 0) {
+            log.info("[{}] ... {} records truncated", traceId, records.getTruncated());
+        }
+    }
+
+    private static final class TailTrace {
+
+        private final TraceFrames frames;
+        private final TraceRecordBuffer records;
+        private boolean failed;
+
+        private TailTrace(TraceIdGenerator generator, int maxRecords) {
+            this.frames = new TraceFrames(generator);
+            this.records = new TraceRecordBuffer(maxRecords);
+        }
+
+        private void reset() {
+            records.clear();
+            failed = false;
+        }
+    }
+}
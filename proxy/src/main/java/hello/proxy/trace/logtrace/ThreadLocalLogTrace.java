@@ -2,16 +2,26 @@ package hello.proxy.trace.logtrace;
 
 import hello.proxy.trace.TraceId;
 import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.TraceIdGenerator;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-public class ThreadLocalLogTrace implements LogTrace {
+public class ThreadLocalLogTrace implements LogTrace, TraceContextHolder {
 
     private static final String START_PREFIX = "-->";
     private static final String COMPLETE_PREFIX = "<--";
     private static final String EX_PREFIX = "<X-";
 
     private ThreadLocal<TraceId> traceIdHolder = new ThreadLocal<>();
+    private final TraceIdGenerator generator;
+
+    public ThreadLocalLogTrace() {
+        this(TraceId.defaultGenerator());
+    }
+
+    public ThreadLocalLogTrace(TraceIdGenerator generator) {
+        this.generator = generator;
+    }
 
     @Override
     public TraceStatus begin(String message) {
@@ -33,6 +43,24 @@ public class ThreadLocalLogTrace implements LogTrace {
         complete(status, e);
     }
 
+    @Override
+    public TraceId currentTraceId() {
+        return traceIdHolder.get();
+    }
+
+    @Override
+    public TraceScope attach(TraceId parent) {
+        TraceId previous = traceIdHolder.get();
+        traceIdHolder.set(parent);
+        return () -> {
+            if (previous == null) {
+                traceIdHolder.remove();
+            } else {
+                traceIdHolder.set(previous);
+            }
+        };
+    }
+
     private void complete(TraceStatus status, Exception e) {
         Long stopTimeMs = System.currentTimeMillis();
         long resultTimeMs = stopTimeMs - status.getStartTimeMs();
@@ -49,7 +77,7 @@ public class ThreadLocalLogTrace implements LogTrace {
     private void syncTraceId() {
         TraceId traceId = traceIdHolder.get();
         if (traceId == null) {
-            traceIdHolder.set(new TraceId());
+            traceIdHolder.set(new TraceId(generator));
         } else {
             traceIdHolder.set(traceId.createNextId());
         }
@@ -0,0 +1,36 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+
+/*
+ * MEMO : 스레드에 묶여 있는 트레이스 컨텍스트를 꺼내고(capture) 다른 스레드에 붙이는(attach) 기능
+ *  작업을 제출하는 스레드에서 currentTraceId() 로 꺼내고,
+ *  작업을 실행하는 스레드에서 attach() 하면 그 안의 begin() 은 부모의 자식 레벨로 이어진다.
+ * */
+public interface TraceContextHolder {
+
+    /**
+     * @return 현재 스레드에서 진행 중인 트레이스의 TraceId. 진행 중인 트레이스가 없으면 null
+     */
+    TraceId currentTraceId();
+
+    /**
+     * parent 를 현재 스레드의 부모 컨텍스트로 붙인다.
+     * 반환된 TraceScope 를 닫으면 붙이기 전의 상태로 되돌린다. 붙인 스레드에서 닫아야 한다.
+     */
+    TraceScope attach(TraceId parent);
+
+    /**
+     * @return 실제로 컨텍스트를 넘길 수 있으면 true. 전파를 지원하지 않는 LogTrace 를 감싼 데코레이터는 false
+     */
+    default boolean supportsPropagation() {
+        return true;
+    }
+
+    /**
+     * 데코레이터가 감싼 LogTrace 에 전파를 넘길 때 쓴다. 전파를 지원하지 않으면 아무것도 넘기지 않는 홀더를 돌려준다.
+     */
+    static TraceContextHolder of(LogTrace logTrace) {
+        return logTrace instanceof TraceContextHolder ? (TraceContextHolder) logTrace : NoTraceContextHolder.INSTANCE;
+    }
+}
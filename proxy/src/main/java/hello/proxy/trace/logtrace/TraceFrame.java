@@ -0,0 +1,56 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MEMO : 스레드마다 레벨별로 하나씩 만들어두고 재사용하는 TraceStatus
+ *  end() / exception() 이후에는 같은 레벨의 다음 begin() 에서 다시 쓰이므로 붙잡아두면 안 된다.
+ * */
+public final class TraceFrame extends TraceStatus {
+
+    private final TraceFrames owner;
+    private final int level;
+    private String message;
+    private long startNanos;
+
+    TraceFrame(TraceFrames owner, int level) {
+        super(null, null, null);
+        this.owner = owner;
+        this.level = level;
+    }
+
+    void reset(String message, long startNanos) {
+        this.message = message;
+        this.startNanos = startNanos;
+    }
+
+    TraceFrames getOwner() {
+        return owner;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public Long getStartTimeMs() {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return System.currentTimeMillis() - elapsedMs;
+    }
+
+    @Override
+    public TraceId getTraceId() {
+        return new TraceId(owner.getTraceId(), level, owner.getGenerator());
+    }
+}
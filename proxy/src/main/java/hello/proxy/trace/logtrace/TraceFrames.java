@@ -0,0 +1,117 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.id.TraceIdGenerator;
+import java.util.Arrays;
+
+/*
+ * MEMO : 한 스레드의 호출 스택 상태
+ *  TraceId 를 레벨마다 새로 만드는 대신, 레벨(depth)을 int 로 들고
+ *  레벨별 TraceFrame 을 배열에 두고 재사용한다.
+ *  스레드 하나에서만 쓰이므로 동기화하지 않는다.
+ * */
+final class TraceFrames {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final TraceIdGenerator generator;
+    private TraceFrame[] frames = new TraceFrame[INITIAL_CAPACITY];
+    private long traceId;
+    private String renderedTraceId; // 로그를 찍을 때 처음 한 번만 만든다
+    private int depth = -1;
+
+    TraceFrames(TraceIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    TraceFrame push(String message, long startNanos) {
+        if (depth < 0) {
+            traceId = generator.nextId();
+            renderedTraceId = null;
+        }
+        depth++;
+        TraceFrame frame = frameAt(depth);
+        frame.reset(message, startNanos);
+        return frame;
+    }
+
+    void pop(TraceFrame frame) {
+        depth = frame.getLevel() - 1;
+        frame.reset(null, 0L);
+        if (depth < 0) {
+            renderedTraceId = null;
+        }
+    }
+
+    // 다른 스레드에서 넘어온 부모 트레이스의 위치로 옮긴다. 다음 push() 는 level + 1 이 된다
+    void attach(long parentTraceId, int parentLevel) {
+        traceId = parentTraceId;
+        renderedTraceId = null;
+        depth = parentLevel;
+    }
+
+    void detach() {
+        depth = -1;
+        renderedTraceId = null;
+    }
+
+    // 스레드별 TraceFrames 를 쓰는 TraceContextHolder 구현이 같이 쓴다. 진행 중인 트레이스가 없으면 null
+    static TraceId currentTraceId(ThreadLocal<TraceFrames> framesHolder) {
+        TraceFrames frames = framesHolder.get();
+        if (frames.isEmpty()) {
+            return null;
+        }
+        return new TraceId(frames.getTraceId(), frames.getDepth(), frames.getGenerator());
+    }
+
+    /*
+     * MEMO : 스레드의 TraceFrames 가 비어 있으면 그대로 부모 위치만 옮겨서 쓰고,
+     *  이미 다른 트레이스가 진행 중이면(호출한 스레드에서 바로 실행되는 경우 등)
+     *  진행 중인 프레임을 덮어쓰지 않도록 새 TraceFrames 를 잠시 끼워 넣는다.
+     * */
+    static TraceScope attach(ThreadLocal<TraceFrames> framesHolder, TraceId parent) {
+        TraceFrames previous = framesHolder.get();
+        TraceFrames attached = previous.isEmpty() ? previous : new TraceFrames(previous.getGenerator());
+        attached.attach(parent.getIdValue(), parent.getLevel());
+        framesHolder.set(attached);
+        return () -> {
+            attached.detach();
+            framesHolder.set(previous);
+        };
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    boolean isEmpty() {
+        return depth < 0;
+    }
+
+    long getTraceId() {
+        return traceId;
+    }
+
+    String getRenderedTraceId() {
+        if (renderedTraceId == null) {
+            renderedTraceId = generator.render(traceId);
+        }
+        return renderedTraceId;
+    }
+
+    TraceIdGenerator getGenerator() {
+        return generator;
+    }
+
+    private TraceFrame frameAt(int level) {
+        if (level >= frames.length) {
+            frames = Arrays.copyOf(frames, Math.max(frames.length * 2, level + 1));
+        }
+        TraceFrame frame = frames[level];
+        if (frame == null) {
+            frame = new TraceFrame(this, level);
+            frames[level] = frame;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,42 @@
+package hello.proxy.trace.logtrace;
+
+/*
+ * MEMO : addSpace() 결과를 레벨, 접두사별로 미리 만들어두는 캐시
+ *  매 호출마다 StringBuilder 로 "|   |-->" 를 다시 만들지 않는다.
+ * */
+final class TraceIndent {
+
+    static final int START = 0;
+    static final int COMPLETE = 1;
+    static final int EX = 2;
+
+    private static final String[] PREFIXES = {"-->", "<--", "<X-"};
+    private static final int CACHED_LEVELS = 32;
+    private static final String[][] CACHE = new String[PREFIXES.length][CACHED_LEVELS];
+
+    static {
+        for (int type = 0; type < PREFIXES.length; type++) {
+            for (int level = 0; level < CACHED_LEVELS; level++) {
+                CACHE[type][level] = build(PREFIXES[type], level);
+            }
+        }
+    }
+
+    private TraceIndent() {
+    }
+
+    static String of(int type, int level) {
+        if (level < CACHED_LEVELS) {
+            return CACHE[type][level];
+        }
+        return build(PREFIXES[type], level);
+    }
+
+    private static String build(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,46 @@
+package hello.proxy.trace.logtrace;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * MEMO : 트레이스 메시지를 int 아이디로 바꿔주는 사전
+ *  메시지 종류는 프록시 대상 메서드 수만큼이라 금방 채워지고, 그 뒤로는 조회만 일어난다.
+ * */
+public class TraceMessageDictionary {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] messages = new String[64];
+
+    public int idOf(String message) {
+        Integer id = ids.get(message);
+        if (id != null) {
+            return id;
+        }
+        return register(message);
+    }
+
+    public String messageOf(int id) {
+        return messages[id];
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    private synchronized int register(String message) {
+        Integer id = ids.get(message);
+        if (id != null) {
+            return id;
+        }
+        int newId = ids.size();
+        String[] current = messages;
+        if (newId == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[newId] = message;
+        messages = current;
+        ids.put(message, newId);
+        return newId;
+    }
+}
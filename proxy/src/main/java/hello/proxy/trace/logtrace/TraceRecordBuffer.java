@@ -0,0 +1,94 @@
+package hello.proxy.trace.logtrace;
+
+import java.util.Arrays;
+
+/*
+ * MEMO : 트레이스 하나의 begin / end / exception 기록을 담아두는 스레드별 버퍼
+ *  레코드 객체를 만들지 않고 컬럼별 배열에 쓰며, 트레이스가 끝나면 clear() 해서 다시 쓴다.
+ *  maxRecords 를 넘는 기록은 버리고 개수만 센다. 루트의 종료 기록을 위해 한 칸을 남겨둔다.
+ * */
+final class TraceRecordBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxRecords;
+    private byte[] types;
+    private int[] levels;
+    private String[] messages;
+    private long[] elapsedNanos;
+    private Exception[] exceptions;
+    private int size;
+    private int truncated;
+
+    TraceRecordBuffer(int maxRecords) {
+        this.maxRecords = maxRecords;
+        int capacity = Math.min(INITIAL_CAPACITY, maxRecords + 1);
+        this.types = new byte[capacity];
+        this.levels = new int[capacity];
+        this.messages = new String[capacity];
+        this.elapsedNanos = new long[capacity];
+        this.exceptions = new Exception[capacity];
+    }
+
+    void add(int type, int level, String message, long elapsed, Exception e) {
+        boolean rootCompletion = level == 0 && type != TraceIndent.START;
+        if (size >= maxRecords && !rootCompletion) {
+            truncated++;
+            return;
+        }
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = (byte) type;
+        levels[size] = level;
+        messages[size] = message;
+        elapsedNanos[size] = elapsed;
+        exceptions[size] = e;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getTruncated() {
+        return truncated;
+    }
+
+    int typeAt(int index) {
+        return types[index];
+    }
+
+    int levelAt(int index) {
+        return levels[index];
+    }
+
+    String messageAt(int index) {
+        return messages[index];
+    }
+
+    long elapsedNanosAt(int index) {
+        return elapsedNanos[index];
+    }
+
+    Exception exceptionAt(int index) {
+        return exceptions[index];
+    }
+
+    // 다음 트레이스까지 메시지, 예외를 붙잡아두지 않도록 참조도 지운다
+    void clear() {
+        Arrays.fill(messages, 0, size, null);
+        Arrays.fill(exceptions, 0, size, null);
+        size = 0;
+        truncated = 0;
+    }
+
+    private void grow() {
+        int capacity = Math.min(types.length * 2, maxRecords + 1);
+        types = Arrays.copyOf(types, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        messages = Arrays.copyOf(messages, capacity);
+        elapsedNanos = Arrays.copyOf(elapsedNanos, capacity);
+        exceptions = Arrays.copyOf(exceptions, capacity);
+    }
+}
@@ -0,0 +1,7 @@
+package hello.proxy.trace.logtrace;
+
+public interface TraceScope extends AutoCloseable {
+
+    @Override
+    void close();
+}
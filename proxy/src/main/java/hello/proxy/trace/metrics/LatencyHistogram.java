@@ -0,0 +1,123 @@
+package hello.proxy.trace.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * MEMO : HDR 히스토그램 방식의 로그-선형 버킷 (나노초)
+ *  - 2의 거듭제곱 구간마다 32개 하위 버킷 -> 값의 약 3% 이내 정밀도
+ *  - 스레드 아이디로 고른 스트라이프(AtomicLongArray)에 getAndIncrement 한 번으로 기록한다.
+ *    CAS 재시도 루프가 없어서 기록이 wait-free 이고, 스트라이프 덕분에 같은 캐시라인 경합도 적다.
+ *  - 조회(snapshot)는 모든 스트라이프를 합쳐서 계산한다. 드물게 호출되므로 느려도 괜찮다.
+ * */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;          // 32
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;             // 64 미만은 1ns 단위
+    private static final int MAX_VALUE_BITS = 40;                              // 약 1100초까지 구분
+    private static final long MAX_TRACKABLE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = index(MAX_TRACKABLE) + 1;
+
+    // 스트라이프마다 [버킷들..., 합계]
+    private final AtomicLongArray[] stripes;
+    private final int stripeMask;
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int concurrency) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1;
+        this.stripes = new AtomicLongArray[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT + 1);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0L), MAX_TRACKABLE);
+        AtomicLongArray stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+        stripe.getAndIncrement(index(value));
+        stripe.getAndAdd(BUCKET_COUNT, value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        long sum = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+            sum += stripe.get(BUCKET_COUNT);
+        }
+        return new Snapshot(counts, total, sum);
+    }
+
+    static int index(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int top = (int) (value >>> shift);
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKET_COUNT + (top - SUB_BUCKET_COUNT);
+    }
+
+    // 버킷에 들어갈 수 있는 가장 큰 값
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKET_COUNT + 1;
+        long top = (index - LINEAR_LIMIT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+        private final long sum;
+
+        private Snapshot(long[] counts, long totalCount, long sum) {
+            this.counts = counts;
+            this.totalCount = totalCount;
+            this.sum = sum;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public long getMean() {
+            return totalCount == 0 ? 0 : sum / totalCount;
+        }
+
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return getMax();
+        }
+
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestEquivalentValue(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
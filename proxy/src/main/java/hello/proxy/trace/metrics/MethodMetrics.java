@@ -0,0 +1,63 @@
+package hello.proxy.trace.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class MethodMetrics {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    // 끝나기 전에 구독이 취소된 호출. calls / latency 에는 넣지 않는다
+    private final LongAdder cancels = new LongAdder();
+    // SpanResources 가 켜진 호출만 센다
+    private final LongAdder resourceCalls = new LongAdder();
+    private final LongAdder resourceElapsedNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public void record(long elapsedNanos, boolean error) {
+        latency.record(elapsedNanos);
+        calls.increment();
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public void recordCancel() {
+        cancels.increment();
+    }
+
+    public void recordResources(long elapsedNanos, long cpuNanos, long allocatedBytes) {
+        resourceCalls.increment();
+        resourceElapsedNanos.add(elapsedNanos);
+        this.cpuNanos.add(cpuNanos);
+        this.allocatedBytes.add(allocatedBytes);
+    }
+
+    public MethodMetricsSnapshot snapshot() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        long sampled = resourceCalls.sum();
+        long meanCpuNanos = sampled == 0 ? 0L : cpuNanos.sum() / sampled;
+        long meanResourceElapsedNanos = sampled == 0 ? 0L : resourceElapsedNanos.sum() / sampled;
+        return new MethodMetricsSnapshot(name, calls.sum(), errors.sum(), cancels.sum(),
+            snapshot.getMean(),
+            snapshot.getValueAtPercentile(50.0),
+            snapshot.getValueAtPercentile(90.0),
+            snapshot.getValueAtPercentile(99.0),
+            snapshot.getValueAtPercentile(99.9),
+            snapshot.getMax(),
+            sampled,
+            meanCpuNanos,
+            Math.max(0L, meanResourceElapsedNanos - meanCpuNanos),
+            sampled == 0 ? 0L : allocatedBytes.sum() / sampled);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
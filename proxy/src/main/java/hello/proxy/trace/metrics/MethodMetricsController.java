@@ -0,0 +1,27 @@
+package hello.proxy.trace.metrics;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// MEMO : `http://localhost:8080/trace/metrics`
+@RestController
+public class MethodMetricsController {
+
+    private final MethodMetricsRegistry registry;
+
+    public MethodMetricsController(MethodMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping("/trace/metrics")
+    public List<MethodMetricsSnapshot> metrics() {
+        return registry.snapshots();
+    }
+
+    @DeleteMapping("/trace/metrics")
+    public void reset() {
+        registry.clear();
+    }
+}
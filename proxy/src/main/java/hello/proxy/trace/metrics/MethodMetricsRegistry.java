@@ -0,0 +1,82 @@
+package hello.proxy.trace.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * MEMO : 트레이스 메시지(메서드)별 지연 시간 히스토그램과 호출/에러 수
+ *  어드바이스는 record() 만 호출한다. 처음 보는 메서드일 때만 computeIfAbsent 를 탄다.
+ * */
+public class MethodMetricsRegistry {
+
+    private static final MethodMetricsRegistry DISABLED = new MethodMetricsRegistry(false);
+
+    private final ConcurrentHashMap<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public MethodMetricsRegistry() {
+        this(true);
+    }
+
+    private MethodMetricsRegistry(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // 메트릭을 모으지 않는 어드바이스용
+    public static MethodMetricsRegistry disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String method, long elapsedNanos, boolean error) {
+        if (!enabled) {
+            return;
+        }
+        metricsOf(method).record(elapsedNanos, error);
+    }
+
+    // 리액티브 어드바이스용. 결과가 나오기 전에 구독이 취소된 호출
+    public void recordCancel(String method) {
+        if (!enabled) {
+            return;
+        }
+        metricsOf(method).recordCancel();
+    }
+
+    // SpanResources 가 켜진 어드바이스용. CPU 시간과 할당 바이트도 함께 더한다
+    public void record(String method, long elapsedNanos, boolean error, long cpuNanos, long allocatedBytes) {
+        if (!enabled) {
+            return;
+        }
+        MethodMetrics methodMetrics = metricsOf(method);
+        methodMetrics.record(elapsedNanos, error);
+        methodMetrics.recordResources(elapsedNanos, cpuNanos, allocatedBytes);
+    }
+
+    private MethodMetrics metricsOf(String method) {
+        MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics == null) {
+            methodMetrics = metrics.computeIfAbsent(method, MethodMetrics::new);
+        }
+        return methodMetrics;
+    }
+
+    // p99 가 큰 순서
+    public List<MethodMetricsSnapshot> snapshots() {
+        List<MethodMetricsSnapshot> snapshots = new ArrayList<>();
+        for (MethodMetrics methodMetrics : metrics.values()) {
+            snapshots.add(methodMetrics.snapshot());
+        }
+        snapshots.sort(Comparator.comparingLong(MethodMetricsSnapshot::getP99Nanos).reversed());
+        return snapshots;
+    }
+
+    public void clear() {
+        metrics.clear();
+    }
+}
@@ -0,0 +1,25 @@
+package hello.proxy.trace.metrics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// MEMO : 시간 값은 모두 나노초. resourceCalls 이하는 SpanResources 가 켜진 호출만의 평균
+@Getter
+@RequiredArgsConstructor
+public class MethodMetricsSnapshot {
+
+    private final String method;
+    private final long calls;
+    private final long errors;
+    private final long cancels;
+    private final long meanNanos;
+    private final long p50Nanos;
+    private final long p90Nanos;
+    private final long p99Nanos;
+    private final long p999Nanos;
+    private final long maxNanos;
+    private final long resourceCalls;
+    private final long meanCpuNanos;
+    private final long meanWaitNanos;
+    private final long meanAllocatedBytes;
+}
@@ -0,0 +1,66 @@
+package hello.proxy.trace.profiler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MEMO : 엔드포인트(또는 트레이스) 하나에 모인 스택 샘플
+ *  스택은 collapsed 형식("프레임;프레임;...")을 키로 개수만 센다.
+ *  서로 다른 스택이 maxStacks 를 넘으면 새 스택은 "(truncated)" 하나로 모은다.
+ * */
+public class SampledProfile {
+
+    public static final String TRUNCATED = "(truncated)";
+
+    private final String name;
+    private final int maxStacks;
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder traces = new LongAdder();
+    private final Map<String, LongAdder> stacks = new ConcurrentHashMap<>();
+
+    SampledProfile(String name, int maxStacks) {
+        this.name = name;
+        this.maxStacks = maxStacks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSamples() {
+        return samples.sum();
+    }
+
+    public long getTraces() {
+        return traces.sum();
+    }
+
+    void add(String stack) {
+        LongAdder count = stacks.get(stack);
+        if (count == null) {
+            String key = stacks.size() < maxStacks ? stack : TRUNCATED;
+            count = stacks.computeIfAbsent(key, ignored -> new LongAdder());
+        }
+        count.increment();
+        samples.increment();
+    }
+
+    void addTrace() {
+        traces.increment();
+    }
+
+    // flamegraph.pl 입력 형식. 이름을 맨 아래 프레임으로 붙이고 많이 잡힌 스택부터
+    public String collapsed() {
+        List<Map.Entry<String, Long>> lines = new ArrayList<>();
+        stacks.forEach((stack, count) -> lines.add(Map.entry(stack, count.sum())));
+        lines.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Long> line : lines) {
+            out.append(name).append(';').append(line.getKey()).append(' ').append(line.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package hello.proxy.trace.profiler;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.inflight.InFlightRegistry;
+import hello.proxy.trace.inflight.InFlightSpan;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 루트 span 만 계측하고, 그 아래는 스택 샘플링으로 보는 프로파일러
+ *  LogTraceAspect 처럼 hello.proxy.app.. 의 모든 메서드를 감싸면 noLog() 같은 작은 메서드도 호출마다 비용을 낸다.
+ *  여기서는 컨트롤러 진입(RootSpanProfilingAspect)에서만 enter / exit 를 부르고,
+ *  샘플러 스레드가 interval 마다 루트 span 이 열린 스레드의 스택을 잡아 그 트레이스 아이디와 엔드포인트에 붙인다.
+ *  열린 스레드 목록은 InFlightRegistry 를 그대로 쓰고, 스택은 getThreadInfo(ids) 한 번으로 모두 잡는다. (세이프포인트 한 번)
+ *  그래서 비용은 메서드 호출 수가 아니라 샘플링 주기 x 열린 요청 수에 비례한다.
+ *  짧은 요청은 샘플에 안 잡힐 수 있고, 결과는 통계적인 비율로 읽는다.
+ * */
+@Slf4j
+public class SamplingProfiler implements AutoCloseable {
+
+    private static final long DEFAULT_INTERVAL_MS = 20; // 50Hz
+    private static final int DEFAULT_MAX_DEPTH = 128;
+    private static final int MAX_STACKS = 4096;
+    private static final int MAX_RECENT_TRACES = 256;
+
+    private final InFlightRegistry registry;
+    private final TraceIdGenerator generator;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final int maxDepth;
+    private final long intervalNanos;
+    private final Map<String, SampledProfile> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, SampledProfile> recentTraces = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SampledProfile> eldest) {
+            return size() > MAX_RECENT_TRACES;
+        }
+    };
+    private final LongAdder rounds = new LongAdder();
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    public SamplingProfiler(InFlightRegistry registry) {
+        this(registry, TraceId.defaultGenerator(), DEFAULT_INTERVAL_MS, DEFAULT_MAX_DEPTH);
+    }
+
+    public SamplingProfiler(InFlightRegistry registry, TraceIdGenerator generator, long intervalMs, int maxDepth) {
+        this.registry = registry;
+        this.generator = generator;
+        this.maxDepth = maxDepth;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.sampler = new Thread(this::run, "sampling-profiler");
+        this.sampler.setDaemon(true);
+        this.sampler.start();
+    }
+
+    public void enter(String endpoint) {
+        registry.enter(endpoint, generator.nextId());
+    }
+
+    public void exit() {
+        registry.exit();
+    }
+
+    // 샘플러 스레드가 interval 마다 부른다
+    public synchronized void sample() {
+        List<InFlightSpan> open = registry.snapshot();
+        if (open.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[open.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = open.get(i).getThreadId();
+        }
+        ThreadInfo[] infos = threads.getThreadInfo(ids, maxDepth);
+        for (int i = 0; i < infos.length; i++) {
+            if (infos[i] == null || open.get(i).getTraceId() == 0L) {
+                continue; // 그 사이에 끝난 스레드, ThreadMXBean 에 안 보이는 가상 스레드, 또는 프로파일러가 연 루트가 아님
+            }
+            attribute(open.get(i), collapse(infos[i].getStackTrace()));
+        }
+        rounds.increment();
+    }
+
+    private void attribute(InFlightSpan span, String stack) {
+        SampledProfile endpoint = endpoints.computeIfAbsent(span.getRootMessage(),
+            name -> new SampledProfile(name, MAX_STACKS));
+        endpoint.add(stack);
+
+        String traceId = generator.render(span.getTraceId());
+        SampledProfile trace;
+        synchronized (recentTraces) {
+            trace = recentTraces.get(traceId);
+            if (trace == null) {
+                trace = new SampledProfile(span.getRootMessage(), MAX_STACKS);
+                recentTraces.put(traceId, trace);
+                endpoint.addTrace();
+            }
+        }
+        trace.add(stack);
+    }
+
+    // 바닥 프레임부터 "클래스.메서드" 를 ; 로 잇는다
+    private static String collapse(StackTraceElement[] stack) {
+        StringBuilder out = new StringBuilder(stack.length * 48);
+        for (int i = stack.length - 1; i >= 0; i--) {
+            out.append(stack[i].getClassName()).append('.').append(stack[i].getMethodName());
+            if (i > 0) {
+                out.append(';');
+            }
+        }
+        return out.toString();
+    }
+
+    // 샘플이 많은 순서
+    public List<SampledProfile> profiles() {
+        List<SampledProfile> profiles = new ArrayList<>(endpoints.values());
+        profiles.sort(Comparator.comparingLong(SampledProfile::getSamples).reversed());
+        return profiles;
+    }
+
+    public String collapsed(String endpoint) {
+        StringBuilder out = new StringBuilder();
+        for (SampledProfile profile : profiles()) {
+            if (endpoint == null || profile.getName().equals(endpoint)) {
+                out.append(profile.collapsed());
+            }
+        }
+        return out.toString();
+    }
+
+    // 최근 MAX_RECENT_TRACES 개 트레이스만 남는다. 없으면 빈 문자열
+    public String collapsedTrace(String traceId) {
+        SampledProfile trace;
+        synchronized (recentTraces) {
+            trace = recentTraces.get(traceId);
+        }
+        return trace == null ? "" : trace.collapsed();
+    }
+
+    public long getRounds() {
+        return rounds.sum();
+    }
+
+    public synchronized void clear() {
+        endpoints.clear();
+        synchronized (recentTraces) {
+            recentTraces.clear();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(intervalNanos);
+            if (!running) {
+                break;
+            }
+            try {
+                sample();
+            } catch (RuntimeException e) {
+                log.warn("sampling failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(sampler);
+        sampler.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -0,0 +1,46 @@
+package hello.proxy.trace.profiler;
+
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/trace/profiler`
+ *  curl localhost:8080/trace/profiler                                         엔드포인트별 샘플 수 / 트레이스 수
+ *  curl localhost:8080/trace/profiler/collapsed > profile.txt && flamegraph.pl profile.txt > profile.svg
+ *  curl 'localhost:8080/trace/profiler/collapsed?endpoint=OrderControllerV2.request(..)'
+ *  curl localhost:8080/trace/profiler/traces/{traceId}                        최근 트레이스 하나의 샘플
+ * */
+@RestController
+public class SamplingProfilerController {
+
+    private final SamplingProfiler profiler;
+
+    public SamplingProfilerController(SamplingProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @GetMapping("/trace/profiler")
+    public List<SampledProfile> profiles() {
+        return profiler.profiles();
+    }
+
+    @GetMapping(value = "/trace/profiler/collapsed", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String collapsed(@RequestParam(required = false) String endpoint) {
+        return profiler.collapsed(endpoint);
+    }
+
+    @GetMapping(value = "/trace/profiler/traces/{traceId}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String trace(@PathVariable String traceId) {
+        return profiler.collapsedTrace(traceId);
+    }
+
+    @DeleteMapping("/trace/profiler")
+    public void reset() {
+        profiler.clear();
+    }
+}
@@ -0,0 +1,33 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.logtrace.TraceContextHolder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/*
+ * MEMO : CompletableFuture 의 비동기 작업을 호출한 스레드의 트레이스에 이어 붙인다.
+ *  이후 thenApplyAsync(fn, executor) 같은 단계에도 트레이스를 잇고 싶다면
+ *  executor(...) 로 감싼 Executor 를 넘긴다.
+ * */
+public final class TraceCompletableFutures {
+
+    private TraceCompletableFutures() {
+    }
+
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor,
+        TraceContextHolder holder) {
+        return CompletableFuture.supplyAsync(supplier, executor(executor, holder));
+    }
+
+    public static CompletableFuture<Void> runAsync(Runnable runnable, Executor executor, TraceContextHolder holder) {
+        return CompletableFuture.runAsync(runnable, executor(executor, holder));
+    }
+
+    public static Executor executor(Executor executor, TraceContextHolder holder) {
+        if (executor instanceof TraceContextExecutor) {
+            return executor;
+        }
+        return new TraceContextExecutor(executor, holder);
+    }
+}
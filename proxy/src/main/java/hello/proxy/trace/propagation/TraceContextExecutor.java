@@ -0,0 +1,20 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.logtrace.TraceContextHolder;
+import java.util.concurrent.Executor;
+
+public class TraceContextExecutor implements Executor {
+
+    private final Executor delegate;
+    private final TraceContextTaskDecorator decorator;
+
+    public TraceContextExecutor(Executor delegate, TraceContextHolder holder) {
+        this.delegate = delegate;
+        this.decorator = new TraceContextTaskDecorator(holder);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(decorator.decorate(command));
+    }
+}
@@ -0,0 +1,44 @@
+package hello.proxy.trace.propagation;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.logtrace.TraceContextHolder;
+import hello.proxy.trace.logtrace.TraceScope;
+import org.springframework.core.task.TaskDecorator;
+
+/*
+ * MEMO : 작업을 제출하는 시점의 TraceId 를 잡아두었다가,
+ *  작업을 실행하는 스레드에서 부모로 붙이고 끝나면 원래 상태로 되돌린다.
+ *  제출 시점에 진행 중인 트레이스가 없으면 감싸지 않는다.
+ *  실행기에 원래 걸려 있던 TaskDecorator(MDC, SecurityContext 등)가 있으면 먼저 그것으로 감싼다.
+ * */
+public class TraceContextTaskDecorator implements TaskDecorator {
+
+    private final TraceContextHolder holder;
+    private final TaskDecorator delegate;
+
+    public TraceContextTaskDecorator(TraceContextHolder holder) {
+        this(holder, null);
+    }
+
+    public TraceContextTaskDecorator(TraceContextHolder holder, TaskDecorator delegate) {
+        this.holder = holder;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        Runnable task = delegate == null ? runnable : delegate.decorate(runnable);
+        TraceId parent = holder.currentTraceId();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            TraceScope scope = holder.attach(parent);
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+}
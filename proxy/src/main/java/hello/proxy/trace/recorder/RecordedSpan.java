@@ -0,0 +1,16 @@
+package hello.proxy.trace.recorder;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// MEMO : startTimeMs 는 epoch 밀리초, exception 은 예외 클래스 이름 (없으면 null)
+@Getter
+@RequiredArgsConstructor
+public class RecordedSpan {
+
+    private final int level;
+    private final String message;
+    private final long startTimeMs;
+    private final long elapsedNanos;
+    private final String exception;
+}
@@ -0,0 +1,28 @@
+package hello.proxy.trace.recorder;
+
+import java.util.Comparator;
+import java.util.List;
+import lombok.Getter;
+
+// MEMO : 루트 span 이 끝난 트레이스 하나. spans 는 시작 순서 (호출 트리를 위에서 아래로 읽는 순서)
+@Getter
+public class RecordedTrace {
+
+    private final String traceId;
+    private final String rootMessage;
+    private final long startTimeMs;
+    private final long elapsedNanos;
+    private final boolean error;
+    private final List<RecordedSpan> spans;
+
+    RecordedTrace(String traceId, List<RecordedSpan> spans) {
+        spans.sort(Comparator.comparingLong(RecordedSpan::getStartTimeMs).thenComparingInt(RecordedSpan::getLevel));
+        RecordedSpan root = spans.stream().filter(span -> span.getLevel() == 0).findFirst().orElse(spans.get(0));
+        this.traceId = traceId;
+        this.rootMessage = root.getMessage();
+        this.startTimeMs = root.getStartTimeMs();
+        this.elapsedNanos = root.getElapsedNanos();
+        this.error = spans.stream().anyMatch(span -> span.getException() != null);
+        this.spans = spans;
+    }
+}
@@ -0,0 +1,38 @@
+package hello.proxy.trace.recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MEMO : 플라이트 레코더에서 꺼낼 트레이스 조건. 모든 조건을 만족해야 한다
+ *  - minDurationMs : 루트 span 이 이 시간 이상 걸린 트레이스
+ *  - errorOnly     : 예외로 끝난 span 이 하나라도 있는 트레이스
+ *  - message       : 메시지에 이 문자열이 들어간 span 이 있는 트레이스 (null 이면 보지 않는다)
+ * */
+public class TraceFilter {
+
+    private static final TraceFilter ALL = new TraceFilter(0, false, null);
+
+    private final long minDurationNanos;
+    private final boolean errorOnly;
+    private final String message;
+
+    public TraceFilter(long minDurationMs, boolean errorOnly, String message) {
+        this.minDurationNanos = TimeUnit.MILLISECONDS.toNanos(minDurationMs);
+        this.errorOnly = errorOnly;
+        this.message = message == null || message.isEmpty() ? null : message;
+    }
+
+    public static TraceFilter all() {
+        return ALL;
+    }
+
+    boolean matches(RecordedTrace trace) {
+        if (trace.getElapsedNanos() < minDurationNanos) {
+            return false;
+        }
+        if (errorOnly && !trace.isError()) {
+            return false;
+        }
+        return message == null || trace.getSpans().stream().anyMatch(span -> span.getMessage().contains(message));
+    }
+}
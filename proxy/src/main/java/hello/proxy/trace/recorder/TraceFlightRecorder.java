@@ -0,0 +1,149 @@
+package hello.proxy.trace.recorder;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.logtrace.TraceMessageDictionary;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * MEMO : 최근에 끝난 span 을 고정 크기 링에 계속 덮어쓰는 플라이트 레코더
+ *  칸은 미리 만들어둔 원시 타입 배열의 한 자리다. 메시지와 예외 클래스 이름은 TraceMessageDictionary 의 int 아이디로 바꿔 넣으므로
+ *  span 하나를 기록하는 비용은 시퀀스 하나를 가져가고 배열 몇 칸에 쓰는 것이다. 객체를 만들지도, 예외를 붙잡아두지도 않는다.
+ *  - head : 다음에 쓸 시퀀스. 쓰는 쪽은 getAndIncrement 로 가져가고 기다리지 않는다 (가장 오래된 칸을 덮어쓴다)
+ *  - sequences[slot] : 그 칸에 다 쓴 시퀀스. 쓰는 동안은 -1 이다
+ *  dump() 는 칸을 읽기 전과 후에 sequences 를 비교해서(seqlock) 읽는 도중에 덮어써진 칸을 버린다.
+ *  span 은 끝난 순서로 들어오므로 루트가 링에 남아 있는 트레이스만 완료된 트레이스로 꺼낸다.
+ * */
+public class TraceFlightRecorder {
+
+    public static final int DEFAULT_CAPACITY = 16 * 1024;
+
+    private static final int NO_EXCEPTION = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final TraceIdGenerator generator;
+    private final TraceMessageDictionary dictionary = new TraceMessageDictionary();
+
+    private final long[] traceIds;
+    private final int[] levels;
+    private final int[] messageIds;
+    private final int[] exceptionIds;
+    private final long[] startNanos;
+    private final long[] elapsedNanos;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+
+    private final long baseEpochMillis = System.currentTimeMillis();
+    private final long baseNanoTime = System.nanoTime();
+
+    public TraceFlightRecorder() {
+        this(DEFAULT_CAPACITY, TraceId.defaultGenerator());
+    }
+
+    /**
+     * @param capacity  보관할 span 수 (2의 거듭제곱). 3단계 호출이면 capacity / 3 개 정도의 트레이스가 남는다
+     * @param generator 트레이스 아이디 생성 / 출력 방식. FlightRecorderLogTrace 도 이 생성기로 아이디를 만든다
+     */
+    public TraceFlightRecorder(int capacity, TraceIdGenerator generator) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.generator = generator;
+        this.traceIds = new long[capacity];
+        this.levels = new int[capacity];
+        this.messageIds = new int[capacity];
+        this.exceptionIds = new int[capacity];
+        this.startNanos = new long[capacity];
+        this.elapsedNanos = new long[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            sequences.set(slot, -1L);
+        }
+    }
+
+    public void record(long traceId, int level, String message, long startNanoTime, long elapsed, Exception e) {
+        int messageId = dictionary.idOf(message);
+        int exceptionId = e == null ? NO_EXCEPTION : dictionary.idOf(e.getClass().getName());
+
+        long sequence = head.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        sequences.setOpaque(slot, -1L); // 아래 storeStoreFence 로 데이터보다 먼저 보이게 한다. volatile 쓰기(전체 펜스)는 필요 없다
+        VarHandle.storeStoreFence();
+        traceIds[slot] = traceId;
+        levels[slot] = level;
+        messageIds[slot] = messageId;
+        exceptionIds[slot] = exceptionId;
+        startNanos[slot] = startNanoTime;
+        elapsedNanos[slot] = elapsed;
+        sequences.setRelease(slot, sequence);
+    }
+
+    /**
+     * 최근 트레이스부터 조건에 맞는 것을 limit 개까지 꺼낸다.
+     */
+    public List<RecordedTrace> dump(TraceFilter filter, int limit) {
+        Map<Long, List<RecordedSpan>> spansByTrace = new LinkedHashMap<>();
+        long newest = head.get() - 1;
+        long oldest = Math.max(0, newest - capacity + 1);
+        for (long sequence = newest; sequence >= oldest; sequence--) {
+            int slot = (int) (sequence & mask);
+            if (sequences.getAcquire(slot) != sequence) {
+                continue;
+            }
+            long traceId = traceIds[slot];
+            int level = levels[slot];
+            int messageId = messageIds[slot];
+            int exceptionId = exceptionIds[slot];
+            long start = startNanos[slot];
+            long elapsed = elapsedNanos[slot];
+            VarHandle.loadLoadFence();
+            if (sequences.get(slot) != sequence) {
+                continue; // 읽는 동안 덮어써졌다
+            }
+            if (level != 0 && !spansByTrace.containsKey(traceId)) {
+                continue; // 루트가 이미 지나간(= 최신 쪽에 루트가 없는) span 은 진행 중이거나 앞서 잘린 트레이스다
+            }
+            spansByTrace.computeIfAbsent(traceId, id -> new ArrayList<>())
+                .add(new RecordedSpan(level, dictionary.messageOf(messageId),
+                    toEpochMillis(start), elapsed,
+                    exceptionId == NO_EXCEPTION ? null : dictionary.messageOf(exceptionId)));
+        }
+
+        List<RecordedTrace> traces = new ArrayList<>();
+        for (Map.Entry<Long, List<RecordedSpan>> entry : spansByTrace.entrySet()) {
+            RecordedTrace trace = new RecordedTrace(generator.render(entry.getKey()), entry.getValue());
+            if (filter.matches(trace)) {
+                traces.add(trace);
+                if (traces.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return traces;
+    }
+
+    public TraceIdGenerator getGenerator() {
+        return generator;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getRecorded() {
+        return head.get();
+    }
+
+    private long toEpochMillis(long nanoTime) {
+        return baseEpochMillis + (nanoTime - baseNanoTime) / 1_000_000L;
+    }
+}
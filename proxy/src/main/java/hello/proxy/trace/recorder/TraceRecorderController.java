@@ -0,0 +1,30 @@
+package hello.proxy.trace.recorder;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/trace/recorder`
+ *  curl 'localhost:8080/trace/recorder?minDurationMs=500'          500ms 이상 걸린 최근 트레이스
+ *  curl 'localhost:8080/trace/recorder?error=true&limit=10'        예외가 난 최근 트레이스 10개
+ *  curl 'localhost:8080/trace/recorder?message=OrderServiceV1'     메시지로 거르기
+ * */
+@RestController
+public class TraceRecorderController {
+
+    private final TraceFlightRecorder recorder;
+
+    public TraceRecorderController(TraceFlightRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @GetMapping("/trace/recorder")
+    public List<RecordedTrace> dump(@RequestParam(defaultValue = "0") long minDurationMs,
+        @RequestParam(defaultValue = "false") boolean error,
+        @RequestParam(required = false) String message,
+        @RequestParam(defaultValue = "100") int limit) {
+        return recorder.dump(new TraceFilter(minDurationMs, error, message), limit);
+    }
+}
@@ -0,0 +1,59 @@
+package hello.proxy.trace.resource;
+
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : span 하나가 쓴 CPU 시간, 기다린 시간(wall - cpu), 할당한 바이트
+ *  어드바이스가 begin 직후 start() 로 시작 값을 잡고, 끝날 때 record() 로 메트릭에 남긴다.
+ *  꺼져 있으면(TraceGate.isSamplingResources() == false) 공유 DISABLED 를 돌려주고
+ *  record() 는 기존처럼 시간과 에러만 기록한다. ThreadMXBean 을 부르지도, 객체를 만들지도 않는다.
+ *  켜져 있으면 span 마다 한 줄씩 로그를 남긴다. (hello.proxy.trace.resource 로거를 INFO 로 켜야 보인다)
+ *  자식 span 의 CPU / 할당도 부모에 포함된다.
+ * */
+@Slf4j
+public final class SpanResources {
+
+    private static final SpanResources DISABLED = new SpanResources(false, 0L, 0L);
+
+    private final boolean enabled;
+    private final long cpuStartNanos;
+    private final long allocatedStartBytes;
+
+    private SpanResources(boolean enabled, long cpuStartNanos, long allocatedStartBytes) {
+        this.enabled = enabled;
+        this.cpuStartNanos = cpuStartNanos;
+        this.allocatedStartBytes = allocatedStartBytes;
+    }
+
+    public static SpanResources disabled() {
+        return DISABLED;
+    }
+
+    public static SpanResources start(boolean enabled) {
+        if (!enabled) {
+            return DISABLED;
+        }
+        return new SpanResources(true, ThreadResources.cpuTimeNanos(), ThreadResources.allocatedBytes());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(MethodMetricsRegistry registry, String message, long elapsedNanos, boolean error) {
+        if (!enabled) {
+            registry.record(message, elapsedNanos, error);
+            return;
+        }
+        long cpuNanos = ThreadResources.cpuTimeNanos() - cpuStartNanos;
+        long allocatedBytes = ThreadResources.allocatedBytes() - allocatedStartBytes;
+        registry.record(message, elapsedNanos, error, cpuNanos, allocatedBytes);
+        if (log.isInfoEnabled()) {
+            log.info("{} time={}us cpu={}us wait={}us alloc={}B", message,
+                TimeUnit.NANOSECONDS.toMicros(elapsedNanos), TimeUnit.NANOSECONDS.toMicros(cpuNanos),
+                TimeUnit.NANOSECONDS.toMicros(Math.max(0L, elapsedNanos - cpuNanos)), allocatedBytes);
+        }
+    }
+}
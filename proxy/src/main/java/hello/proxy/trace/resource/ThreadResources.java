@@ -0,0 +1,62 @@
+package hello.proxy.trace.resource;
+
+import hello.proxy.thread.VirtualThreads;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/*
+ * MEMO : 현재 스레드의 CPU 시간과 지금까지 할당한 바이트 수
+ *  JVM 이 지원하지 않으면 0 을 돌려주므로 차이도 0 이 된다. 가상 스레드도 지원하지 않는다. (JDK 21 은 예외 / -1)
+ *  getCurrentThreadCpuTime() 은 리눅스에서 clock_gettime(CLOCK_THREAD_CPUTIME_ID) 시스템 콜이라
+ *  System.nanoTime() 보다 훨씬 비싸다. getThreadAllocatedBytes() 는 스레드 아이디로 스레드를 찾아 카운터를 읽는다.
+ *  둘 다 span 마다 시작 / 끝에 한 번씩 부르므로 비용은 SpanResourcesBenchmark 로 확인한다.
+ * */
+public final class ThreadResources {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean SUN_THREADS =
+        THREADS instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) THREADS : null;
+    private static final boolean CPU_TIME = enableCpuTime();
+    private static final boolean ALLOCATED_BYTES = enableAllocatedBytes();
+
+    private ThreadResources() {
+    }
+
+    public static long cpuTimeNanos() {
+        return CPU_TIME && !VirtualThreads.isVirtual(Thread.currentThread()) ? THREADS.getCurrentThreadCpuTime() : 0L;
+    }
+
+    public static long allocatedBytes() {
+        Thread thread = Thread.currentThread();
+        return ALLOCATED_BYTES && !VirtualThreads.isVirtual(thread)
+            ? SUN_THREADS.getThreadAllocatedBytes(thread.getId()) : 0L;
+    }
+
+    public static boolean isCpuTimeSupported() {
+        return CPU_TIME;
+    }
+
+    public static boolean isAllocatedBytesSupported() {
+        return ALLOCATED_BYTES;
+    }
+
+    private static boolean enableCpuTime() {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            return false;
+        }
+        if (!THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+        return true;
+    }
+
+    private static boolean enableAllocatedBytes() {
+        if (SUN_THREADS == null || !SUN_THREADS.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!SUN_THREADS.isThreadAllocatedMemoryEnabled()) {
+            SUN_THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+}
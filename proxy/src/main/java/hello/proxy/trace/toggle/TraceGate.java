@@ -0,0 +1,139 @@
+package hello.proxy.trace.toggle;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import org.springframework.util.PatternMatchUtils;
+
+/*
+ * MEMO : 어드바이스 / 핸들러 하나가 들고 있는 스위치
+ *  상태는 volatile 참조 하나다. 켜짐(ON), 꺼짐(OFF)은 공유 상수라서
+ *  isOpen() 은 volatile 읽기 한 번과 참조 비교로 끝난다. 메서드 인자도 보지 않는다.
+ *  메서드 패턴 규칙이 있을 때만 PerMethod 상태가 되어 Method 별 결정을 캐시에서 찾는다.
+ *  상태는 TraceSwitch 가 설정이 바뀔 때마다 통째로 바꿔 끼운다.
+ * */
+public final class TraceGate {
+
+    private static final State ON = new State(true);
+    private static final State OFF = new State(false);
+    private static final TraceGate ALWAYS_ON = new TraceGate("always-on");
+
+    private final String name;
+    private volatile State state = ON;
+    private volatile boolean samplingResources;
+
+    TraceGate(String name) {
+        this.name = name;
+    }
+
+    // TraceSwitch 없이 만든 어드바이스 / 핸들러용. 항상 켜져 있다
+    public static TraceGate alwaysOn() {
+        return ALWAYS_ON;
+    }
+
+    public boolean isOpen(Method method) {
+        State current = state;
+        if (current == ON) {
+            return true;
+        }
+        if (current == OFF) {
+            return false;
+        }
+        return ((PerMethod) current).isOpen(method);
+    }
+
+    // Method 를 얻는 데 비용이 드는 경우(JoinPoint 등) 메서드 규칙이 있을 때만 resolver 를 부른다
+    public <T> boolean isOpen(T source, Function<T, Method> methodResolver) {
+        State current = state;
+        if (current == ON) {
+            return true;
+        }
+        if (current == OFF) {
+            return false;
+        }
+        return ((PerMethod) current).isOpen(methodResolver.apply(source));
+    }
+
+    // 켜져 있으면 어드바이스가 span 마다 CPU 시간, 할당 바이트를 잰다 (SpanResources)
+    public boolean isSamplingResources() {
+        return samplingResources;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    String getMode() {
+        State current = state;
+        String mode = current == ON ? "on" : current == OFF ? "off" : "per-method";
+        return samplingResources ? mode + "+resources" : mode;
+    }
+
+    void update(boolean enabled, List<MethodRule> rules, boolean samplingResources) {
+        this.samplingResources = samplingResources;
+        if (rules.isEmpty()) {
+            state = enabled ? ON : OFF;
+        } else {
+            state = new PerMethod(enabled, rules.toArray(new MethodRule[0]));
+        }
+    }
+
+    private static class State {
+
+        final boolean enabled;
+
+        State(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /*
+     * MEMO : 패턴은 "클래스 단순 이름.메서드 이름" 에 맞춘다. 예) "OrderServiceV1.orderItem", "*.save*"
+     *  끄는 규칙이 켜는 규칙보다 우선하고, 맞는 규칙이 없으면 어드바이저 / 전역 설정을 따른다.
+     * */
+    private static final class PerMethod extends State {
+
+        private final MethodRule[] rules;
+        private final ConcurrentMap<Method, Boolean> decisions = new ConcurrentHashMap<>();
+
+        PerMethod(boolean enabled, MethodRule[] rules) {
+            super(enabled);
+            this.rules = rules;
+        }
+
+        boolean isOpen(Method method) {
+            Boolean decision = decisions.get(method);
+            if (decision == null) {
+                decision = decide(method.getDeclaringClass().getSimpleName() + "." + method.getName());
+                decisions.putIfAbsent(method, decision);
+            }
+            return decision;
+        }
+
+        private boolean decide(String key) {
+            boolean matched = false;
+            for (MethodRule rule : rules) {
+                if (PatternMatchUtils.simpleMatch(rule.pattern, key)) {
+                    if (!rule.enabled) {
+                        return false;
+                    }
+                    matched = true;
+                }
+            }
+            return matched || enabled;
+        }
+    }
+
+    static final class MethodRule {
+
+        private final String pattern;
+        private final boolean enabled;
+
+        MethodRule(String pattern, boolean enabled) {
+            this.pattern = pattern;
+            this.enabled = enabled;
+        }
+    }
+}
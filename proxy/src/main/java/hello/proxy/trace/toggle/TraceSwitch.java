@@ -0,0 +1,148 @@
+package hello.proxy.trace.toggle;
+
+import hello.proxy.trace.toggle.TraceGate.MethodRule;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * MEMO : 프록시는 그대로 두고 트레이스만 런타임에 켜고 끄는 스위치
+ *  - 전역          : setGlobalEnabled
+ *  - 어드바이저별  : gate(이름) 으로 받은 TraceGate 단위. 전역 설정을 덮어쓴다
+ *  - 메서드 패턴별 : 어드바이저 / 전역 설정을 덮어쓴다
+ *  CPU 시간 / 할당 바이트 측정(SpanResources)도 전역, 어드바이저별로 따로 켠다. 기본은 꺼져 있다.
+ *  설정이 바뀔 때마다 모든 TraceGate 의 상태를 다시 계산해서 바꿔 끼운다.
+ *  설정 변경은 드물기 때문에 synchronized 로 충분하고, 호출 경로는 TraceGate 만 본다.
+ * */
+@Slf4j
+public class TraceSwitch implements TraceSwitchMBean {
+
+    public static final String OBJECT_NAME = "hello.proxy:type=TraceSwitch";
+
+    private boolean globalEnabled;
+    private boolean globalResources;
+    private final Map<String, Boolean> advisors = new TreeMap<>();
+    private final Map<String, Boolean> advisorResources = new TreeMap<>();
+    private final Map<String, Boolean> methods = new LinkedHashMap<>();
+    private final Map<String, TraceGate> gates = new TreeMap<>();
+
+    public TraceSwitch() {
+        this(true);
+    }
+
+    public TraceSwitch(boolean globalEnabled) {
+        this.globalEnabled = globalEnabled;
+    }
+
+    public synchronized TraceGate gate(String advisor) {
+        TraceGate gate = gates.get(advisor);
+        if (gate == null) {
+            gate = new TraceGate(advisor);
+            gates.put(advisor, gate);
+            refresh(gate);
+        }
+        return gate;
+    }
+
+    @Override
+    public synchronized boolean isGlobalEnabled() {
+        return globalEnabled;
+    }
+
+    @Override
+    public synchronized void setGlobalEnabled(boolean enabled) {
+        log.info("trace switch global={}", enabled);
+        globalEnabled = enabled;
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void setAdvisorEnabled(String advisor, boolean enabled) {
+        log.info("trace switch advisor {}={}", advisor, enabled);
+        advisors.put(advisor, enabled);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void resetAdvisor(String advisor) {
+        advisors.remove(advisor);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized boolean isResourcesEnabled() {
+        return globalResources;
+    }
+
+    @Override
+    public synchronized void setResourcesEnabled(boolean enabled) {
+        log.info("trace switch resources={}", enabled);
+        globalResources = enabled;
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void setAdvisorResourcesEnabled(String advisor, boolean enabled) {
+        log.info("trace switch resources advisor {}={}", advisor, enabled);
+        advisorResources.put(advisor, enabled);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void resetAdvisorResources(String advisor) {
+        advisorResources.remove(advisor);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void setMethodEnabled(String pattern, boolean enabled) {
+        log.info("trace switch method {}={}", pattern, enabled);
+        methods.put(pattern, enabled);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized void resetMethod(String pattern) {
+        methods.remove(pattern);
+        refreshAll();
+    }
+
+    @Override
+    public synchronized String[] getAdvisors() {
+        return gates.values().stream()
+            .map(gate -> gate.getName() + "=" + gate.getMode())
+            .toArray(String[]::new);
+    }
+
+    @Override
+    public synchronized String[] getMethodRules() {
+        return methods.entrySet().stream()
+            .map(rule -> rule.getKey() + "=" + (rule.getValue() ? "on" : "off"))
+            .toArray(String[]::new);
+    }
+
+    public synchronized TraceSwitchStatus status() {
+        Map<String, String> modes = new LinkedHashMap<>();
+        gates.forEach((name, gate) -> modes.put(name, gate.getMode()));
+        return new TraceSwitchStatus(globalEnabled, Collections.unmodifiableMap(new TreeMap<>(advisors)),
+            Collections.unmodifiableMap(new LinkedHashMap<>(methods)), modes, globalResources,
+            Collections.unmodifiableMap(new TreeMap<>(advisorResources)));
+    }
+
+    private void refreshAll() {
+        for (TraceGate gate : gates.values()) {
+            refresh(gate);
+        }
+    }
+
+    private void refresh(TraceGate gate) {
+        boolean enabled = advisors.getOrDefault(gate.getName(), globalEnabled);
+        List<MethodRule> rules = new ArrayList<>();
+        methods.forEach((pattern, on) -> rules.add(new MethodRule(pattern, on)));
+        gate.update(enabled, rules, advisorResources.getOrDefault(gate.getName(), globalResources));
+    }
+}
@@ -0,0 +1,80 @@
+package hello.proxy.trace.toggle;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/*
+ * MEMO : `http://localhost:8080/trace/switch`
+ *  curl -X PUT 'localhost:8080/trace/switch?enabled=false'                         전역으로 끄기
+ *  curl -X PUT 'localhost:8080/trace/switch/advisors/logTraceAspect?enabled=true'  어드바이저 하나만 켜기
+ *  curl -X PUT 'localhost:8080/trace/switch/methods?pattern=*.save*&enabled=true'  메서드 패턴만 켜기
+ *  curl -X PUT 'localhost:8080/trace/switch/resources?enabled=true'                CPU 시간 / 할당 바이트 측정 켜기
+ *  curl -X PUT 'localhost:8080/trace/switch/advisors/advisor1/resources?enabled=true'
+ *  DELETE 는 해당 설정을 지워서 상위 설정을 따르게 한다.
+ * */
+@RestController
+public class TraceSwitchController {
+
+    private final TraceSwitch traceSwitch;
+
+    public TraceSwitchController(TraceSwitch traceSwitch) {
+        this.traceSwitch = traceSwitch;
+    }
+
+    @GetMapping("/trace/switch")
+    public TraceSwitchStatus status() {
+        return traceSwitch.status();
+    }
+
+    @PutMapping("/trace/switch")
+    public TraceSwitchStatus global(@RequestParam boolean enabled) {
+        traceSwitch.setGlobalEnabled(enabled);
+        return traceSwitch.status();
+    }
+
+    @PutMapping("/trace/switch/advisors/{advisor}")
+    public TraceSwitchStatus advisor(@PathVariable String advisor, @RequestParam boolean enabled) {
+        traceSwitch.setAdvisorEnabled(advisor, enabled);
+        return traceSwitch.status();
+    }
+
+    @DeleteMapping("/trace/switch/advisors/{advisor}")
+    public TraceSwitchStatus resetAdvisor(@PathVariable String advisor) {
+        traceSwitch.resetAdvisor(advisor);
+        return traceSwitch.status();
+    }
+
+    @PutMapping("/trace/switch/resources")
+    public TraceSwitchStatus resources(@RequestParam boolean enabled) {
+        traceSwitch.setResourcesEnabled(enabled);
+        return traceSwitch.status();
+    }
+
+    @PutMapping("/trace/switch/advisors/{advisor}/resources")
+    public TraceSwitchStatus advisorResources(@PathVariable String advisor, @RequestParam boolean enabled) {
+        traceSwitch.setAdvisorResourcesEnabled(advisor, enabled);
+        return traceSwitch.status();
+    }
+
+    @DeleteMapping("/trace/switch/advisors/{advisor}/resources")
+    public TraceSwitchStatus resetAdvisorResources(@PathVariable String advisor) {
+        traceSwitch.resetAdvisorResources(advisor);
+        return traceSwitch.status();
+    }
+
+    @PutMapping("/trace/switch/methods")
+    public TraceSwitchStatus method(@RequestParam String pattern, @RequestParam boolean enabled) {
+        traceSwitch.setMethodEnabled(pattern, enabled);
+        return traceSwitch.status();
+    }
+
+    @DeleteMapping("/trace/switch/methods")
+    public TraceSwitchStatus resetMethod(@RequestParam String pattern) {
+        traceSwitch.resetMethod(pattern);
+        return traceSwitch.status();
+    }
+}
@@ -0,0 +1,29 @@
+package hello.proxy.trace.toggle;
+
+// MEMO : JConsole / jmxterm 에서 hello.proxy:type=TraceSwitch 로 보인다
+public interface TraceSwitchMBean {
+
+    boolean isGlobalEnabled();
+
+    void setGlobalEnabled(boolean enabled);
+
+    void setAdvisorEnabled(String advisor, boolean enabled);
+
+    void resetAdvisor(String advisor);
+
+    boolean isResourcesEnabled();
+
+    void setResourcesEnabled(boolean enabled);
+
+    void setAdvisorResourcesEnabled(String advisor, boolean enabled);
+
+    void resetAdvisorResources(String advisor);
+
+    void setMethodEnabled(String pattern, boolean enabled);
+
+    void resetMethod(String pattern);
+
+    String[] getAdvisors();
+
+    String[] getMethodRules();
+}
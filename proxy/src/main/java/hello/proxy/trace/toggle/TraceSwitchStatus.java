@@ -0,0 +1,21 @@
+package hello.proxy.trace.toggle;
+
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/*
+ * MEMO : advisors / methods / advisorResources 는 직접 설정한 값만,
+ *  gates 는 어드바이저별 현재 상태 (on, off, per-method, 측정 중이면 +resources)
+ * */
+@Getter
+@RequiredArgsConstructor
+public class TraceSwitchStatus {
+
+    private final boolean globalEnabled;
+    private final Map<String, Boolean> advisors;
+    private final Map<String, Boolean> methods;
+    private final Map<String, String> gates;
+    private final boolean resourcesEnabled;
+    private final Map<String, Boolean> advisorResources;
+}
@@ -0,0 +1,117 @@
+package hello.proxy.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class MicroBatcherTest {
+
+    @Test
+    void 최대_크기만큼_모아서_한_번에_쓰고_항목마다_결과를_돌려준다() throws Exception {
+        List<List<String>> writes = new CopyOnWriteArrayList<>();
+        IllegalStateException failure = new IllegalStateException("예외 발생!!");
+        try (MicroBatcher<String> batcher = new MicroBatcher<>("test", 4, TimeUnit.SECONDS.toMicros(10), 100,
+            items -> {
+                writes.add(new ArrayList<>(items));
+                int index = items.indexOf("ex");
+                return index < 0 ? Collections.emptyMap() : Map.of(index, failure);
+            })) {
+
+            List<CompletableFuture<Void>> results = new ArrayList<>();
+            for (String item : new String[]{"a", "b", "ex", "c", "d", "e", "f", "g"}) {
+                results.add(batcher.submit(item));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .exceptionally(e -> null).get(5, TimeUnit.SECONDS);
+
+            assertThat(writes).containsExactly(List.of("a", "b", "ex", "c"), List.of("d", "e", "f", "g"));
+            assertThat(results.get(2)).isCompletedExceptionally();
+            assertThatThrownBy(() -> results.get(2).get()).hasCause(failure);
+            assertThat(results).filteredOn(result -> !result.isCompletedExceptionally()).hasSize(7);
+
+            BatchStats stats = batcher.stats();
+            assertThat(stats.getBatches()).isEqualTo(2);
+            assertThat(stats.getItems()).isEqualTo(8);
+            assertThat(stats.getMaxBatchSize()).isEqualTo(4);
+            assertThat(stats.getFailedBatches()).isZero();
+        }
+    }
+
+    @Test
+    void 최대_대기_시간이_지나면_덜_찬_배치도_쓰고_writer_가_던지면_모두_실패한다() throws Exception {
+        try (MicroBatcher<String> batcher = new MicroBatcher<>("test", 100, 1_000, 100, items -> {
+            throw new IllegalStateException("storage down");
+        })) {
+            CompletableFuture<Void> result = batcher.submit("a");
+
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("storage down");
+            assertThatThrownBy(() -> batcher.submitAndWait("b", 5, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalStateException.class);
+            assertThat(batcher.stats().getFailedBatches()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void writer_가_null_을_돌려줘도_배치를_실패시키고_flusher_는_계속_돈다() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try (MicroBatcher<String> batcher = new MicroBatcher<>("test", 100, 1_000, 100,
+            items -> calls.incrementAndGet() == 1 ? null : Collections.emptyMap())) {
+
+            assertThatThrownBy(() -> batcher.submitAndWait("a", 5, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("returned null");
+            batcher.submitAndWait("b", 5, TimeUnit.SECONDS);
+            assertThat(batcher.stats().getFailedBatches()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void 시간이_지났을_때_아직_큐에_있는_항목은_쓰지_않는다() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> writes = new CopyOnWriteArrayList<>();
+        try (MicroBatcher<String> batcher = new MicroBatcher<>("test", 1, 1_000, 100, items -> {
+            writes.add(new ArrayList<>(items));
+            release.await();
+            return Collections.emptyMap();
+        })) {
+            CompletableFuture<Void> first = batcher.submit("a"); // flusher 가 가져가서 writer 안에서 멈춘다
+
+            assertThatThrownBy(() -> batcher.submitAndWait("b", 50, TimeUnit.MILLISECONDS))
+                .isInstanceOf(TimeoutException.class);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(writes).containsExactly(List.of("a"));
+    }
+
+    @Test
+    void 닫은_뒤에는_받지_않고_기다리는_쪽은_timeout_까지만_기다린다() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MicroBatcher<String> batcher = new MicroBatcher<>("test", 1, 1_000, 100, items -> {
+            release.await();
+            return Collections.emptyMap();
+        });
+
+        assertThatThrownBy(() -> batcher.submitAndWait("a", 50, TimeUnit.MILLISECONDS))
+            .isInstanceOf(TimeoutException.class);
+        release.countDown();
+        batcher.close();
+
+        assertThatThrownBy(() -> batcher.submit("b")).isInstanceOf(IllegalStateException.class);
+    }
+}
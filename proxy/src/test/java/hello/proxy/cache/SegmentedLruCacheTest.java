@@ -0,0 +1,54 @@
+package hello.proxy.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class SegmentedLruCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void 한_번만_읽힌_항목이_여러_번_읽힌_항목을_밀어내지_못한다() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>("test", 10, clock::get);
+        for (String key : new String[]{"a", "b", "c", "d", "e"}) {
+            cache.put(key, key, 0, TimeUnit.MILLISECONDS);
+            cache.get(key);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("scan" + i, "scan", 0, TimeUnit.MILLISECONDS);
+        }
+
+        for (String key : new String[]{"a", "b", "c", "d", "e"}) {
+            assertThat(cache.get(key)).isEqualTo(key);
+        }
+        assertThat(cache.get("scan0")).isNull();
+        assertThat(cache.get("scan19")).isEqualTo("scan");
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.stats().getEvictions()).isEqualTo(15);
+    }
+
+    @Test
+    void 항목마다_TTL_이_지나면_만료된다() {
+        SegmentedLruCache<String, String> cache = new SegmentedLruCache<>("test", 10, clock::get);
+        cache.put("short", "v", 100, TimeUnit.MILLISECONDS);
+        cache.put("forever", "v", 0, TimeUnit.MILLISECONDS);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(99));
+        assertThat(cache.get("short")).isEqualTo("v");
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(cache.get("short")).isNull();
+        clock.addAndGet(TimeUnit.DAYS.toNanos(365));
+        assertThat(cache.get("forever")).isEqualTo("v");
+
+        CacheStats stats = cache.stats();
+        assertThat(stats.getExpirations()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,119 @@
+package hello.proxy.config.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+class SaveBatchingAdviceTest {
+
+    @Test
+    void 동시에_들어온_save_를_saveAll_로_묶고_실패한_항목만_예외를_받는다() throws Exception {
+        SlowRepository target = new SlowRepository();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (SaveBatchingAdvice advice = new SaveBatchingAdvice("test", 64, 1_000, 100, 5_000)) {
+            ProxyFactory factory = new ProxyFactory(target);
+            factory.addAdvice(advice);
+            OrderRepositoryV1 repository = (OrderRepositoryV1) factory.getProxy();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String itemId = i == 5 ? "ex" : "item" + i;
+                futures.add(executor.submit(() -> repository.save(itemId)));
+            }
+            List<Throwable> failures = new ArrayList<>();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause());
+                }
+            }
+
+            assertThat(failures).singleElement().isInstanceOf(IllegalStateException.class);
+            assertThat(target.items).hasValue(16);
+            assertThat(target.roundTrips.get()).isLessThan(16);
+            assertThat(advice.stats()).singleElement()
+                .satisfies(stats -> assertThat(stats.getItems()).isEqualTo(16));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void 결과를_기다리다_시간이_지나면_검사_예외_대신_IllegalStateException_을_던진다() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingRepository target = new BlockingRepository(release);
+        try (SaveBatchingAdvice advice = new SaveBatchingAdvice("test", 1, 1_000, 100, 50)) {
+            ProxyFactory factory = new ProxyFactory(target);
+            factory.addAdvice(advice);
+            OrderRepositoryV1 repository = (OrderRepositoryV1) factory.getProxy();
+
+            assertThatThrownBy(() -> repository.save("itemA"))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+            release.countDown();
+        }
+    }
+
+    // saveAll 이 release 될 때까지 멈추는 리포지토리
+    static class BlockingRepository implements OrderRepositoryV1 {
+
+        private final CountDownLatch release;
+
+        BlockingRepository(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void save(String itemId) {
+        }
+
+        @Override
+        public void saveAll(List<String> itemIds) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 저장소 왕복 한 번에 20ms 가 걸리는 리포지토리. saveAll 은 기본 구현(BulkSaveException)을 쓴다
+    static class SlowRepository implements OrderRepositoryV1 {
+
+        private final AtomicInteger items = new AtomicInteger();
+        private final AtomicInteger roundTrips = new AtomicInteger();
+
+        @Override
+        public void save(String itemId) {
+            items.incrementAndGet();
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!!");
+            }
+        }
+
+        @Override
+        public void saveAll(List<String> itemIds) {
+            roundTrips.incrementAndGet();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            OrderRepositoryV1.super.saveAll(itemIds);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package hello.proxy.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.cache.CacheStats;
+import hello.proxy.cache.SegmentedLruCache;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+class CachingAdviceTest {
+
+    @Test
+    void 같은_인자의_결과와_예외를_캐시한다() {
+        CountingRepository target = new CountingRepository();
+        SegmentedLruCache<MethodCacheKey, CachedResult> cache = new SegmentedLruCache<>("test", 100);
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new CachingAdvice(cache, 10_000, 10_000));
+        OrderRepositoryV1 repository = (OrderRepositoryV1) factory.getProxy();
+
+        repository.save("itemA");
+        repository.save("itemA");
+        repository.save("itemB");
+        Throwable first = catchSave(repository, "ex");
+        Throwable second = catchSave(repository, "ex");
+
+        assertThat(target.calls).hasValue(3);
+        assertThat(first).isInstanceOf(IllegalStateException.class).isSameAs(second);
+        CacheStats stats = cache.stats();
+        assertThat(stats.getHits()).isEqualTo(2);
+        assertThat(stats.getMisses()).isEqualTo(3);
+        assertThat(stats.getSize()).isEqualTo(3);
+    }
+
+    @Test
+    void 자동_프록시_생성기가_find_는_반환값을_캐시하고_save_와_섞지_않는다() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TestConfig.class)) {
+            OrderRepositoryV1 repository = context.getBean(OrderRepositoryV1.class);
+            CountingRepository target = context.getBean(TestConfig.class).target;
+
+            assertThat(repository.find("itemA")).isEqualTo("itemA");
+            assertThat(repository.find("itemA")).isEqualTo("itemA");
+            assertThat(target.finds).hasValue(1);
+            repository.save("itemA");
+            assertThat(target.calls).hasValue(1);
+        }
+    }
+
+    @Test
+    void 자동_프록시_생성기가_포인트컷에_맞는_빈에_적용하고_save_는_실패만_캐시한다() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TestConfig.class)) {
+            OrderRepositoryV1 repository = context.getBean(OrderRepositoryV1.class);
+            CountingRepository target = context.getBean(TestConfig.class).target;
+
+            assertThat(AopUtils.isAopProxy(repository)).isTrue();
+            repository.save("itemA");
+            repository.save("itemA");
+            assertThat(target.calls).hasValue(2);
+            assertThatThrownBy(() -> repository.save("ex")).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> repository.save("ex")).isInstanceOf(IllegalStateException.class);
+            assertThat(target.calls).hasValue(3);
+        }
+    }
+
+    private static Throwable catchSave(OrderRepositoryV1 repository, String itemId) {
+        try {
+            repository.save(itemId);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    static class CountingRepository implements OrderRepositoryV1 {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger finds = new AtomicInteger();
+
+        @Override
+        public void save(String itemId) {
+            calls.incrementAndGet();
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!!");
+            }
+        }
+
+        @Override
+        public String find(String itemId) {
+            finds.incrementAndGet();
+            return itemId;
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    @Import(CachingAdvisorConfig.class)
+    static class TestConfig {
+
+        private final CountingRepository target = new CountingRepository();
+
+        @Bean
+        public OrderRepositoryV1 orderRepositoryV1() {
+            return target;
+        }
+    }
+}
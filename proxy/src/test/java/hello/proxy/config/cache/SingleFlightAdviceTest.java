@@ -0,0 +1,144 @@
+package hello.proxy.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.app.v1.OrderServiceV1;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+class SingleFlightAdviceTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlightAdvice advice = new SingleFlightAdvice("test");
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void 동시에_들어온_같은_호출은_한_번만_실행하고_결과를_나눈다() throws Exception {
+        OrderServiceV1 service = proxy(itemId -> {
+            calls.incrementAndGet();
+            await(release);
+        });
+
+        List<Future<?>> futures = callConcurrently(service, "itemA");
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(calls).hasValue(1);
+        SingleFlightStats stats = advice.stats();
+        assertThat(stats.getExecuted()).isEqualTo(1);
+        assertThat(stats.getCoalesced()).isEqualTo(CALLERS - 1);
+        assertThat(stats.getInFlight()).isZero();
+
+        // 끝난 뒤의 호출은 새로 실행한다
+        service.orderItem("itemA");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void 예외도_같이_기다리던_호출에_전달한다() throws Exception {
+        OrderServiceV1 service = proxy(itemId -> {
+            calls.incrementAndGet();
+            await(release);
+            throw new IllegalStateException("예외 발생!!");
+        });
+
+        List<Future<?>> futures = callConcurrently(service, "ex");
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+
+        assertThat(calls).hasValue(1);
+        assertThat(failures).hasSize(CALLERS).allMatch(failure -> failure == failures.get(0));
+        assertThat(failures.get(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void 기다리던_스레드가_인터럽트되면_인터럽트_상태를_남기고_unchecked_예외를_던진다() throws Exception {
+        OrderServiceV1 service = proxy(itemId -> {
+            calls.incrementAndGet();
+            await(release);
+        });
+        Future<?> leader = executor.submit(() -> service.orderItem("itemA"));
+        while (calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                service.orderItem("itemA");
+            } catch (Throwable e) {
+                failure.set(e);
+                interrupted.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        waiter.start();
+        while (advice.stats().getCoalesced() == 0) {
+            Thread.sleep(1);
+        }
+
+        waiter.interrupt();
+        waiter.join(5_000);
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertThat(failure.get()).isExactlyInstanceOf(IllegalStateException.class)
+            .hasCauseInstanceOf(InterruptedException.class);
+        assertThat(interrupted).isTrue();
+        assertThat(calls).hasValue(1);
+    }
+
+    // 첫 호출이 대상 안에서 멈춰 있는 동안 나머지가 모두 기다리기 시작하면 풀어 준다
+    private List<Future<?>> callConcurrently(OrderServiceV1 service, String itemId) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> service.orderItem(itemId)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (advice.stats().getCoalesced() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        return futures;
+    }
+
+    private OrderServiceV1 proxy(OrderServiceV1 target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(advice);
+        return (OrderServiceV1) factory.getProxy();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package hello.proxy.config.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.app.v4.OrderControllerV4;
+import hello.proxy.app.v4.OrderRepositoryV4;
+import hello.proxy.app.v4.OrderServiceV4;
+import hello.proxy.trace.logtrace.ReactorLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.metrics.MethodMetricsSnapshot;
+import hello.proxy.trace.toggle.TraceGate;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import reactor.test.StepVerifier;
+
+class ReactiveLogTraceAdviceTest {
+
+    private final MethodMetricsRegistry metricsRegistry = new MethodMetricsRegistry();
+    private final ReactiveLogTraceAdvice advice = new ReactiveLogTraceAdvice(new ReactorLogTrace(), metricsRegistry,
+        TraceGate.alwaysOn());
+
+    @Test
+    void 구독해서_완료될_때_span_을_닫는다() {
+        OrderControllerV4 controller = controller();
+
+        StepVerifier.withVirtualTime(() -> controller.request("itemA"))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(999))
+            .then(() -> assertThat(metricsRegistry.snapshots()).isEmpty())
+            .thenAwait(Duration.ofMillis(1))
+            .expectNext("ok")
+            .verifyComplete();
+
+        assertThat(metricsRegistry.snapshots()).hasSize(3)
+            .allSatisfy(snapshot -> {
+                assertThat(snapshot.getCalls()).isEqualTo(1);
+                assertThat(snapshot.getErrors()).isZero();
+            });
+    }
+
+    @Test
+    void 에러_신호는_모든_레벨에서_에러로_남는다() {
+        OrderControllerV4 controller = controller();
+
+        StepVerifier.create(controller.request("ex"))
+            .expectErrorMessage("예외 발생!")
+            .verify();
+
+        assertThat(metricsRegistry.snapshots()).extracting(MethodMetricsSnapshot::getErrors)
+            .containsExactly(1L, 1L, 1L);
+    }
+
+    @Test
+    void 끝나기_전에_취소하면_에러가_아니라_취소로_센다() {
+        OrderControllerV4 controller = controller();
+
+        StepVerifier.withVirtualTime(() -> controller.request("itemA"))
+            .expectSubscription()
+            .thenAwait(Duration.ofMillis(500))
+            .thenCancel()
+            .verify();
+
+        assertThat(metricsRegistry.snapshots()).hasSize(3)
+            .allSatisfy(snapshot -> {
+                assertThat(snapshot.getCancels()).isEqualTo(1);
+                assertThat(snapshot.getCalls()).isZero();
+                assertThat(snapshot.getErrors()).isZero();
+            });
+    }
+
+    @Test
+    void 값을_받은_뒤에_온_취소는_span_을_다시_닫지_않는다() {
+        OrderControllerV4 controller = controller();
+
+        StepVerifier.create(controller.noLog().flux().take(1))
+            .expectNext("ok")
+            .verifyComplete();
+
+        assertThat(metricsRegistry.snapshots()).singleElement()
+            .satisfies(snapshot -> {
+                assertThat(snapshot.getCalls()).isEqualTo(1);
+                assertThat(snapshot.getCancels()).isZero();
+            });
+    }
+
+    private OrderControllerV4 controller() {
+        OrderRepositoryV4 repository = proxy(new OrderRepositoryV4());
+        OrderServiceV4 service = proxy(new OrderServiceV4(repository));
+        return proxy(new OrderControllerV4(service));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(advice);
+        return (T) factory.getProxy();
+    }
+}
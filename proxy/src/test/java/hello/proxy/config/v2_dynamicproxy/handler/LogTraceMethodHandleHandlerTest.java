@@ -0,0 +1,91 @@
+package hello.proxy.config.v2_dynamicproxy.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LogTraceMethodHandleHandlerTest {
+
+    private final List<String> traced = new ArrayList<>();
+    private final List<String> savedItems = new ArrayList<>();
+
+    @Test
+    void 패턴에_맞는_메서드만_트레이스한다() {
+        OrderControllerV1 proxy = createProxy();
+
+        assertThat(proxy.request("itemA")).isEqualTo("ok");
+        assertThat(proxy.noLog()).isEqualTo("ok");
+        assertThat(proxy.request("itemB")).isEqualTo("ok");
+
+        assertThat(savedItems).containsExactly("itemA", "itemB");
+        assertThat(traced).containsExactly(
+            "begin OrderControllerV1.request()", "end OrderControllerV1.request()",
+            "begin OrderControllerV1.request()", "end OrderControllerV1.request()");
+    }
+
+    @Test
+    void 대상의_예외를_감싸지_않고_그대로_던진다() {
+        OrderControllerV1 proxy = createProxy();
+
+        assertThatThrownBy(() -> proxy.request("ex"))
+            .isExactlyInstanceOf(IllegalStateException.class)
+            .hasMessage("예외 발생!!");
+        assertThat(traced).containsExactly(
+            "begin OrderControllerV1.request()", "exception OrderControllerV1.request()");
+    }
+
+    @Test
+    void 대상이_Error_를_던져도_트레이스를_닫는다() {
+        OrderControllerV1 proxy = createProxy();
+
+        assertThatThrownBy(() -> proxy.request("error"))
+            .isExactlyInstanceOf(AssertionError.class);
+        assertThat(proxy.request("itemA")).isEqualTo("ok");
+
+        assertThat(traced).containsExactly(
+            "begin OrderControllerV1.request()", "exception OrderControllerV1.request()",
+            "begin OrderControllerV1.request()", "end OrderControllerV1.request()");
+    }
+
+    private OrderControllerV1 createProxy() {
+        OrderControllerV1 target = new OrderControllerV1Impl(itemId -> {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!!");
+            }
+            if (itemId.equals("error")) {
+                throw new AssertionError("검증 실패!!");
+            }
+            savedItems.add(itemId);
+        });
+        return (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+            new Class[]{OrderControllerV1.class},
+            new LogTraceMethodHandleHandler(target, new RecordingLogTrace(), new String[]{"request*"}));
+    }
+
+    private class RecordingLogTrace implements LogTrace {
+
+        @Override
+        public TraceStatus begin(String message) {
+            traced.add("begin " + message);
+            return new TraceStatus(null, 0L, message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            traced.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            traced.add("exception " + status.getMessage());
+        }
+    }
+}
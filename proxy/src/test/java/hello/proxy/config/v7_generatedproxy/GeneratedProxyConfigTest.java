@@ -0,0 +1,44 @@
+package hello.proxy.config.v7_generatedproxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1TraceProxy;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1TraceProxy;
+import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.app.v1.OrderServiceV1TraceProxy;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+class GeneratedProxyConfigTest {
+
+    @Test
+    void 생성된_프록시가_빈으로_등록된다() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TestConfig.class)) {
+            assertThat(context.getBean(OrderControllerV1.class)).isInstanceOf(OrderControllerV1TraceProxy.class);
+            assertThat(context.getBean(OrderServiceV1.class)).isInstanceOf(OrderServiceV1TraceProxy.class);
+            assertThat(context.getBean(OrderRepositoryV1.class)).isInstanceOf(OrderRepositoryV1TraceProxy.class);
+
+            OrderControllerV1 controller = context.getBean(OrderControllerV1.class);
+            assertThat(controller.noLog()).isEqualTo("ok");
+            assertThatThrownBy(() -> controller.request("ex")).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Configuration
+    @Import(GeneratedProxyConfig.class)
+    static class TestConfig {
+
+        @Bean
+        public LogTrace logTrace() {
+            return new ThreadLocalLogTrace();
+        }
+    }
+}
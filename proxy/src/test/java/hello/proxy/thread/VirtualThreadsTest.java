@@ -0,0 +1,24 @@
+package hello.proxy.thread;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadsTest {
+
+    @Test
+    void 플랫폼_스레드는_가상_스레드가_아니다() {
+        assertThat(VirtualThreads.isVirtual(Thread.currentThread())).isFalse();
+    }
+
+    @Test
+    void JDK_21_미만에서는_가상_스레드_실행기를_만들지_못한다() {
+        assertThat(VirtualThreads.isSupported()).isEqualTo(Runtime.version().feature() >= 21);
+        if (!VirtualThreads.isSupported()) {
+            assertThatThrownBy(() -> VirtualThreads.newThreadPerTaskExecutor("test-"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("JDK 21");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package hello.proxy.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.toggle.TraceGate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TracedCallTest {
+
+    private final List<String> traced = new ArrayList<>();
+    private final LogTrace logTrace = new RecordingLogTrace();
+
+    @Test
+    void 메트릭을_모으면_끝난_span_의_시간과_에러를_남긴다() {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry();
+
+        TracedCall ok = new TracedCall(logTrace, registry, TraceGate.alwaysOn());
+        ok.begin("OrderService.orderItem()");
+        ok.end();
+        TracedCall failed = new TracedCall(logTrace, registry, TraceGate.alwaysOn());
+        failed.begin("OrderService.orderItem()");
+        failed.exception(new IllegalStateException("예외 발생!!"));
+
+        assertThat(registry.snapshots()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getCalls()).isEqualTo(2);
+            assertThat(snapshot.getErrors()).isEqualTo(1);
+        });
+        assertThat(traced).containsExactly("begin OrderService.orderItem()", "end OrderService.orderItem()",
+            "begin OrderService.orderItem()", "exception IllegalStateException");
+    }
+
+    @Test
+    void Error_도_트레이스를_닫고_begin_전에_실패하면_메트릭_없이_닫는다() {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry();
+
+        TracedCall error = new TracedCall(logTrace, registry, TraceGate.alwaysOn());
+        error.begin("OrderRepository.save()");
+        error.exception(new StackOverflowError());
+        TracedCall notBegun = new TracedCall(logTrace, registry, TraceGate.alwaysOn());
+        notBegun.exception(new IllegalStateException("메시지를 못 만들었다"));
+
+        assertThat(traced).containsExactly("begin OrderRepository.save()",
+            "exception InvocationTargetException", "exception IllegalStateException");
+        assertThat(registry.snapshots()).singleElement()
+            .satisfies(snapshot -> assertThat(snapshot.getErrors()).isEqualTo(1));
+    }
+
+    private class RecordingLogTrace implements LogTrace {
+
+        @Override
+        public TraceStatus begin(String message) {
+            traced.add("begin " + message);
+            return new TraceStatus(null, 0L, message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            traced.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            traced.add("exception " + e.getClass().getSimpleName());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hello.proxy.trace.calltree;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.CallTreeLogTrace;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class CallTreeLogTraceTest {
+
+    private final CallTree callTree = new CallTree();
+    private final CallTreeLogTrace trace = new CallTreeLogTrace(callTree);
+
+    @Test
+    void 같은_경로의_호출을_한_노드로_합친다() {
+        request(false);
+        request(false);
+        request(true);
+
+        CallTreeSnapshot controller = callTree.snapshot().getChildren().get(0);
+        assertThat(controller.getName()).isEqualTo("OrderController.request()");
+        assertThat(controller.getCount()).isEqualTo(3);
+        assertThat(controller.getErrors()).isEqualTo(1);
+        assertThat(controller.getChildren()).extracting(CallTreeSnapshot::getName)
+            .containsExactly("OrderService.orderItem()");
+
+        CallTreeSnapshot service = controller.getChildren().get(0);
+        CallTreeSnapshot repository = service.getChildren().get(0);
+        assertThat(repository.getName()).isEqualTo("OrderRepository.save()");
+        assertThat(repository.getSelfNanos()).isEqualTo(repository.getTotalNanos());
+        assertThat(service.getSelfNanos()).isEqualTo(service.getTotalNanos() - repository.getTotalNanos());
+        assertThat(controller.getTotalNanos()).isGreaterThanOrEqualTo(service.getTotalNanos());
+        assertThat(callTree.getNodeCount()).isEqualTo(3);
+    }
+
+    @Test
+    void collapsed_stack_은_경로별_self_시간을_한_줄씩_쓴다() {
+        request(false);
+
+        assertThat(callTree.collapsed())
+            .contains("OrderController.request();OrderService.orderItem();OrderRepository.save() ");
+    }
+
+    @Test
+    void 노드_수_한도를_넘는_경로는_truncated_로_모은다() {
+        CallTree small = new CallTree(2);
+        CallTreeLogTrace smallTrace = new CallTreeLogTrace(small);
+
+        for (int i = 0; i < 100; i++) {
+            TraceStatus root = smallTrace.begin("OrderController.request()");
+            TraceStatus child = smallTrace.begin("child" + i);
+            smallTrace.end(child);
+            smallTrace.end(root);
+        }
+
+        assertThat(small.getNodeCount()).isEqualTo(2);
+        CallTreeSnapshot snapshot = small.snapshot();
+        assertThat(snapshot.getChildren()).extracting(CallTreeSnapshot::getName)
+            .containsExactlyInAnyOrder("OrderController.request()", CallTree.TRUNCATED);
+        assertThat(snapshot.getChildren()).filteredOn(node -> node.getName().equals(CallTree.TRUNCATED))
+            .extracting(CallTreeSnapshot::getCount).containsExactly(99L);
+    }
+
+    @Test
+    void 같은_경로를_여러_스레드가_동시에_만들어도_노드는_한_번만_센다() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CallTreeNode>> children = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                children.add(executor.submit(() -> {
+                    start.await();
+                    return callTree.child(callTree.root(), "OrderController.request()");
+                }));
+            }
+            start.countDown();
+
+            CallTreeNode first = children.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<CallTreeNode> child : children) {
+                assertThat(child.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(callTree.getNodeCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void request(boolean fail) {
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        LockSupport.parkNanos(1_000_000);
+        trace.end(repository);
+        trace.end(service);
+        if (fail) {
+            trace.exception(controller, new IllegalStateException());
+        } else {
+            trace.end(controller);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package hello.proxy.trace.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceId;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TraceIdGeneratorTest {
+
+    @Test
+    void UUID_생성기는_기존과_같은_8자리_아이디를_만든다() {
+        UUID uuid = UUID.randomUUID();
+        long id = uuid.getMostSignificantBits() >>> 32;
+
+        String rendered = new UuidTraceIdGenerator().render(id);
+
+        assertThat(rendered).isEqualTo(uuid.toString().substring(0, 8));
+    }
+
+    @Test
+    void 기본_생성기는_16자리_아이디를_만든다() {
+        TraceId traceId = new TraceId();
+
+        assertThat(traceId.getId()).hasSize(16);
+        assertThat(traceId.createNextId().getId()).isEqualTo(traceId.getId());
+    }
+
+    @Test
+    void 스노우플레이크_아이디는_여러_스레드에서도_겹치지_않는다() throws InterruptedException {
+        SnowflakeTraceIdGenerator generator = new SnowflakeTraceIdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 50_000; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(ids).hasSize(8 * 50_000);
+    }
+}
@@ -0,0 +1,123 @@
+package hello.proxy.trace.inflight;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.InFlightLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.NoopLogTrace;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InFlightRegistryTest {
+
+    // 워치독 주기를 길게 잡고 inspect() 를 직접 부른다
+    private final InFlightRegistry registry = new InFlightRegistry(4, 10, TimeUnit.HOURS.toMillis(1));
+    private final LogTrace trace = new InFlightLogTrace(new NoopLogTrace(), registry);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registry.close();
+    }
+
+    @Test
+    void 멈춘_요청의_스택을_한_번_잡아_둔다() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            TraceStatus controller = trace.begin("OrderController.request()");
+            TraceStatus repository = trace.begin("OrderRepository.save()");
+            entered.countDown();
+            await(release);
+            trace.end(repository);
+            trace.end(controller);
+        }, "stuck-worker");
+        worker.start();
+        entered.await();
+
+        assertThat(registry.snapshot()).singleElement()
+            .satisfies(span -> {
+                assertThat(span.getThreadName()).isEqualTo("stuck-worker");
+                assertThat(span.getRootMessage()).isEqualTo("OrderController.request()");
+                assertThat(span.getMessage()).isEqualTo("OrderRepository.save()");
+                assertThat(span.getDepth()).isEqualTo(2);
+            });
+
+        Thread.sleep(20);
+        registry.inspect();
+        List<InFlightSpan> stuck = registry.stuck();
+        assertThat(stuck).hasSize(1);
+        assertThat(stuck.get(0).getStackTrace()).anyMatch(line -> line.contains("CountDownLatch.await"));
+
+        release.countDown();
+        worker.join();
+        registry.inspect();
+        assertThat(registry.snapshot()).isEmpty();
+        assertThat(registry.stuck()).isEmpty();
+    }
+
+    @Test
+    void 자식_span_이_끝난_뒤_부모에서_멈추면_부모를_현재_span_으로_알린다() throws InterruptedException {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread worker = new Thread(() -> {
+            TraceStatus controller = trace.begin("OrderController.request()");
+            TraceStatus service = trace.begin("OrderService.orderItem()");
+            trace.end(trace.begin("OrderRepository.save()"));
+            entered.countDown();
+            await(release);
+            trace.end(service);
+            trace.end(controller);
+        }, "stuck-in-parent");
+        worker.start();
+        entered.await();
+
+        Thread.sleep(20);
+        registry.inspect();
+        assertThat(registry.stuck()).singleElement()
+            .satisfies(span -> {
+                assertThat(span.getMessage()).isEqualTo("OrderService.orderItem()");
+                assertThat(span.getDepth()).isEqualTo(2);
+            });
+
+        release.countDown();
+        worker.join();
+    }
+
+    @Test
+    void 슬롯이_모자라면_추적하지_않고_센다() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(5);
+        Thread[] workers = new Thread[5];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(() -> {
+                TraceStatus status = trace.begin("OrderService.orderItem()");
+                entered.countDown();
+                await(release);
+                trace.end(status);
+            });
+            workers[i].start();
+        }
+        entered.await();
+
+        assertThat(registry.snapshot()).hasSize(4);
+        assertThat(registry.getUntracked()).isEqualTo(1);
+
+        release.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertThat(registry.snapshot()).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package hello.proxy.trace.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.jfr.JfrTraceReport.CallNode;
+import hello.proxy.trace.logtrace.JfrLogTrace;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JfrLogTraceTest {
+
+    private final JfrLogTrace trace = new JfrLogTrace();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void span_마다_이벤트를_커밋한다() throws IOException {
+        Path file = record(true, this::request);
+
+        List<RecordedEvent> events = spans(file);
+        assertThat(events).extracting(event -> event.getString("message") + ":" + event.getInt("depth"))
+            .containsExactly("OrderService.orderItem():1", "OrderController.request():0");
+        assertThat(events).extracting(event -> event.getString("traceId")).doesNotContainNull().hasSize(2)
+            .allMatch(id -> id.equals(events.get(0).getString("traceId")));
+        assertThat(events.get(1).getDuration()).isGreaterThanOrEqualTo(events.get(0).getDuration());
+    }
+
+    @Test
+    void 이벤트가_꺼져_있으면_기록하지_않는다() throws IOException {
+        Path file = record(false, this::request);
+
+        assertThat(spans(file)).isEmpty();
+    }
+
+    @Test
+    void 리포트는_메서드별_통계와_호출_트리를_만든다() throws IOException {
+        Path file = record(true, () -> {
+            request();
+            request();
+            TraceStatus root = trace.begin("OrderController.request()");
+            TraceStatus child = trace.begin("OrderService.orderItem()");
+            trace.exception(child, new IllegalStateException());
+            trace.exception(root, new IllegalStateException());
+        });
+
+        JfrTraceReport report = JfrTraceReport.read(file, TraceSpanEvent.NAME);
+
+        assertThat(report.getMethods().get("OrderService.orderItem()").getCount()).isEqualTo(3);
+        assertThat(report.getMethods().get("OrderService.orderItem()").getErrors()).isEqualTo(1);
+        CallNode controller = report.getRoot().getChildren().get("OrderController.request()");
+        assertThat(controller.getCount()).isEqualTo(3);
+        assertThat(controller.getChildren()).containsOnlyKeys("OrderService.orderItem()");
+        assertThat(report.render())
+            .contains("== methods (us) ==")
+            .contains("OrderController.request() count=3")
+            .contains("|   OrderService.orderItem() count=3");
+    }
+
+    private void request() {
+        TraceStatus root = trace.begin("OrderController.request()");
+        TraceStatus child = trace.begin("OrderService.orderItem()");
+        trace.end(child);
+        trace.end(root);
+    }
+
+    private static List<RecordedEvent> spans(Path file) throws IOException {
+        return RecordingFile.readAllEvents(file).stream()
+            .filter(event -> event.getEventType().getName().equals(TraceSpanEvent.NAME))
+            .collect(Collectors.toList());
+    }
+
+    private Path record(boolean enabled, Runnable calls) throws IOException {
+        Path file = dir.resolve("trace.jfr");
+        try (Recording recording = new Recording()) {
+            if (enabled) {
+                recording.enable(TraceSpanEvent.class).withThreshold(Duration.ZERO);
+            } else {
+                recording.disable(TraceSpanEvent.class);
+            }
+            recording.start();
+            calls.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return file;
+    }
+}
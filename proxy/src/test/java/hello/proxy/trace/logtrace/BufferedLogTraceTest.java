@@ -0,0 +1,79 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+class BufferedLogTraceTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(BufferedLogTrace.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void 루트가_끝날_때_트리_전체를_한_번에_출력한다() {
+        BufferedLogTrace trace = new BufferedLogTrace();
+
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        trace.exception(trace.begin("OrderRepository.save()"), new IllegalStateException("fail"));
+        trace.end(service);
+        assertThat(appender.list).isEmpty();
+        trace.end(controller);
+
+        assertThat(appender.list).hasSize(1);
+        String[] lines = appender.list.get(0).getFormattedMessage().split("\n");
+        assertThat(lines).hasSize(6);
+        assertThat(lines[0]).endsWith("] OrderController.request()");
+        assertThat(lines[2]).endsWith("] |   |-->OrderRepository.save()");
+        assertThat(lines[3]).contains("] |   |<X-OrderRepository.save() time=")
+            .endsWith("ex=java.lang.IllegalStateException: fail");
+        assertThat(lines[5]).contains("] OrderController.request() time=");
+        String traceId = lines[0].substring(0, lines[0].indexOf(']') + 1);
+        assertThat(lines).allMatch(line -> line.startsWith(traceId));
+    }
+
+    @Test
+    void 트레이스마다_버퍼를_비운다() {
+        BufferedLogTrace trace = new BufferedLogTrace();
+
+        trace.end(trace.begin("first"));
+        trace.end(trace.begin("second"));
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+            .hasSize(2)
+            .noneMatch(message -> message.contains("first") && message.contains("second"));
+    }
+
+    @Test
+    void 최대_길이를_넘는_줄은_개수만_남긴다() {
+        BufferedLogTrace trace = new BufferedLogTrace(10, TraceId.defaultGenerator());
+
+        TraceStatus root = trace.begin("OrderController.request()");
+        trace.end(trace.begin("OrderService.orderItem()"));
+        trace.end(root);
+
+        assertThat(appender.list.get(0).getFormattedMessage())
+            .contains("OrderController.request()")
+            .doesNotContain("OrderService")
+            .endsWith("... 3 lines truncated");
+    }
+}
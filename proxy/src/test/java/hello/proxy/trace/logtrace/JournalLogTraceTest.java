@@ -0,0 +1,40 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.journal.JournalReader;
+import hello.proxy.trace.journal.TraceJournal;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalLogTraceTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void span_이_끝난_순서로_저널에_남긴다() throws IOException {
+        try (JournalLogTrace trace = new JournalLogTrace(new TraceJournal(dir))) {
+            TraceStatus controller = trace.begin("OrderController.request()");
+            TraceStatus service = trace.begin("OrderService.orderItem()");
+            trace.exception(service, new IllegalStateException());
+            trace.end(controller);
+        }
+
+        List<String> spans = new ArrayList<>();
+        Set<Long> traceIds = new HashSet<>();
+        JournalReader.scan(dir, span -> {
+            spans.add(span.getDepth() + ":" + span.getMethod() + ":" + span.isError());
+            traceIds.add(span.getTraceId());
+        });
+        assertThat(spans).containsExactly("1:OrderService.orderItem():true", "0:OrderController.request():false");
+        assertThat(traceIds).hasSize(1);
+    }
+}
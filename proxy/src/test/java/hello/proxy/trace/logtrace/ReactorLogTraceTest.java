@@ -0,0 +1,38 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+class ReactorLogTraceTest {
+
+    private final ReactorLogTrace trace = new ReactorLogTrace();
+
+    @Test
+    void context_에_부모가_없으면_새_트레이스를_시작하고_있으면_자식_레벨로_잇는다() {
+        TraceStatus root = trace.begin(Context.empty(), "root");
+        TraceStatus child = trace.begin(trace.with(Context.empty(), root), "child");
+
+        assertThat(root.getTraceId().getLevel()).isZero();
+        assertThat(child.getTraceId().getLevel()).isEqualTo(1);
+        assertThat(child.getTraceId().getId()).isEqualTo(root.getTraceId().getId());
+        assertThat(trace.current(Context.empty())).isNull();
+    }
+
+    @Test
+    void 스레드가_바뀌어도_contextWrite_로_건_span_을_안쪽_publisher_가_이어받는다() {
+        TraceStatus root = trace.begin(Context.empty(), "root");
+
+        TraceStatus child = Mono.deferContextual(context -> Mono.just(trace.begin(context, "child")))
+            .subscribeOn(Schedulers.boundedElastic())
+            .contextWrite(context -> trace.with(context, root))
+            .block();
+
+        assertThat(child.getTraceId().getLevel()).isEqualTo(1);
+        assertThat(child.getTraceId().getId()).isEqualTo(root.getTraceId().getId());
+    }
+}
@@ -0,0 +1,81 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.proxy.trace.TraceStatus;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class SamplingLogTraceTest {
+
+    private final RecordingLogTrace recorder = new RecordingLogTrace();
+
+    @Test
+    void 샘플링되지_않은_트리는_delegate_를_호출하지_않는다() {
+        SamplingLogTrace trace = new SamplingLogTrace(recorder, 0.0);
+
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+        trace.exception(child, new IllegalStateException());
+        trace.end(root);
+
+        assertThat(recorder.events).isEmpty();
+    }
+
+    @Test
+    void 샘플링된_트리는_전부_기록된다() {
+        SamplingLogTrace trace = new SamplingLogTrace(recorder, 1.0);
+
+        TraceStatus root = trace.begin("root");
+        TraceStatus child = trace.begin("child");
+        trace.end(child);
+        trace.end(root);
+
+        assertThat(recorder.events).containsExactly("begin root", "begin child", "end child", "end root");
+    }
+
+    @Test
+    void 루트_메시지별로_비율을_덮어쓴다() {
+        SamplingLogTrace trace = new SamplingLogTrace(recorder, 0.0, Map.of("important", 1.0));
+
+        TraceStatus skipped = trace.begin("other");
+        TraceStatus skippedChild = trace.begin("important"); // 루트가 아니므로 부모의 결정을 따른다
+        trace.end(skippedChild);
+        trace.end(skipped);
+
+        TraceStatus root = trace.begin("important");
+        trace.end(root);
+
+        assertThat(recorder.events).containsExactly("begin important", "end important");
+    }
+
+    @Test
+    void 잘못된_비율은_거부한다() {
+        assertThatThrownBy(() -> new SamplingLogTrace(recorder, 1.5))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public TraceStatus begin(String message) {
+            events.add("begin " + message);
+            return new TraceStatus(null, 0L, message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            events.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            events.add("exception " + status.getMessage());
+        }
+    }
+}
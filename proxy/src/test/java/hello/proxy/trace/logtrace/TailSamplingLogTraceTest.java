@@ -0,0 +1,82 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+class TailSamplingLogTraceTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(TailSamplingLogTrace.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void 빠르고_정상인_트레이스는_버린다() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(10_000);
+
+        TraceStatus root = trace.begin("root");
+        trace.end(trace.begin("child"));
+        trace.end(root);
+
+        assertThat(appender.list).isEmpty();
+    }
+
+    @Test
+    void 예외가_있으면_트리_전체를_출력한다() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(10_000);
+
+        TraceStatus root = trace.begin("root");
+        trace.exception(trace.begin("child"), new IllegalStateException("fail"));
+        trace.end(root);
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+            .hasSize(4)
+            .allMatch(line -> line.contains("root") || line.contains("child"))
+            .anyMatch(line -> line.contains("|<X-child") && line.contains("ex=java.lang.IllegalStateException"));
+    }
+
+    @Test
+    void 느린_트레이스는_출력한다() throws InterruptedException {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(1);
+
+        TraceStatus root = trace.begin("root");
+        Thread.sleep(5);
+        trace.end(root);
+
+        assertThat(appender.list).hasSize(2);
+    }
+
+    @Test
+    void 버퍼를_넘는_기록은_잘라내고_루트_종료는_남긴다() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(10_000, 4, TraceId.defaultGenerator());
+
+        TraceStatus root = trace.begin("root");
+        for (int i = 0; i < 10; i++) {
+            trace.end(trace.begin("child"));
+        }
+        trace.exception(root, new IllegalStateException());
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+            .hasSize(6)
+            .anyMatch(line -> line.contains("] root time=") && line.contains("ex="))
+            .anyMatch(line -> line.endsWith("17 records truncated"));
+    }
+}
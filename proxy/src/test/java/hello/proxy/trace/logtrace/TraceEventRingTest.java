@@ -0,0 +1,106 @@
+package hello.proxy.trace.logtrace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TraceEventRingTest {
+
+    @Test
+    void DROP_NEWEST_는_가득_차면_새_이벤트를_버린다() {
+        TraceEventRing ring = new TraceEventRing(4, OverflowPolicy.DROP_NEWEST);
+        for (int i = 0; i < 6; i++) {
+            ring.publish(i, 0, 0, 0L, 0L, TraceEventRing.BEGIN, null);
+        }
+
+        List<Long> traceIds = drain(ring);
+
+        assertThat(traceIds).containsExactly(0L, 1L, 2L, 3L);
+        assertThat(ring.getDroppedNewest()).isEqualTo(2);
+    }
+
+    @Test
+    void DROP_OLDEST_는_가득_차면_오래된_이벤트를_버린다() {
+        TraceEventRing ring = new TraceEventRing(4, OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 6; i++) {
+            ring.publish(i, 0, 0, 0L, 0L, TraceEventRing.BEGIN, null);
+        }
+
+        List<Long> traceIds = drain(ring);
+
+        assertThat(traceIds).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(ring.getDroppedOldest()).isEqualTo(2);
+    }
+
+    @Test
+    void 소비한_칸의_예외는_비우고_닫힌_뒤_BLOCK_생산자는_기다리지_않고_버린다() throws Exception {
+        TraceEventRing ring = new TraceEventRing(2, OverflowPolicy.BLOCK);
+        IllegalStateException failure = new IllegalStateException("예외 발생!!");
+        ring.publish(0, 0, 0, 0L, 0L, TraceEventRing.EXCEPTION, failure);
+        List<Exception> received = new ArrayList<>();
+        ring.poll((traceId, level, messageId, timestamp, elapsedNanos, outcome, e) -> received.add(e));
+        assertThat(received).containsExactly(failure);
+        assertThat(ring).extracting("exceptions").asString().doesNotContain("예외 발생!!");
+
+        ring.publish(1, 0, 0, 0L, 0L, TraceEventRing.BEGIN, null);
+        ring.publish(2, 0, 0, 0L, 0L, TraceEventRing.BEGIN, null);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> blocked = executor.submit(
+                () -> ring.publish(3, 0, 0, 0L, 0L, TraceEventRing.BEGIN, null));
+            ring.close();
+
+            assertThat(blocked.get(5, TimeUnit.SECONDS)).isFalse();
+            assertThat(ring.getDroppedNewest()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void BLOCK_은_여러_생산자의_이벤트를_하나도_잃지_않는다() throws InterruptedException {
+        TraceEventRing ring = new TraceEventRing(64, OverflowPolicy.BLOCK);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(producer, i, 0, 0L, 0L, TraceEventRing.END, null);
+                }
+                done.countDown();
+            });
+        }
+
+        long[] lastLevels = {-1, -1, -1, -1};
+        int[] received = new int[1];
+        while (done.getCount() > 0 || !ring.isEmpty()) {
+            ring.poll((traceId, level, messageId, timestamp, elapsedNanos, outcome, e) -> {
+                // 한 생산자 안에서는 순서가 유지되어야 한다
+                assertThat(level).isEqualTo(lastLevels[(int) traceId] + 1);
+                lastLevels[(int) traceId] = level;
+                received[0]++;
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(received[0]).isEqualTo(producers * perProducer);
+    }
+
+    private List<Long> drain(TraceEventRing ring) {
+        List<Long> traceIds = new ArrayList<>();
+        while (ring.poll((traceId, level, messageId, timestamp, elapsedNanos, outcome, e) -> traceIds.add(traceId))) {
+        }
+        return traceIds;
+    }
+}
@@ -0,0 +1,49 @@
+package hello.proxy.trace.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void 버킷_경계값은_3퍼센트_이내로_기록된다() {
+        for (long value = 1; value < 1_000_000_000_000L; value = value * 3 + 1) {
+            long recorded = LatencyHistogram.highestEquivalentValue(LatencyHistogram.index(value));
+            assertThat(recorded).isGreaterThanOrEqualTo(value);
+            assertThat((double) recorded).isCloseTo(value, within(value * 0.032 + 1));
+        }
+    }
+
+    @Test
+    void 백분위수를_계산한다() {
+        LatencyHistogram histogram = new LatencyHistogram(4);
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L); // 1us ~ 1ms
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.getTotalCount()).isEqualTo(1000);
+        assertThat((double) snapshot.getValueAtPercentile(50)).isCloseTo(500_000, within(500_000 * 0.04));
+        assertThat((double) snapshot.getValueAtPercentile(99)).isCloseTo(990_000, within(990_000 * 0.04));
+        assertThat((double) snapshot.getMax()).isCloseTo(1_000_000, within(1_000_000 * 0.04));
+    }
+
+    @Test
+    void 레지스트리는_메서드별로_호출과_에러를_센다() {
+        MethodMetricsRegistry registry = new MethodMetricsRegistry();
+        registry.record("OrderRepositoryV1.save()", 1_000_000_000L, false);
+        registry.record("OrderRepositoryV1.save()", 10_000L, true);
+        registry.record("OrderServiceV1.orderItem()", 10_000L, false);
+
+        List<MethodMetricsSnapshot> snapshots = registry.snapshots();
+
+        assertThat(snapshots).extracting(MethodMetricsSnapshot::getMethod)
+            .containsExactly("OrderRepositoryV1.save()", "OrderServiceV1.orderItem()");
+        assertThat(snapshots.get(0).getCalls()).isEqualTo(2);
+        assertThat(snapshots.get(0).getErrors()).isEqualTo(1);
+    }
+}
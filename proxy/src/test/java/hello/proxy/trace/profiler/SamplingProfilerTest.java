@@ -0,0 +1,82 @@
+package hello.proxy.trace.profiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.inflight.InFlightRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingProfilerTest {
+
+    // 주기를 길게 잡고 sample() 을 직접 부른다
+    private final InFlightRegistry registry = new InFlightRegistry(16, TimeUnit.HOURS.toMillis(1),
+        TimeUnit.HOURS.toMillis(1));
+    private final SamplingProfiler profiler = new SamplingProfiler(registry, TraceId.defaultGenerator(),
+        TimeUnit.HOURS.toMillis(1), 64);
+    private final CountDownLatch entered = new CountDownLatch(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        profiler.close();
+        registry.close();
+    }
+
+    @Test
+    void 루트_span_이_열린_스레드의_스택을_엔드포인트와_트레이스에_붙인다() throws InterruptedException {
+        Thread profiled = new Thread(() -> {
+            profiler.enter("OrderControllerV2.request(..)");
+            try {
+                save();
+            } finally {
+                profiler.exit();
+            }
+        });
+        // InFlightLogTrace 처럼 트레이스 아이디 없이 연 루트는 샘플링하지 않는다
+        Thread traced = new Thread(() -> {
+            registry.enter("OrderControllerV1.request(..)");
+            try {
+                save();
+            } finally {
+                registry.exit();
+            }
+        });
+        profiled.start();
+        traced.start();
+        entered.await();
+
+        long traceId = registry.snapshot().stream()
+            .filter(span -> span.getTraceId() != 0L).findFirst().orElseThrow().getTraceId();
+        for (int i = 0; i < 3; i++) {
+            profiler.sample();
+        }
+        release.countDown();
+        profiled.join();
+        traced.join();
+
+        assertThat(profiler.profiles()).singleElement().satisfies(profile -> {
+            assertThat(profile.getName()).isEqualTo("OrderControllerV2.request(..)");
+            assertThat(profile.getSamples()).isEqualTo(3);
+            assertThat(profile.getTraces()).isEqualTo(1);
+        });
+        String collapsed = profiler.collapsed(null);
+        assertThat(collapsed).startsWith("OrderControllerV2.request(..);").endsWith(" 3\n");
+        assertThat(collapsed).contains(SamplingProfilerTest.class.getName() + ".save;");
+        assertThat(profiler.collapsedTrace(TraceId.defaultGenerator().render(traceId))).isEqualTo(collapsed);
+
+        profiler.sample(); // 열린 루트가 없으면 아무것도 하지 않는다
+        assertThat(profiler.profiles().get(0).getSamples()).isEqualTo(3);
+    }
+
+    private void save() {
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
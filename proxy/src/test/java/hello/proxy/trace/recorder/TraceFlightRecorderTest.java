@@ -0,0 +1,83 @@
+package hello.proxy.trace.recorder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.FlightRecorderLogTrace;
+import hello.proxy.trace.logtrace.NoopLogTrace;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+
+class TraceFlightRecorderTest {
+
+    private final TraceFlightRecorder recorder = new TraceFlightRecorder(16, TraceId.defaultGenerator());
+    private final FlightRecorderLogTrace trace = new FlightRecorderLogTrace(new NoopLogTrace(), recorder);
+
+    @Test
+    void 끝난_트레이스를_최근_것부터_호출_순서대로_꺼낸다() {
+        request("itemA", false, 0);
+        request("itemB", true, 0);
+
+        List<RecordedTrace> traces = recorder.dump(TraceFilter.all(), 10);
+
+        assertThat(traces).hasSize(2);
+        RecordedTrace latest = traces.get(0);
+        assertThat(latest.isError()).isTrue();
+        assertThat(latest.getRootMessage()).isEqualTo("OrderController.request(itemB)");
+        assertThat(latest.getSpans()).extracting(span -> span.getLevel() + ":" + span.getMessage())
+            .containsExactly("0:OrderController.request(itemB)", "1:OrderService.orderItem()",
+                "2:OrderRepository.save()");
+        assertThat(latest.getSpans().get(2).getException()).isEqualTo(IllegalStateException.class.getName());
+        assertThat(traces.get(1).getTraceId()).isNotEqualTo(latest.getTraceId());
+    }
+
+    @Test
+    void 시간_예외_메시지로_거른다() {
+        request("itemA", false, 0);
+        request("itemB", true, 0);
+        request("itemC", false, 20);
+
+        assertThat(recorder.dump(new TraceFilter(10, false, null), 10))
+            .extracting(RecordedTrace::getRootMessage).containsExactly("OrderController.request(itemC)");
+        assertThat(recorder.dump(new TraceFilter(0, true, null), 10))
+            .extracting(RecordedTrace::getRootMessage).containsExactly("OrderController.request(itemB)");
+        assertThat(recorder.dump(new TraceFilter(0, false, "itemA"), 10))
+            .extracting(RecordedTrace::getRootMessage).containsExactly("OrderController.request(itemA)");
+        assertThat(recorder.dump(TraceFilter.all(), 1)).hasSize(1);
+    }
+
+    @Test
+    void 링이_넘치면_오래된_트레이스부터_덮어쓰고_진행_중인_트레이스는_꺼내지_않는다() {
+        for (int i = 0; i < 10; i++) {
+            request("item" + i, false, 0);
+        }
+        TraceStatus open = trace.begin("OrderController.request(open)");
+        trace.end(trace.begin("OrderService.orderItem()"));
+
+        List<RecordedTrace> traces = recorder.dump(TraceFilter.all(), 100);
+
+        // span 16 개 = 끝난 트레이스 5 개 + 진행 중인 트레이스의 자식 1 개
+        assertThat(traces).extracting(RecordedTrace::getRootMessage)
+            .containsExactly("OrderController.request(item9)", "OrderController.request(item8)",
+                "OrderController.request(item7)", "OrderController.request(item6)",
+                "OrderController.request(item5)");
+        assertThat(traces).allMatch(recorded -> recorded.getSpans().size() == 3);
+        trace.end(open);
+    }
+
+    private void request(String itemId, boolean fail, long sleepMs) {
+        TraceStatus controller = trace.begin("OrderController.request(" + itemId + ")");
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        LockSupport.parkNanos(sleepMs * 1_000_000L);
+        if (fail) {
+            trace.exception(repository, new IllegalStateException());
+        } else {
+            trace.end(repository);
+        }
+        trace.end(service);
+        trace.end(controller);
+    }
+}
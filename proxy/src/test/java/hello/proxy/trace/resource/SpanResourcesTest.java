@@ -0,0 +1,64 @@
+package hello.proxy.trace.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import hello.proxy.trace.metrics.MethodMetricsSnapshot;
+import hello.proxy.trace.toggle.TraceSwitch;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+class SpanResourcesTest {
+
+    private final TraceSwitch traceSwitch = new TraceSwitch();
+    private final MethodMetricsRegistry registry = new MethodMetricsRegistry();
+
+    @Test
+    void 꺼져_있으면_시간만_기록한다() {
+        OrderRepositoryV1 repository = proxy(SpanResourcesTest::allocate);
+
+        repository.save("itemA");
+
+        MethodMetricsSnapshot snapshot = registry.snapshots().get(0);
+        assertThat(snapshot.getCalls()).isEqualTo(1);
+        assertThat(snapshot.getResourceCalls()).isZero();
+        assertThat(SpanResources.start(false)).isSameAs(SpanResources.disabled());
+    }
+
+    @Test
+    void 어드바이저별로_켜면_CPU_시간과_할당_바이트를_기록한다() {
+        OrderRepositoryV1 repository = proxy(SpanResourcesTest::allocate);
+
+        traceSwitch.setAdvisorResourcesEnabled("proxyFactoryV2", true);
+        repository.save("itemA");
+
+        MethodMetricsSnapshot snapshot = registry.snapshots().get(0);
+        assertThat(snapshot.getResourceCalls()).isEqualTo(1);
+        assertThat(snapshot.getMeanCpuNanos()).isPositive();
+        assertThat(snapshot.getMeanAllocatedBytes()).isGreaterThanOrEqualTo(1024L * 1024);
+        assertThat(traceSwitch.getAdvisors()).containsExactly("proxyFactoryV2=on+resources");
+
+        traceSwitch.resetAdvisorResources("proxyFactoryV2");
+        assertThat(traceSwitch.getAdvisors()).containsExactly("proxyFactoryV2=on");
+    }
+
+    private OrderRepositoryV1 proxy(OrderRepositoryV1 target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new LogTraceAdvice(new ThreadLocalLogTrace(), registry, traceSwitch.gate("proxyFactoryV2")));
+        return (OrderRepositoryV1) factory.getProxy();
+    }
+
+    // 1KB 배열 1024 개, 최소 1MB 를 할당한다
+    private static void allocate(String itemId) {
+        List<byte[]> chunks = new ArrayList<>();
+        for (int i = 0; i < 1024; i++) {
+            chunks.add(new byte[1024]);
+        }
+        assertThat(chunks).hasSize(1024);
+    }
+}
@@ -0,0 +1,103 @@
+package hello.proxy.trace.toggle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.metrics.MethodMetricsRegistry;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+class TraceSwitchTest {
+
+    private final TraceSwitch traceSwitch = new TraceSwitch();
+
+    @Test
+    void 전역_어드바이저_메서드_순서로_덮어쓴다() throws NoSuchMethodException {
+        TraceGate aspect = traceSwitch.gate("logTraceAspect");
+        TraceGate advisor = traceSwitch.gate("advisor1");
+        Method save = OrderRepositoryV2.class.getMethod("save", String.class);
+        Method toString = Object.class.getMethod("toString");
+
+        traceSwitch.setGlobalEnabled(false);
+        assertThat(aspect.isOpen(save)).isFalse();
+        assertThat(advisor.isOpen(save)).isFalse();
+
+        traceSwitch.setAdvisorEnabled("advisor1", true);
+        assertThat(aspect.isOpen(save)).isFalse();
+        assertThat(advisor.isOpen(save)).isTrue();
+
+        traceSwitch.setMethodEnabled("OrderRepositoryV2.*", true);
+        assertThat(aspect.isOpen(save)).isTrue();
+        assertThat(aspect.isOpen(toString)).isFalse();
+
+        // 끄는 규칙이 켜는 규칙보다 우선한다
+        traceSwitch.setMethodEnabled("*.save", false);
+        assertThat(aspect.isOpen(save)).isFalse();
+        assertThat(advisor.isOpen(save)).isFalse();
+        assertThat(advisor.isOpen(toString)).isTrue();
+
+        traceSwitch.resetMethod("*.save");
+        traceSwitch.resetMethod("OrderRepositoryV2.*");
+        traceSwitch.resetAdvisor("advisor1");
+        assertThat(traceSwitch.status().getGates())
+            .containsEntry("advisor1", "off")
+            .containsEntry("logTraceAspect", "off");
+    }
+
+    @Test
+    void 나중에_만든_게이트도_현재_설정을_따른다() throws NoSuchMethodException {
+        traceSwitch.setGlobalEnabled(false);
+
+        TraceGate gate = traceSwitch.gate("proxyFactoryV2");
+
+        assertThat(gate.isOpen(Object.class.getMethod("toString"))).isFalse();
+        assertThat(traceSwitch.getAdvisors()).containsExactly("proxyFactoryV2=off");
+    }
+
+    @Test
+    void 꺼진_어드바이스는_LogTrace_를_부르지_않는다() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        OrderRepositoryV1 target = itemId -> {
+        };
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addAdvice(new LogTraceAdvice(logTrace, MethodMetricsRegistry.disabled(),
+            traceSwitch.gate("proxyFactoryV2")));
+        OrderRepositoryV1 repository = (OrderRepositoryV1) factory.getProxy();
+
+        traceSwitch.setGlobalEnabled(false);
+        repository.save("itemA");
+        assertThat(logTrace.events).isEmpty();
+
+        traceSwitch.setGlobalEnabled(true);
+        repository.save("itemA");
+        assertThat(logTrace.events).hasSize(2);
+    }
+
+    static class RecordingLogTrace implements LogTrace {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public TraceStatus begin(String message) {
+            events.add("begin " + message);
+            return new TraceStatus(null, 0L, message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            events.add("end " + status.getMessage());
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            events.add("exception " + status.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package hello.proxy.trace.agent;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * MEMO : 한 스레드의 호출 스택 상태. proxy 모듈의 TraceFrames 와 같은 역할이지만
+ *  프레임 객체 없이 레벨별 시작 시각, 메시지 아이디를 원시 타입 배열에 둔다.
+ *  스레드 하나에서만 쓰이므로 동기화하지 않는다.
+ * */
+final class AgentFrames {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] startNanos = new long[INITIAL_CAPACITY];
+    private int[] messageIds = new int[INITIAL_CAPACITY];
+    private long traceId;
+    private int depth = -1;
+
+    int push(int messageId, long nanos) {
+        if (depth < 0) {
+            traceId = nextTraceId();
+        }
+        depth++;
+        if (depth >= startNanos.length) {
+            startNanos = Arrays.copyOf(startNanos, startNanos.length * 2);
+            messageIds = Arrays.copyOf(messageIds, messageIds.length * 2);
+        }
+        startNanos[depth] = nanos;
+        messageIds[depth] = messageId;
+        return depth;
+    }
+
+    void pop(int level) {
+        depth = level - 1;
+    }
+
+    long startNanosAt(int level) {
+        return startNanos[level];
+    }
+
+    int messageIdAt(int level) {
+        return messageIds[level];
+    }
+
+    long getTraceId() {
+        return traceId;
+    }
+
+    private static long nextTraceId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0L);
+        return id;
+    }
+}
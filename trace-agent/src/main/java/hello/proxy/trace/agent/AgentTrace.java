@@ -0,0 +1,92 @@
+package hello.proxy.trace.agent;
+
+import java.util.Arrays;
+
+/*
+ * MEMO : 에이전트가 위빙한 메서드가 직접 호출하는 정적 LogTrace 파사드
+ *  위빙된 코드는 아래 모양이 된다. 메시지는 변환 시점에 int 아이디로 등록해 둔다.
+ *
+ *      int token = AgentTrace.begin(messageId);
+ *      try {
+ *          result = 원래메서드$trace(args);
+ *      } catch (Throwable e) {
+ *          AgentTrace.exception(token, e);
+ *          throw e;
+ *      }
+ *      AgentTrace.end(token);
+ *
+ *  TraceStatus 대신 레벨(int)을 토큰으로 돌려주고, 스레드별 상태는 원시 타입 배열이라
+ *  트레이스가 한 번 진행된 스레드에서는 begin/end 경로에 객체 할당이 없다. (리스너의 로그 출력 제외)
+ * */
+public final class AgentTrace {
+
+    private static final int INITIAL_MESSAGES = 256;
+
+    private static final ThreadLocal<AgentFrames> FRAMES = ThreadLocal.withInitial(AgentFrames::new);
+    private static final Object MESSAGE_LOCK = new Object();
+
+    private static volatile String[] messages = new String[INITIAL_MESSAGES];
+    private static int messageCount;
+    private static volatile AgentTraceListener listener = new LoggingAgentTraceListener();
+    private static volatile boolean installed;
+
+    private AgentTrace() {
+    }
+
+    public static int begin(int messageId) {
+        AgentFrames frames = FRAMES.get();
+        int level = frames.push(messageId, System.nanoTime());
+        listener.onBegin(frames.getTraceId(), level, messageId);
+        return level;
+    }
+
+    public static void end(int token) {
+        complete(token, null);
+    }
+
+    public static void exception(int token, Throwable e) {
+        complete(token, e);
+    }
+
+    private static void complete(int level, Throwable e) {
+        AgentFrames frames = FRAMES.get();
+        long elapsedNanos = System.nanoTime() - frames.startNanosAt(level);
+        listener.onComplete(frames.getTraceId(), level, frames.messageIdAt(level), elapsedNanos, e);
+        frames.pop(level);
+    }
+
+    // 클래스 변환 시점에 호출된다. 같은 메시지라도 메서드마다 새 아이디를 받는다
+    public static int register(String message) {
+        synchronized (MESSAGE_LOCK) {
+            int id = messageCount++;
+            String[] current = messages;
+            if (id >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[id] = message;
+            messages = current;
+            return id;
+        }
+    }
+
+    public static String messageOf(int messageId) {
+        return messages[messageId];
+    }
+
+    public static void setListener(AgentTraceListener listener) {
+        AgentTrace.listener = listener;
+    }
+
+    public static AgentTraceListener getListener() {
+        return listener;
+    }
+
+    // -javaagent 로 에이전트가 붙었는지. 스프링 프록시와 함께 켜서 트레이스가 두 번 남지 않도록 확인할 때 쓴다
+    public static boolean isInstalled() {
+        return installed;
+    }
+
+    static void markInstalled() {
+        installed = true;
+    }
+}
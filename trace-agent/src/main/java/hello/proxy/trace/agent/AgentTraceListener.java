@@ -0,0 +1,14 @@
+package hello.proxy.trace.agent;
+
+/*
+ * MEMO : AgentTrace 가 begin / end 마다 호출하는 콜백
+ *  위빙된 메서드 안에서 바로 불리므로 구현은 할당 없이 빨리 돌아와야 한다.
+ *  메시지는 AgentTrace.messageOf(messageId) 로 얻는다.
+ * */
+public interface AgentTraceListener {
+
+    void onBegin(long traceId, int level, int messageId);
+
+    // e 가 null 이면 정상 종료
+    void onComplete(long traceId, int level, int messageId, long elapsedNanos, Throwable e);
+}
@@ -0,0 +1,63 @@
+package hello.proxy.trace.agent;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MEMO : LogTrace 와 같은 형식으로 로그를 남기는 기본 리스너
+ *  에이전트 jar 는 시스템 클래스로더에 올라가서 애플리케이션의 slf4j 를 볼 수 없으므로 System.Logger 를 쓴다.
+ *  스프링 부트는 jul-to-slf4j 를 설치하므로 결국 logback 으로 나간다.
+ *  로그 레벨이 꺼져 있으면 문자열을 만들지 않는다.
+ * */
+public class LoggingAgentTraceListener implements AgentTraceListener {
+
+    private static final Logger log = System.getLogger("hello.proxy.trace.agent");
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public void onBegin(long traceId, int level, int messageId) {
+        if (!log.isLoggable(Level.INFO)) {
+            return;
+        }
+        log.log(Level.INFO, "[" + render(traceId) + "] " + addSpace(START_PREFIX, level)
+            + AgentTrace.messageOf(messageId));
+    }
+
+    @Override
+    public void onComplete(long traceId, int level, int messageId, long elapsedNanos, Throwable e) {
+        if (!log.isLoggable(Level.INFO)) {
+            return;
+        }
+        long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        String message = AgentTrace.messageOf(messageId);
+        if (e == null) {
+            log.log(Level.INFO, "[" + render(traceId) + "] " + addSpace(COMPLETE_PREFIX, level)
+                + message + " time=" + resultTimeMs + "ms");
+        } else {
+            log.log(Level.INFO, "[" + render(traceId) + "] " + addSpace(EX_PREFIX, level)
+                + message + " time=" + resultTimeMs + "ms ex=" + e);
+        }
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+
+    private static String render(long traceId) {
+        char[] chars = new char[16];
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (traceId & 0xF)];
+            traceId >>>= 4;
+        }
+        return new String(chars);
+    }
+}
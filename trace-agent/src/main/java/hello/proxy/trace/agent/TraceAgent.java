@@ -0,0 +1,35 @@
+package hello.proxy.trace.agent;
+
+import java.lang.instrument.Instrumentation;
+
+/*
+ * MEMO : 스프링 프록시 없이 hello.proxy.app 의 메서드에 begin / end 호출을 직접 심는 java agent
+ *
+ *  java -javaagent:trace-agent/build/libs/trace-agent.jar -jar proxy.jar
+ *  java -javaagent:trace-agent/build/libs/trace-agent.jar=hello.proxy.app.v3..,hello.proxy.app.v2.. -jar proxy.jar
+ *
+ *  인자는 쉼표로 구분한 패키지 패턴이다. AspectJ 처럼 ".." 로 끝나면 하위 패키지까지 포함한다.
+ *  이미 로드된 클래스는 다시 변환하지 않으므로 agentmain 으로 붙이면 그 뒤에 로드되는 클래스에만 적용된다.
+ *  스프링 AOP(AopConfig, AutoProxyConfig)와 함께 켜면 같은 메서드가 두 번 기록된다.
+ * */
+public final class TraceAgent {
+
+    static final String DEFAULT_PACKAGES = "hello.proxy.app..";
+
+    private TraceAgent() {
+    }
+
+    public static void premain(String args, Instrumentation inst) {
+        install(args, inst);
+    }
+
+    public static void agentmain(String args, Instrumentation inst) {
+        install(args, inst);
+    }
+
+    private static void install(String args, Instrumentation inst) {
+        String packages = (args == null || args.isBlank()) ? DEFAULT_PACKAGES : args;
+        inst.addTransformer(new TraceClassTransformer(packages.split(",")));
+        AgentTrace.markInstalled();
+    }
+}
@@ -0,0 +1,80 @@
+package hello.proxy.trace.agent;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Opcodes;
+
+/*
+ * MEMO : 패키지 패턴에 맞는 클래스만 TraceClassVisitor 로 위빙한다.
+ *  인터페이스, 어노테이션, CGLIB 등이 만든 "$$" 클래스, 에이전트 자신의 패키지는 건드리지 않는다.
+ *  변환 중 예외가 나도 애플리케이션은 원래 클래스로 계속 돌아야 하므로 null 을 돌려준다.
+ * */
+public class TraceClassTransformer implements ClassFileTransformer {
+
+    private static final Logger log = System.getLogger("hello.proxy.trace.agent");
+    private static final String AGENT_PACKAGE = "hello/proxy/trace/agent/";
+    private static final int SKIPPED_CLASSES = Opcodes.ACC_INTERFACE | Opcodes.ACC_ANNOTATION
+        | Opcodes.ACC_ENUM | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_MODULE;
+
+    private final String[] prefixes;
+    private final boolean[] includeSubpackages;
+
+    // "hello.proxy.app.." 은 하위 패키지 포함, "hello.proxy.app" 은 그 패키지만
+    public TraceClassTransformer(String... packagePatterns) {
+        this.prefixes = new String[packagePatterns.length];
+        this.includeSubpackages = new boolean[packagePatterns.length];
+        for (int i = 0; i < packagePatterns.length; i++) {
+            String pattern = packagePatterns[i].trim();
+            includeSubpackages[i] = pattern.endsWith("..");
+            if (includeSubpackages[i]) {
+                pattern = pattern.substring(0, pattern.length() - 2);
+            }
+            prefixes[i] = pattern.replace('.', '/') + "/";
+        }
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+        ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (loader == null || className == null || classBeingRedefined != null || !matches(className)) {
+            return null;
+        }
+        try {
+            ClassReader reader = new ClassReader(classfileBuffer);
+            if ((reader.getAccess() & SKIPPED_CLASSES) != 0) {
+                return null;
+            }
+            // 위빙하지 않는 메서드는 ClassReader 를 넘겨서 바이트를 그대로 복사한다
+            ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+            TraceClassVisitor visitor = new TraceClassVisitor(writer);
+            reader.accept(visitor, 0);
+            return visitor.isWoven() ? writer.toByteArray() : null;
+        } catch (Throwable e) {
+            log.log(Level.WARNING, "trace weaving failed: " + className, e);
+            return null;
+        }
+    }
+
+    boolean matches(String className) {
+        if (isAgentClass(className) || className.contains("$$")) {
+            return false;
+        }
+        for (int i = 0; i < prefixes.length; i++) {
+            if (!className.startsWith(prefixes[i])) {
+                continue;
+            }
+            if (includeSubpackages[i] || className.indexOf('/', prefixes[i].length()) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAgentClass(String className) {
+        return className.startsWith(AGENT_PACKAGE) && className.indexOf('/', AGENT_PACKAGE.length()) < 0;
+    }
+}
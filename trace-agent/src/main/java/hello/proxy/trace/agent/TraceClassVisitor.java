@@ -0,0 +1,247 @@
+package hello.proxy.trace.agent;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.asm.TypePath;
+
+/*
+ * MEMO : public 메서드 foo 를 private synthetic foo$trace 로 이름만 바꿔 그대로 두고,
+ *  원래 이름과 접근 제어자로 foo$trace 를 감싸는 메서드를 새로 만든다.
+ *  원래 메서드 본문을 고치지 않으니 return 이 여러 군데 있어도, 예외 테이블이 복잡해도 상관없다.
+ *  @GetMapping 같은 어노테이션과 파라미터 이름은 감싸는 메서드로 옮겨서 스프링 MVC 가 그대로 볼 수 있게 한다.
+ * */
+class TraceClassVisitor extends ClassVisitor {
+
+    static final String RENAMED_SUFFIX = "$trace";
+
+    private static final String AGENT_TRACE = "hello/proxy/trace/agent/AgentTrace";
+    private static final int SKIPPED_METHODS = Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE
+        | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE;
+
+    private String owner;
+    private String simpleName;
+    private int version;
+    private boolean woven;
+
+    TraceClassVisitor(ClassVisitor classVisitor) {
+        super(Opcodes.ASM9, classVisitor);
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName,
+        String[] interfaces) {
+        this.owner = name;
+        this.simpleName = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('$')) + 1);
+        this.version = version;
+        super.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+        String[] exceptions) {
+        if (!isTraced(access, name)) {
+            return super.visitMethod(access, name, descriptor, signature, exceptions);
+        }
+        woven = true;
+        int renamedAccess = Opcodes.ACC_PRIVATE | Opcodes.ACC_SYNTHETIC | (access & Opcodes.ACC_STATIC);
+        MethodVisitor renamed = super.visitMethod(renamedAccess, name + RENAMED_SUFFIX, descriptor, signature,
+            exceptions);
+        MethodVisitor wrapper = super.visitMethod(access, name, descriptor, signature, exceptions);
+        return new WeavingMethodVisitor(renamed, wrapper, access, name, descriptor);
+    }
+
+    boolean isWoven() {
+        return woven;
+    }
+
+    private static boolean isTraced(int access, String name) {
+        return (access & Opcodes.ACC_PUBLIC) != 0
+            && (access & SKIPPED_METHODS) == 0
+            && !name.startsWith("<")
+            && !name.endsWith(RENAMED_SUFFIX);
+    }
+
+    /*
+     * MEMO : 원래 메서드의 본문은 이름이 바뀐 쪽으로 흘려보내고,
+     *  메서드 선언에 붙은 어노테이션, 파라미터 정보만 감싸는 메서드로 보낸다.
+     *  감싸는 메서드의 코드는 원래 메서드를 다 읽은 visitEnd() 에서 만든다. (파라미터 이름을 모아야 하므로)
+     * */
+    private class WeavingMethodVisitor extends MethodVisitor {
+
+        private final MethodVisitor wrapper;
+        private final int access;
+        private final String name;
+        private final String descriptor;
+        private final Type[] argumentTypes;
+        private final String[] localNames;
+        private final String[] localDescriptors;
+        private final int argumentsSize;
+
+        WeavingMethodVisitor(MethodVisitor renamed, MethodVisitor wrapper, int access, String name,
+            String descriptor) {
+            super(Opcodes.ASM9, renamed);
+            this.wrapper = wrapper;
+            this.access = access;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.argumentTypes = Type.getArgumentTypes(descriptor);
+            this.argumentsSize = (Type.getArgumentsAndReturnSizes(descriptor) >> 2) - (isStatic() ? 1 : 0);
+            this.localNames = new String[argumentsSize];
+            this.localDescriptors = new String[argumentsSize];
+        }
+
+        @Override
+        public void visitParameter(String parameterName, int parameterAccess) {
+            wrapper.visitParameter(parameterName, parameterAccess);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            return wrapper.visitAnnotationDefault();
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+            return wrapper.visitAnnotation(annotationDescriptor, visible);
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String annotationDescriptor,
+            boolean visible) {
+            return wrapper.visitTypeAnnotation(typeRef, typePath, annotationDescriptor, visible);
+        }
+
+        @Override
+        public void visitAnnotableParameterCount(int parameterCount, boolean visible) {
+            wrapper.visitAnnotableParameterCount(parameterCount, visible);
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String annotationDescriptor,
+            boolean visible) {
+            return wrapper.visitParameterAnnotation(parameter, annotationDescriptor, visible);
+        }
+
+        @Override
+        public void visitLocalVariable(String localName, String localDescriptor, String signature, Label start,
+            Label end, int index) {
+            if (index < argumentsSize && localNames[index] == null) {
+                localNames[index] = localName;
+                localDescriptors[index] = localDescriptor;
+            }
+            super.visitLocalVariable(localName, localDescriptor, signature, start, end, index);
+        }
+
+        @Override
+        public void visitEnd() {
+            super.visitEnd();
+            generateWrapper();
+        }
+
+        private void generateWrapper() {
+            int messageId = AgentTrace.register(simpleName + "." + name + "()");
+            int tokenIndex = argumentsSize;
+            int exceptionIndex = tokenIndex + 1;
+            Label start = new Label();
+            Label tryStart = new Label();
+            Label tryEnd = new Label();
+            Label handler = new Label();
+            Label end = new Label();
+
+            MethodVisitor mv = wrapper;
+            mv.visitCode();
+            mv.visitTryCatchBlock(tryStart, tryEnd, handler, "java/lang/Throwable");
+            mv.visitLabel(start);
+
+            // int token = AgentTrace.begin(messageId);
+            mv.visitLdcInsn(messageId);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, AGENT_TRACE, "begin", "(I)I", false);
+            mv.visitVarInsn(Opcodes.ISTORE, tokenIndex);
+
+            // result = name$trace(args);
+            mv.visitLabel(tryStart);
+            int index = 0;
+            if (!isStatic()) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                index = 1;
+            }
+            for (Type argumentType : argumentTypes) {
+                mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), index);
+                index += argumentType.getSize();
+            }
+            mv.visitMethodInsn(isStatic() ? Opcodes.INVOKESTATIC : Opcodes.INVOKESPECIAL, owner,
+                name + RENAMED_SUFFIX, descriptor, false);
+            mv.visitLabel(tryEnd);
+
+            // AgentTrace.end(token); return result;
+            mv.visitVarInsn(Opcodes.ILOAD, tokenIndex);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, AGENT_TRACE, "end", "(I)V", false);
+            mv.visitInsn(Type.getReturnType(descriptor).getOpcode(Opcodes.IRETURN));
+
+            // catch (Throwable e) { AgentTrace.exception(token, e); throw e; }
+            mv.visitLabel(handler);
+            if (version >= Opcodes.V1_6) {
+                Object[] locals = frameLocals();
+                mv.visitFrame(Opcodes.F_NEW, locals.length, locals, 1, new Object[]{"java/lang/Throwable"});
+            }
+            mv.visitVarInsn(Opcodes.ASTORE, exceptionIndex);
+            mv.visitVarInsn(Opcodes.ILOAD, tokenIndex);
+            mv.visitVarInsn(Opcodes.ALOAD, exceptionIndex);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, AGENT_TRACE, "exception", "(ILjava/lang/Throwable;)V", false);
+            mv.visitVarInsn(Opcodes.ALOAD, exceptionIndex);
+            mv.visitInsn(Opcodes.ATHROW);
+            mv.visitLabel(end);
+
+            for (int i = 0; i < argumentsSize; i++) {
+                if (localNames[i] != null) {
+                    mv.visitLocalVariable(localNames[i], localDescriptors[i], null, start, end, i);
+                }
+            }
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // 예외 핸들러 위치의 지역 변수: this, 파라미터, token
+        private Object[] frameLocals() {
+            Object[] locals = new Object[argumentTypes.length + (isStatic() ? 1 : 2)];
+            int i = 0;
+            if (!isStatic()) {
+                locals[i++] = owner;
+            }
+            for (Type argumentType : argumentTypes) {
+                locals[i++] = frameType(argumentType);
+            }
+            locals[i] = Opcodes.INTEGER;
+            return locals;
+        }
+
+        private Object frameType(Type type) {
+            switch (type.getSort()) {
+                case Type.BOOLEAN:
+                case Type.CHAR:
+                case Type.BYTE:
+                case Type.SHORT:
+                case Type.INT:
+                    return Opcodes.INTEGER;
+                case Type.FLOAT:
+                    return Opcodes.FLOAT;
+                case Type.LONG:
+                    return Opcodes.LONG;
+                case Type.DOUBLE:
+                    return Opcodes.DOUBLE;
+                case Type.ARRAY:
+                    return type.getDescriptor();
+                default:
+                    return type.getInternalName();
+            }
+        }
+
+        private boolean isStatic() {
+            return (access & Opcodes.ACC_STATIC) != 0;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package hello.proxy.trace.agent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+
+class TraceClassTransformerTest {
+
+    private static final String SAMPLE_PACKAGE = "hello.proxy.trace.agent.sample";
+
+    private final List<String> events = new ArrayList<>();
+    private AgentTraceListener previous;
+
+    @BeforeEach
+    void setUp() {
+        previous = AgentTrace.getListener();
+        AgentTrace.setListener(new AgentTraceListener() {
+            @Override
+            public void onBegin(long traceId, int level, int messageId) {
+                events.add(level + " begin " + AgentTrace.messageOf(messageId));
+            }
+
+            @Override
+            public void onComplete(long traceId, int level, int messageId, long elapsedNanos, Throwable e) {
+                events.add(level + (e == null ? " end " : " ex ") + AgentTrace.messageOf(messageId));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        AgentTrace.setListener(previous);
+    }
+
+    @Test
+    void public_메서드에_begin_end_를_심는다() throws Exception {
+        Class<?> type = load("SampleService");
+        Object service = type.getConstructor().newInstance();
+
+        Object result = type.getMethod("order", String.class).invoke(service, "itemA");
+
+        assertThat(result).isEqualTo("ok:itemA");
+        assertThat(events).containsExactly(
+            "0 begin SampleService.order()",
+            "1 begin SampleRepository.save()",
+            "1 end SampleRepository.save()",
+            "0 end SampleService.order()");
+    }
+
+    @Test
+    void 예외는_기록하고_그대로_다시_던진다() throws Exception {
+        Class<?> type = load("SampleService");
+        Object service = type.getConstructor().newInstance();
+        Method order = type.getMethod("order", String.class);
+
+        assertThatThrownBy(() -> order.invoke(service, "ex"))
+            .isInstanceOf(InvocationTargetException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(events).containsExactly(
+            "0 begin SampleService.order()",
+            "1 begin SampleRepository.save()",
+            "1 ex SampleRepository.save()",
+            "0 ex SampleService.order()");
+
+        // 예외 뒤에도 스택이 비어 있어서 다음 호출은 다시 레벨 0 부터 시작한다
+        events.clear();
+        order.invoke(service, "itemB");
+        assertThat(events.get(0)).isEqualTo("0 begin SampleService.order()");
+    }
+
+    @Test
+    void long_double_배열_파라미터와_static_메서드도_위빙한다() throws Exception {
+        Class<?> type = load("SampleService");
+        Object service = type.getConstructor().newInstance();
+
+        Object sum = type.getMethod("sum", long.class, double.class, int[].class)
+            .invoke(service, 1L, 2.5d, new int[]{3, 4});
+        Object hello = type.getMethod("hello", String.class).invoke(null, "trace");
+
+        assertThat(sum).isEqualTo(10L);
+        assertThat(hello).isEqualTo("hello trace");
+        assertThat(events).containsExactly(
+            "0 begin SampleService.sum()", "0 end SampleService.sum()",
+            "0 begin SampleService.hello()", "0 end SampleService.hello()");
+    }
+
+    @Test
+    void 어노테이션과_파라미터_이름은_원래_이름의_메서드에_남는다() throws Exception {
+        Class<?> type = load("SampleService");
+        Method order = type.getMethod("order", String.class);
+
+        assertThat(order.getAnnotations()).extracting(annotation -> annotation.annotationType().getSimpleName())
+            .containsExactly("Marker");
+        assertThat(new DefaultParameterNameDiscoverer().getParameterNames(order)).containsExactly("itemId");
+        assertThat(type.getDeclaredMethod("order" + TraceClassVisitor.RENAMED_SUFFIX, String.class).isSynthetic())
+            .isTrue();
+    }
+
+    @Test
+    void public_이_아닌_메서드는_위빙하지_않는다() throws Exception {
+        Class<?> type = load("SampleService");
+        Method notPublic = type.getDeclaredMethod("notPublic");
+        notPublic.setAccessible(true);
+
+        notPublic.invoke(type.getConstructor().newInstance());
+
+        assertThat(events).isEmpty();
+    }
+
+    @Test
+    void 패키지_패턴() {
+        TraceClassTransformer transformer = new TraceClassTransformer("hello.proxy.app..", "hello.other");
+
+        assertThat(transformer.matches("hello/proxy/app/v1/OrderControllerV1Impl")).isTrue();
+        assertThat(transformer.matches("hello/proxy/app/v1/OrderServiceV2$$SpringCGLIB$$0")).isFalse();
+        assertThat(transformer.matches("hello/other/Sample")).isTrue();
+        assertThat(transformer.matches("hello/other/sub/Sample")).isFalse();
+        assertThat(transformer.matches("hello/proxy/config/AppV1Config")).isFalse();
+        assertThat(transformer.matches("hello/proxy/trace/agent/AgentTrace")).isFalse();
+    }
+
+    // sample 패키지의 클래스만 직접 읽어서 변환하고, 나머지(AgentTrace 등)는 부모에게 맡긴다
+    private static Class<?> load(String simpleName) throws ClassNotFoundException {
+        TraceClassTransformer transformer = new TraceClassTransformer(SAMPLE_PACKAGE + "..");
+        ClassLoader loader = new ClassLoader(TraceClassTransformerTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (!name.startsWith(SAMPLE_PACKAGE + ".")) {
+                    return super.loadClass(name, resolve);
+                }
+                synchronized (getClassLoadingLock(name)) {
+                    Class<?> loaded = findLoadedClass(name);
+                    if (loaded != null) {
+                        return loaded;
+                    }
+                    byte[] bytes = read(name);
+                    byte[] transformed = transformer.transform(this, name.replace('.', '/'), null, null, bytes);
+                    byte[] definition = transformed == null ? bytes : transformed;
+                    return defineClass(name, definition, 0, definition.length);
+                }
+            }
+
+            private byte[] read(String name) throws ClassNotFoundException {
+                try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if (in == null) {
+                        throw new ClassNotFoundException(name);
+                    }
+                    return in.readAllBytes();
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        };
+        return loader.loadClass(SAMPLE_PACKAGE + "." + simpleName);
+    }
+}
@@ -0,0 +1,10 @@
+package hello.proxy.trace.agent.sample;
+
+public class SampleRepository {
+
+    public void save(String itemId) {
+        if (itemId.equals("ex")) {
+            throw new IllegalStateException("예외 발생!!!");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package hello.proxy.trace.agent.sample;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+public class SampleService {
+
+    private final SampleRepository repository = new SampleRepository();
+
+    @Marker
+    public String order(String itemId) {
+        repository.save(itemId);
+        return "ok:" + itemId;
+    }
+
+    public long sum(long a, double b, int[] values) {
+        long sum = a + (long) b;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    public static String hello(String name) {
+        return "hello " + name;
+    }
+
+    String notPublic() {
+        return "skip";
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Marker {
+    }
+}
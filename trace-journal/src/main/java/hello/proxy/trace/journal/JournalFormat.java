@@ -0,0 +1,64 @@
+package hello.proxy.trace.journal;
+
+/*
+ * MEMO : 세그먼트 파일 형식 (리틀 엔디언이 아니라 ByteBuffer 기본값인 빅 엔디언)
+ *
+ *  헤더 64 바이트
+ *   0  int   magic "TRJ1"
+ *   4  short version
+ *   8  long  segment sequence
+ *   16 long  baseEpochNanos  : 세그먼트를 만든 시각 (epoch 나노초)
+ *   24 long  baseNanoTime    : 같은 순간의 System.nanoTime()
+ *   32 int   capacity        : 파일 크기
+ *
+ *  헤더 뒤로 8 바이트 단위로 정렬된 엔트리가 이어진다. 첫 바이트(kind)가 0 이면 거기서 끝이다.
+ *   span (32 바이트)
+ *    0  byte  kind = SPAN_OK / SPAN_ERROR
+ *    2  short depth
+ *    4  int   methodId      : 같은 세그먼트 안의 METHOD 엔트리 아이디
+ *    8  long  traceId
+ *    16 long  startNanoTime : System.nanoTime(). baseNanoTime 과의 차이로 시각을 구한다
+ *    24 long  durationNanos
+ *   method (8 + 이름 길이, 8 바이트 정렬)
+ *    0  byte  kind = METHOD
+ *    2  short nameLength (unsigned)
+ *    4  int   methodId
+ *    8  byte[] UTF-8 이름
+ *
+ *  메서드 사전은 세그먼트마다 따로 쓰므로 세그먼트 하나만 있어도 읽을 수 있다.
+ *  METHOD 엔트리는 그 아이디를 쓰는 span 보다 항상 앞에 있다.
+ * */
+public final class JournalFormat {
+
+    public static final int MAGIC = 0x54524A31; // "TRJ1"
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 64;
+    public static final String SEGMENT_SUFFIX = ".trj";
+
+    public static final byte KIND_END = 0;
+    public static final byte KIND_SPAN_OK = 1;
+    public static final byte KIND_SPAN_ERROR = 2;
+    public static final byte KIND_METHOD = 3;
+
+    public static final int SPAN_BYTES = 32;
+    public static final int METHOD_HEADER_BYTES = 8;
+    public static final int MAX_NAME_BYTES = 0xFFFF;
+
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_SEQUENCE = 8;
+    static final int OFFSET_BASE_EPOCH_NANOS = 16;
+    static final int OFFSET_BASE_NANO_TIME = 24;
+    static final int OFFSET_CAPACITY = 32;
+
+    private JournalFormat() {
+    }
+
+    static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    static String segmentName(long sequence) {
+        return String.format("trace-%012d%s", sequence, SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,95 @@
+package hello.proxy.trace.journal;
+
+import static hello.proxy.trace.journal.JournalFormat.HEADER_BYTES;
+import static hello.proxy.trace.journal.JournalFormat.KIND_METHOD;
+import static hello.proxy.trace.journal.JournalFormat.KIND_SPAN_ERROR;
+import static hello.proxy.trace.journal.JournalFormat.KIND_SPAN_OK;
+import static hello.proxy.trace.journal.JournalFormat.METHOD_HEADER_BYTES;
+import static hello.proxy.trace.journal.JournalFormat.SPAN_BYTES;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * MEMO : 세그먼트를 READ_ONLY 로 매핑해서 엔트리를 순서대로 훑는다.
+ *  span 마다 객체를 만들지 않고 JournalSpan 커서 하나를 옮겨가며 콜백을 부른다.
+ *  METHOD 엔트리를 만나면 그 세그먼트의 사전에 이름을 넣는다. 사전은 세그먼트가 바뀌면 새로 시작한다.
+ *  기록 중인 세그먼트도 읽을 수 있다. kind 가 0 인 곳(아직 안 쓴 자리)에서 멈춘다.
+ * */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    // 번호 순서(= 시간 순서)
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(JournalFormat.SEGMENT_SUFFIX))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    public static void scan(Path directory, Consumer<JournalSpan> visitor) throws IOException {
+        for (Path segment : segments(directory)) {
+            scanSegment(segment, visitor);
+        }
+    }
+
+    public static void scanSegment(Path segment, Consumer<JournalSpan> visitor) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(JournalFormat.OFFSET_MAGIC) != JournalFormat.MAGIC) {
+            throw new IOException("not a trace journal segment: " + segment);
+        }
+
+        List<String> methods = new ArrayList<>();
+        JournalSpan span = new JournalSpan(buffer, methods,
+            buffer.getLong(JournalFormat.OFFSET_BASE_EPOCH_NANOS), buffer.getLong(JournalFormat.OFFSET_BASE_NANO_TIME));
+        int limit = buffer.limit();
+        int position = HEADER_BYTES;
+        while (position <= limit - METHOD_HEADER_BYTES) {
+            byte kind = buffer.get(position);
+            if (kind == KIND_SPAN_OK || kind == KIND_SPAN_ERROR) {
+                span.moveTo(position);
+                visitor.accept(span);
+                position += SPAN_BYTES;
+            } else if (kind == KIND_METHOD) {
+                int length = Short.toUnsignedInt(buffer.getShort(position + 2));
+                int id = buffer.getInt(position + 4);
+                byte[] name = new byte[length];
+                buffer.duplicate().position(position + METHOD_HEADER_BYTES).get(name);
+                while (methods.size() <= id) {
+                    methods.add(null);
+                }
+                methods.set(id, new String(name, StandardCharsets.UTF_8));
+                position += JournalFormat.align(METHOD_HEADER_BYTES + length);
+            } else {
+                return;
+            }
+        }
+    }
+
+    static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("trace-".length(), name.length() - JournalFormat.SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,135 @@
+package hello.proxy.trace.journal;
+
+import static hello.proxy.trace.journal.JournalFormat.HEADER_BYTES;
+import static hello.proxy.trace.journal.JournalFormat.KIND_METHOD;
+import static hello.proxy.trace.journal.JournalFormat.KIND_SPAN_ERROR;
+import static hello.proxy.trace.journal.JournalFormat.KIND_SPAN_OK;
+import static hello.proxy.trace.journal.JournalFormat.MAX_NAME_BYTES;
+import static hello.proxy.trace.journal.JournalFormat.METHOD_HEADER_BYTES;
+import static hello.proxy.trace.journal.JournalFormat.SPAN_BYTES;
+
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * MEMO : 세그먼트 파일 하나를 통째로 매핑해두고 엔트리를 이어 쓴다.
+ *  자리는 AtomicInteger 로 예약하므로 여러 스레드가 잠금 없이 서로 다른 위치에 쓴다.
+ *  커서는 엔트리가 들어갈 때만 CAS 로 앞으로 민다. 되돌리지 않으므로 두 스레드가 같은 자리를 받는 일이 없다.
+ *  kind 바이트를 마지막에 쓰기 때문에 읽는 쪽은 다 쓰지 못한 엔트리를 끝(KIND_END)으로 본다.
+ *  메서드 아이디는 세그먼트마다 새로 매기고, 처음 보는 메서드일 때만 synchronized 로 METHOD 엔트리를 쓴다.
+ * */
+final class JournalSegmentWriter {
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicInteger cursor = new AtomicInteger(HEADER_BYTES);
+    private final ConcurrentHashMap<String, Integer> methodIds = new ConcurrentHashMap<>();
+
+    private JournalSegmentWriter(Path file, MappedByteBuffer buffer, int capacity) {
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    static JournalSegmentWriter create(Path file, long sequence, int capacity) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        buffer.putShort(JournalFormat.OFFSET_VERSION, JournalFormat.VERSION);
+        buffer.putLong(JournalFormat.OFFSET_SEQUENCE, sequence);
+        long nanoTime = System.nanoTime();
+        long epochNanos = System.currentTimeMillis() * 1_000_000L;
+        buffer.putLong(JournalFormat.OFFSET_BASE_EPOCH_NANOS, epochNanos);
+        buffer.putLong(JournalFormat.OFFSET_BASE_NANO_TIME, nanoTime);
+        buffer.putInt(JournalFormat.OFFSET_CAPACITY, capacity);
+        buffer.putInt(JournalFormat.OFFSET_MAGIC, JournalFormat.MAGIC);
+        return new JournalSegmentWriter(file, buffer, capacity);
+    }
+
+    // 자리가 없으면 false. 호출한 쪽이 새 세그먼트로 넘긴다
+    boolean append(long traceId, int depth, String method, long startNanoTime, long durationNanos, boolean error) {
+        int methodId = methodId(method);
+        if (methodId < 0) {
+            return false;
+        }
+        int position = reserve(SPAN_BYTES);
+        if (position < 0) {
+            return false;
+        }
+        buffer.putShort(position + 2, (short) depth);
+        buffer.putInt(position + 4, methodId);
+        buffer.putLong(position + 8, traceId);
+        buffer.putLong(position + 16, startNanoTime);
+        buffer.putLong(position + 24, durationNanos);
+        commit(position, error ? KIND_SPAN_ERROR : KIND_SPAN_OK);
+        return true;
+    }
+
+    // 아직 엔트리를 하나도 쓰지 않았다. 여기에도 안 들어가는 엔트리는 어느 세그먼트에도 못 쓴다
+    boolean isEmpty() {
+        return cursor.get() == HEADER_BYTES;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private int methodId(String method) {
+        Integer id = methodIds.get(method);
+        return id != null ? id : define(method);
+    }
+
+    private synchronized int define(String method) {
+        Integer id = methodIds.get(method);
+        if (id != null) {
+            return id;
+        }
+        byte[] name = method.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            name = Arrays.copyOf(name, MAX_NAME_BYTES);
+        }
+        int position = reserve(JournalFormat.align(METHOD_HEADER_BYTES + name.length));
+        if (position < 0) {
+            return -1;
+        }
+        int newId = methodIds.size();
+        buffer.putShort(position + 2, (short) name.length);
+        buffer.putInt(position + 4, newId);
+        buffer.duplicate().position(position + METHOD_HEADER_BYTES).put(name);
+        commit(position, KIND_METHOD);
+        methodIds.put(method, newId);
+        return newId;
+    }
+
+    private int reserve(int bytes) {
+        while (true) {
+            int position = cursor.get();
+            if (position > capacity - bytes) {
+                return -1;
+            }
+            if (cursor.compareAndSet(position, position + bytes)) {
+                return position;
+            }
+        }
+    }
+
+    private void commit(int position, byte kind) {
+        VarHandle.releaseFence();
+        buffer.put(position, kind);
+    }
+}
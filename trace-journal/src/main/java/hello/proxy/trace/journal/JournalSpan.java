@@ -0,0 +1,58 @@
+package hello.proxy.trace.journal;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/*
+ * MEMO : 매핑된 세그먼트의 span 엔트리 하나를 가리키는 커서
+ *  JournalReader 가 다음 엔트리로 옮기면서 재사용하므로 scan 콜백 밖으로 들고 나가면 안 된다.
+ *  필요한 값만 그 자리에서 버퍼에서 읽는다.
+ * */
+public final class JournalSpan {
+
+    private final ByteBuffer buffer;
+    private final List<String> methods;
+    private final long baseEpochNanos;
+    private final long baseNanoTime;
+    private int position;
+
+    JournalSpan(ByteBuffer buffer, List<String> methods, long baseEpochNanos, long baseNanoTime) {
+        this.buffer = buffer;
+        this.methods = methods;
+        this.baseEpochNanos = baseEpochNanos;
+        this.baseNanoTime = baseNanoTime;
+    }
+
+    void moveTo(int position) {
+        this.position = position;
+    }
+
+    public long getTraceId() {
+        return buffer.getLong(position + 8);
+    }
+
+    public int getDepth() {
+        return buffer.getShort(position + 2);
+    }
+
+    public int getMethodId() {
+        return buffer.getInt(position + 4);
+    }
+
+    public String getMethod() {
+        int id = getMethodId();
+        return id < methods.size() ? methods.get(id) : "#" + id;
+    }
+
+    public long getStartEpochNanos() {
+        return baseEpochNanos + (buffer.getLong(position + 16) - baseNanoTime);
+    }
+
+    public long getDurationNanos() {
+        return buffer.getLong(position + 24);
+    }
+
+    public boolean isError() {
+        return buffer.get(position) == JournalFormat.KIND_SPAN_ERROR;
+    }
+}
@@ -0,0 +1,126 @@
+package hello.proxy.trace.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MEMO : 고정 크기 세그먼트 파일을 돌려 쓰는 바이너리 트레이스 저널
+ *  span 하나가 32 바이트 엔트리 하나다. 문자열 포맷팅도, 어펜더 잠금도, write() 시스템 콜도 없다.
+ *  세그먼트가 차면 다음 번호의 세그먼트를 새로 매핑하고, maxSegments 를 넘는 오래된 파일은 지운다.
+ *  파일을 만들지 못하면 저널을 멈추고 그 뒤의 span 은 버린 개수만 센다. 트레이스 때문에 요청이 실패하지 않게 한다.
+ *  메서드 이름이 길어서 빈 세그먼트에도 들어가지 않는 span 도 세그먼트를 넘기지 않고 버린 개수로 센다.
+ *  읽는 쪽은 JournalReader, 질의는 cli.TraceJournalCli
+ * */
+public class TraceJournal implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    private static final Logger log = System.getLogger(TraceJournal.class.getName());
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private final LongAdder dropped = new LongAdder();
+    private long nextSequence;
+    private volatile JournalSegmentWriter current;
+
+    public TraceJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public TraceJournal(Path directory, int segmentBytes, int maxSegments) {
+        if (segmentBytes < JournalFormat.HEADER_BYTES + JournalFormat.SPAN_BYTES) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+            // 재시작하면 이어서 번호를 매기고, 남아 있던 파일도 보관 개수에 넣는다
+            List<Path> existing = JournalReader.segments(directory);
+            segments.addAll(existing);
+            nextSequence = existing.isEmpty() ? 1 : JournalReader.sequenceOf(existing.get(existing.size() - 1)) + 1;
+            current = openNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param startNanoTime span 이 시작된 System.nanoTime()
+     */
+    public void append(long traceId, int depth, String method, long startNanoTime, long durationNanos,
+        boolean error) {
+        while (true) {
+            JournalSegmentWriter segment = current;
+            if (segment == null) {
+                dropped.increment();
+                return;
+            }
+            if (segment.append(traceId, depth, method, startNanoTime, durationNanos, error)) {
+                return;
+            }
+            if (segment.isEmpty()) {
+                dropped.increment();
+                return;
+            }
+            roll(segment);
+        }
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized void close() {
+        JournalSegmentWriter segment = current;
+        current = null;
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private synchronized void roll(JournalSegmentWriter full) {
+        if (current != full) {
+            return; // 다른 스레드가 이미 넘겼다
+        }
+        full.force();
+        try {
+            current = openNext();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "trace journal stopped: " + directory, e);
+            current = null;
+        }
+    }
+
+    private JournalSegmentWriter openNext() throws IOException {
+        Path file = directory.resolve(JournalFormat.segmentName(nextSequence));
+        JournalSegmentWriter segment = JournalSegmentWriter.create(file, nextSequence, segmentBytes);
+        nextSequence++;
+        segments.addLast(file);
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(segments.removeFirst());
+        }
+        return segment;
+    }
+}
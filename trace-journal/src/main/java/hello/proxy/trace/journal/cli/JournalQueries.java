@@ -0,0 +1,199 @@
+package hello.proxy.trace.journal.cli;
+
+import hello.proxy.trace.journal.JournalReader;
+import hello.proxy.trace.journal.JournalSpan;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * MEMO : TraceJournalCli 의 질의들. 모두 세그먼트를 한 번씩 훑는다.
+ *  span 은 끝난 순서로 기록되므로(자식이 부모보다 먼저) 트리는 시작 시각과 깊이로 다시 정렬해서 그린다.
+ * */
+final class JournalQueries {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private JournalQueries() {
+    }
+
+    // 루트 span(depth 0) 기준으로 가장 오래 걸린 트레이스 N 개
+    static String slowest(Path directory, int limit) throws IOException {
+        PriorityQueue<Span> top = new PriorityQueue<>(Comparator.comparingLong(span -> span.durationNanos));
+        JournalReader.scan(directory, span -> {
+            if (span.getDepth() != 0) {
+                return;
+            }
+            if (top.size() < limit) {
+                top.add(Span.copyOf(span));
+            } else if (top.peek().durationNanos < span.getDurationNanos()) {
+                top.poll();
+                top.add(Span.copyOf(span));
+            }
+        });
+
+        List<Span> spans = new ArrayList<>(top);
+        spans.sort(Comparator.comparingLong((Span span) -> span.durationNanos).reversed());
+        StringBuilder out = new StringBuilder();
+        for (Span span : spans) {
+            out.append(render(span.traceId)).append(' ')
+                .append(Instant.ofEpochSecond(0, span.startEpochNanos)).append(' ')
+                .append(TimeUnit.NANOSECONDS.toMillis(span.durationNanos)).append("ms ")
+                .append(span.method)
+                .append(span.error ? " ex" : "")
+                .append('\n');
+        }
+        return out.toString();
+    }
+
+    // [from, to) 에 시작한 span 의 메서드별 분포. 시간 값은 마이크로초
+    static String percentiles(Path directory, Instant from, Instant to) throws IOException {
+        long fromNanos = toEpochNanos(from);
+        long toNanos = toEpochNanos(to);
+        Map<String, LongList> durations = new TreeMap<>();
+        JournalReader.scan(directory, span -> {
+            long start = span.getStartEpochNanos();
+            if (start >= fromNanos && start < toNanos) {
+                durations.computeIfAbsent(span.getMethod(), method -> new LongList()).add(span.getDurationNanos());
+            }
+        });
+
+        StringBuilder out = new StringBuilder(String.format("%-48s %8s %10s %10s %10s%n",
+            "method", "count", "p50(us)", "p99(us)", "max(us)"));
+        durations.forEach((method, values) -> {
+            long[] sorted = values.sorted();
+            out.append(String.format("%-48s %8d %10d %10d %10d%n", method, sorted.length,
+                micros(percentile(sorted, 50.0)), micros(percentile(sorted, 99.0)),
+                micros(sorted[sorted.length - 1])));
+        });
+        return out.toString();
+    }
+
+    // ThreadLocalLogTrace 와 같은 들여쓰기 트리
+    static String trace(Path directory, long traceId) throws IOException {
+        List<Span> spans = new ArrayList<>();
+        JournalReader.scan(directory, span -> {
+            if (span.getTraceId() == traceId) {
+                spans.add(Span.copyOf(span));
+            }
+        });
+        spans.sort(Comparator.comparingLong((Span span) -> span.startEpochNanos).thenComparingInt(span -> span.depth));
+
+        String prefix = "[" + render(traceId) + "] ";
+        StringBuilder out = new StringBuilder();
+        Deque<Span> open = new ArrayDeque<>();
+        for (Span span : spans) {
+            while (!open.isEmpty() && open.peek().depth >= span.depth) {
+                appendEnd(out, prefix, open.pop());
+            }
+            out.append(prefix).append(addSpace("-->", span.depth)).append(span.method).append('\n');
+            open.push(span);
+        }
+        while (!open.isEmpty()) {
+            appendEnd(out, prefix, open.pop());
+        }
+        return out.toString();
+    }
+
+    static long parseTraceId(String value) {
+        return Long.parseUnsignedLong(value, 16);
+    }
+
+    private static void appendEnd(StringBuilder out, String prefix, Span span) {
+        out.append(prefix).append(addSpace(span.error ? "<X-" : "<--", span.depth)).append(span.method)
+            .append(" time=").append(TimeUnit.NANOSECONDS.toMillis(span.durationNanos)).append("ms")
+            .append(span.error ? " ex" : "")
+            .append('\n');
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append((i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+
+    private static String render(long id) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        if (instant.equals(Instant.MIN)) {
+            return Long.MIN_VALUE;
+        }
+        if (instant.equals(Instant.MAX)) {
+            return Long.MAX_VALUE;
+        }
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    // scan 콜백 밖으로 가져가는 span 의 복사본
+    private static final class Span {
+
+        private final long traceId;
+        private final int depth;
+        private final String method;
+        private final long startEpochNanos;
+        private final long durationNanos;
+        private final boolean error;
+
+        private Span(long traceId, int depth, String method, long startEpochNanos, long durationNanos,
+            boolean error) {
+            this.traceId = traceId;
+            this.depth = depth;
+            this.method = method;
+            this.startEpochNanos = startEpochNanos;
+            this.durationNanos = durationNanos;
+            this.error = error;
+        }
+
+        static Span copyOf(JournalSpan span) {
+            return new Span(span.getTraceId(), span.getDepth(), span.getMethod(), span.getStartEpochNanos(),
+                span.getDurationNanos(), span.isError());
+        }
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
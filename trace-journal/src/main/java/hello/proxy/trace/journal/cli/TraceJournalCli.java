@@ -0,0 +1,78 @@
+package hello.proxy.trace.journal.cli;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * MEMO : 저널 디렉터리를 읽는 오프라인 CLI
+ *  ./gradlew :trace-journal:query -Pjournal.args="<dir> slowest 10"
+ *  java -jar trace-journal/build/libs/trace-journal.jar <dir> slowest [N]
+ *  java -jar trace-journal/build/libs/trace-journal.jar <dir> p99 [--since 10m | --from <ISO> --to <ISO>]
+ *  java -jar trace-journal/build/libs/trace-journal.jar <dir> trace <traceId(hex)>
+ * */
+public final class TraceJournalCli {
+
+    private TraceJournalCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    static int run(String[] args, PrintStream out, PrintStream err) throws IOException {
+        if (args.length < 2) {
+            usage(err);
+            return 2;
+        }
+        Path directory = Path.of(args[0]);
+        switch (args[1]) {
+            case "slowest":
+                out.print(JournalQueries.slowest(directory, args.length > 2 ? Integer.parseInt(args[2]) : 10));
+                return 0;
+            case "p99":
+                Instant[] window = window(args);
+                out.print(JournalQueries.percentiles(directory, window[0], window[1]));
+                return 0;
+            case "trace":
+                if (args.length < 3) {
+                    usage(err);
+                    return 2;
+                }
+                out.print(JournalQueries.trace(directory, JournalQueries.parseTraceId(args[2])));
+                return 0;
+            default:
+                usage(err);
+                return 2;
+        }
+    }
+
+    private static Instant[] window(String[] args) {
+        Instant from = Instant.MIN;
+        Instant to = Instant.MAX;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--since":
+                    from = Instant.now().minus(Duration.parse("PT" + args[i + 1].toUpperCase()));
+                    break;
+                case "--from":
+                    from = Instant.parse(args[i + 1]);
+                    break;
+                case "--to":
+                    to = Instant.parse(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + args[i]);
+            }
+        }
+        return new Instant[]{from, to};
+    }
+
+    private static void usage(PrintStream err) {
+        err.println("usage: <dir> slowest [N]");
+        err.println("       <dir> p99 [--since 10m | --from 2024-01-01T00:00:00Z --to 2024-01-01T01:00:00Z]");
+        err.println("       <dir> trace <traceId(hex)>");
+    }
+}
@@ -0,0 +1,144 @@
+package hello.proxy.trace.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void 기록한_span_을_그대로_읽는다() throws IOException {
+        long base = System.nanoTime();
+        try (TraceJournal journal = new TraceJournal(dir)) {
+            journal.append(7L, 1, "OrderService.orderItem()", base + 10, 300, false);
+            journal.append(7L, 0, "OrderController.request()", base, 500, true);
+        }
+
+        List<String> spans = new ArrayList<>();
+        JournalReader.scan(dir, span -> spans.add(span.getTraceId() + ":" + span.getDepth() + ":"
+            + span.getMethod() + ":" + span.getDurationNanos() + ":" + span.isError()));
+
+        assertThat(spans).containsExactly(
+            "7:1:OrderService.orderItem():300:false",
+            "7:0:OrderController.request():500:true");
+    }
+
+    @Test
+    void 세그먼트가_차면_다음_세그먼트로_넘기고_오래된_파일은_지운다() throws IOException {
+        try (TraceJournal journal = new TraceJournal(dir, 1024, 3)) {
+            for (int i = 0; i < 200; i++) {
+                journal.append(i, 0, "OrderController.request()", System.nanoTime(), i, false);
+            }
+        }
+
+        List<Path> segments = JournalReader.segments(dir);
+        assertThat(segments).hasSize(3);
+        // 세그먼트 하나에 span 28 개
+        assertThat(segments.get(2).getFileName().toString()).isEqualTo(JournalFormat.segmentName(8));
+
+        // 세그먼트마다 사전을 따로 쓰므로 남은 세그먼트만으로 이름을 읽을 수 있다
+        List<Long> traceIds = new ArrayList<>();
+        JournalReader.scan(dir, span -> {
+            assertThat(span.getMethod()).isEqualTo("OrderController.request()");
+            traceIds.add(span.getTraceId());
+        });
+        assertThat(traceIds).endsWith(199L).isSorted();
+    }
+
+    @Test
+    void 빈_세그먼트에도_들어가지_않는_span_은_버리고_센다() throws IOException {
+        try (TraceJournal journal = new TraceJournal(dir, 1024, 3)) {
+            journal.append(1L, 0, "m".repeat(2048), System.nanoTime(), 1_000L, false);
+            journal.append(1L, 0, "short()", System.nanoTime(), 1_000L, false);
+
+            assertThat(journal.getDropped()).isEqualTo(1);
+        }
+        assertThat(JournalReader.segments(dir)).hasSize(1);
+    }
+
+    @Test
+    void 여러_스레드가_동시에_기록해도_엔트리가_섞이지_않는다() throws Exception {
+        int threads = 8;
+        int perThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try (TraceJournal journal = new TraceJournal(dir, 64 * 1024, 1000)) {
+            for (int t = 0; t < threads; t++) {
+                long traceId = t;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        journal.append(traceId, i % 4, "Method" + traceId + "." + (i % 4) + "()", 0L, i, false);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+
+        long[] counts = new long[threads];
+        JournalReader.scan(dir, span -> {
+            int traceId = (int) span.getTraceId();
+            assertThat(span.getMethod()).isEqualTo("Method" + traceId + "." + span.getDepth() + "()");
+            counts[traceId]++;
+        });
+        assertThat(counts).containsOnly(perThread);
+    }
+
+    @Test
+    void 자리_예약에_실패한_스레드가_섞여도_두_엔트리가_같은_자리를_받지_않는다() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 20; round++) {
+                JournalSegmentWriter segment = JournalSegmentWriter.create(dir.resolve("round-" + round), round, 4096);
+                Set<Long> written = ConcurrentHashMap.newKeySet();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long thread = t;
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        // 긴 메서드 이름(큰 엔트리)과 span(작은 엔트리)을 섞어 가득 찬 뒤에도 계속 시도한다
+                        for (int i = 0; i < 400; i++) {
+                            long id = thread * 1_000 + i;
+                            String method = i % 3 == 0 ? "m".repeat(100 + i) + thread : "short()";
+                            if (segment.append(thread, 0, method, 0L, id, false)) {
+                                written.add(id);
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+                segment.force();
+
+                List<Long> read = new ArrayList<>();
+                JournalReader.scanSegment(segment.getFile(), span -> read.add(span.getDurationNanos()));
+                assertThat(read).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(written);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package hello.proxy.trace.journal.cli;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.proxy.trace.journal.TraceJournal;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalQueriesTest {
+
+    private static final long MS = 1_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        long base = System.nanoTime();
+        try (TraceJournal journal = new TraceJournal(dir)) {
+            // span 은 끝난 순서로 기록된다
+            for (long traceId = 1; traceId <= 3; traceId++) {
+                long start = base + traceId * 100 * MS;
+                journal.append(traceId, 2, "OrderRepository.save()", start + 2 * MS, traceId * 10 * MS, false);
+                journal.append(traceId, 1, "OrderService.orderItem()", start + MS, traceId * 10 * MS + MS, false);
+                journal.append(traceId, 0, "OrderController.request()", start, traceId * 10 * MS + 2 * MS,
+                    traceId == 2);
+            }
+        }
+    }
+
+    @Test
+    void 루트_span_이_느린_순서로_트레이스를_고른다() throws IOException {
+        String[] lines = JournalQueries.slowest(dir, 2).split("\n");
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("0000000000000003 ").endsWith(" 32ms OrderController.request()");
+        assertThat(lines[1]).startsWith("0000000000000002 ").endsWith(" 22ms OrderController.request() ex");
+    }
+
+    @Test
+    void 메서드별_분포를_낸다() throws IOException {
+        String table = JournalQueries.percentiles(dir, Instant.MIN, Instant.MAX);
+
+        assertThat(table).contains("OrderRepository.save()");
+        assertThat(table.lines().filter(line -> line.startsWith("OrderRepository.save()")).findFirst().orElseThrow()
+            .split("\\s+")).containsExactly("OrderRepository.save()", "3", "20000", "30000", "30000");
+
+        assertThat(JournalQueries.percentiles(dir, Instant.now().plusSeconds(60), Instant.MAX).lines()).hasSize(1);
+    }
+
+    @Test
+    void 트레이스_하나를_들여쓰기_트리로_그린다() throws IOException {
+        String tree = JournalQueries.trace(dir, JournalQueries.parseTraceId("0000000000000002"));
+
+        assertThat(tree).isEqualTo(
+            "[0000000000000002] OrderController.request()\n"
+                + "[0000000000000002] |-->OrderService.orderItem()\n"
+                + "[0000000000000002] |   |-->OrderRepository.save()\n"
+                + "[0000000000000002] |   |<--OrderRepository.save() time=20ms\n"
+                + "[0000000000000002] |<--OrderService.orderItem() time=21ms\n"
+                + "[0000000000000002] OrderController.request() time=22ms ex\n");
+    }
+}
@@ -0,0 +1,22 @@
+package hello.proxy.trace.processor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컴파일 시점에 이 인터페이스의 트레이스 프록시 {@code <인터페이스 이름>TraceProxy} 를 생성한다.
+ * <p>
+ * 생성된 프록시는 {@code config.v1_proxy.interface_proxy} 의 손으로 작성한 프록시처럼
+ * 모든 메서드를 {@code LogTrace.begin() / end() / exception()} 으로 감싸서 target 에 위임한다.
+ * 빈 후처리기가 런타임에 찾을 수 있도록 RUNTIME 으로 유지한다.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TraceProxy {
+
+    String SUFFIX = "TraceProxy";
+}
@@ -0,0 +1,225 @@
+package hello.proxy.trace.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/*
+ * MEMO : @TraceProxy 가 붙은 인터페이스마다 같은 패키지에 <인터페이스 이름>TraceProxy 를 만든다.
+ *  생성되는 코드는 OrderServiceInterfaceProxy 같은 손으로 작성한 프록시와 같은 모양이고,
+ *  리플렉션도 런타임 바이트코드 생성도 없다. 트레이스 메시지는 TraceMessages 와 같은 "인터페이스.메서드()" 형식.
+ *  상위 인터페이스의 메서드, default 메서드도 target 에 위임한다.
+ * */
+@SupportedAnnotationTypes("hello.proxy.trace.processor.TraceProxy")
+public class TraceProxyProcessor extends AbstractProcessor {
+
+    static final String LOG_TRACE = "hello.proxy.trace.logtrace.LogTrace";
+    static final String TRACE_STATUS = "hello.proxy.trace.TraceStatus";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(TraceProxy.class)) {
+            if (element.getKind() != ElementKind.INTERFACE) {
+                error(element, "@TraceProxy can only be applied to interfaces");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            try {
+                generate(type);
+            } catch (IOException e) {
+                error(type, "failed to generate trace proxy: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String proxyName = proxySimpleName(type);
+        String typeParameters = typeParameters(type.getTypeParameters());
+        String typeArguments = typeArguments(type.getTypeParameters());
+        String targetType = type.getQualifiedName() + typeArguments;
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public class ").append(proxyName).append(typeParameters)
+            .append(" implements ").append(targetType).append(" {\n\n")
+            .append("    private final ").append(targetType).append(" target;\n")
+            .append("    private final ").append(LOG_TRACE).append(" logTrace;\n\n")
+            .append("    public ").append(proxyName).append("(").append(targetType).append(" target, ")
+            .append(LOG_TRACE).append(" logTrace) {\n")
+            .append("        this.target = target;\n")
+            .append("        this.logTrace = logTrace;\n")
+            .append("    }\n");
+
+        Set<String> signatures = new HashSet<>();
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!isProxied(method) || !signatures.add(erasedSignature(method))) {
+                continue;
+            }
+            ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declaredType, method);
+            appendMethod(source, method, methodType);
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? proxyName : packageName + "." + proxyName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private void appendMethod(StringBuilder source, ExecutableElement method, ExecutableType methodType) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends TypeMirror> parameterTypes = methodType.getParameterTypes();
+        boolean returnsValue = methodType.getReturnType().getKind() != TypeKind.VOID;
+        String message = method.getEnclosingElement().getSimpleName() + "." + method.getSimpleName() + "()";
+
+        StringBuilder declaredParameters = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                declaredParameters.append(", ");
+                arguments.append(", ");
+            }
+            String name = parameters.get(i).getSimpleName().toString();
+            boolean varArgs = method.isVarArgs() && i == parameters.size() - 1;
+            declaredParameters.append(parameterType(parameterTypes.get(i), varArgs)).append(' ').append(name);
+            arguments.append(name);
+        }
+
+        source.append("\n    @Override\n    public ");
+        String methodTypeParameters = typeParameters(method.getTypeParameters());
+        if (!methodTypeParameters.isEmpty()) {
+            source.append(methodTypeParameters).append(' ');
+        }
+        source.append(methodType.getReturnType()).append(' ').append(method.getSimpleName())
+            .append('(').append(declaredParameters).append(')');
+        if (!methodType.getThrownTypes().isEmpty()) {
+            source.append(" throws ").append(methodType.getThrownTypes().stream()
+                .map(TypeMirror::toString).collect(Collectors.joining(", ")));
+        }
+
+        // 파라미터 이름과 겹치지 않도록 지역 변수 이름을 고른다. 필드는 this. 로 접근한다
+        Set<String> names = parameters.stream()
+            .map(parameter -> parameter.getSimpleName().toString())
+            .collect(Collectors.toSet());
+        String status = localName("status", names);
+        String result = localName("result", names);
+        String exception = localName("e", names);
+
+        source.append(" {\n")
+            .append("        ").append(TRACE_STATUS).append(' ').append(status).append(" = null;\n")
+            .append("        try {\n")
+            .append("            ").append(status).append(" = this.logTrace.begin(\"").append(message).append("\");\n")
+            .append("            ");
+        if (returnsValue) {
+            source.append(methodType.getReturnType()).append(' ').append(result).append(" = ");
+        }
+        source.append("this.target.").append(method.getSimpleName()).append('(').append(arguments).append(");\n")
+            .append("            this.logTrace.end(").append(status).append(");\n");
+        if (returnsValue) {
+            source.append("            return ").append(result).append(";\n");
+        }
+        source.append("        } catch (Exception ").append(exception).append(") {\n")
+            .append("            this.logTrace.exception(").append(status).append(", ").append(exception).append(");\n")
+            .append("            throw ").append(exception).append(";\n")
+            .append("        }\n")
+            .append("    }\n");
+    }
+
+    private static String localName(String base, Set<String> taken) {
+        String name = base;
+        while (taken.contains(name)) {
+            name = name + "_";
+        }
+        return name;
+    }
+
+    // Object 의 메서드, static / private 인터페이스 메서드는 위임하지 않는다
+    private static boolean isProxied(ExecutableElement method) {
+        return method.getEnclosingElement().getKind() == ElementKind.INTERFACE
+            && !method.getModifiers().contains(Modifier.STATIC)
+            && !method.getModifiers().contains(Modifier.PRIVATE);
+    }
+
+    private String erasedSignature(ExecutableElement method) {
+        return method.getSimpleName() + method.getParameters().stream()
+            .map(parameter -> processingEnv.getTypeUtils().erasure(parameter.asType()).toString())
+            .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static String parameterType(TypeMirror type, boolean varArgs) {
+        if (varArgs && type.getKind() == TypeKind.ARRAY) {
+            return ((ArrayType) type).getComponentType() + "...";
+        }
+        return type.toString();
+    }
+
+    private static String typeParameters(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        return typeParameters.stream().map(parameter -> {
+            String bounds = parameter.getBounds().stream()
+                .map(TypeMirror::toString)
+                .filter(bound -> !bound.equals("java.lang.Object"))
+                .collect(Collectors.joining(" & "));
+            String name = parameter.getSimpleName().toString();
+            return bounds.isEmpty() ? name : name + " extends " + bounds;
+        }).collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    private static String typeArguments(List<? extends TypeParameterElement> typeParameters) {
+        if (typeParameters.isEmpty()) {
+            return "";
+        }
+        return typeParameters.stream().map(parameter -> parameter.getSimpleName().toString())
+            .collect(Collectors.joining(", ", "<", ">"));
+    }
+
+    // 중첩 인터페이스 Outer.Inner 는 Outer_InnerTraceProxy
+    static String proxySimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (!(enclosing instanceof PackageElement)) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(TraceProxy.SUFFIX).toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
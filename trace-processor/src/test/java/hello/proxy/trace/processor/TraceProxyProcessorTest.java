@@ -0,0 +1,139 @@
+package hello.proxy.trace.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceProxyProcessorTest {
+
+    // 생성된 코드가 참조하는 proxy 모듈의 타입을 대신하는 최소한의 소스
+    private static final String TRACE_STATUS = "package hello.proxy.trace;\n"
+        + "public class TraceStatus {}\n";
+    private static final String LOG_TRACE = "package hello.proxy.trace.logtrace;\n"
+        + "import hello.proxy.trace.TraceStatus;\n"
+        + "public interface LogTrace {\n"
+        + "    TraceStatus begin(String message);\n"
+        + "    void end(TraceStatus status);\n"
+        + "    void exception(TraceStatus status, Exception e);\n"
+        + "}\n";
+
+    @TempDir
+    Path output;
+
+    @Test
+    void 인터페이스의_트레이스_프록시를_생성한다() throws IOException {
+        String repository = "package sample;\n"
+            + "@hello.proxy.trace.processor.TraceProxy\n"
+            + "public interface OrderRepository {\n"
+            + "    void save(String itemId);\n"
+            + "}\n";
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("sample.OrderRepository", repository));
+
+        assertThat(errors).isEmpty();
+        String generated = Files.readString(output.resolve("sample/OrderRepositoryTraceProxy.java"));
+        assertThat(generated)
+            .contains("public class OrderRepositoryTraceProxy implements sample.OrderRepository")
+            .contains("status = this.logTrace.begin(\"OrderRepository.save()\");")
+            .contains("this.target.save(itemId);");
+    }
+
+    @Test
+    void 제네릭_상위_인터페이스_예외_가변인자_이름_충돌을_처리한다() {
+        String base = "package sample;\n"
+            + "public interface Base<T> {\n"
+            + "    T find(String status) throws java.io.IOException;\n"
+            + "    default int count(T... values) { return values.length; }\n"
+            + "    static Base<String> empty() { return null; }\n"
+            + "}\n";
+        String repository = "package sample;\n"
+            + "@hello.proxy.trace.processor.TraceProxy\n"
+            + "public interface ItemRepository<K extends Comparable<K>> extends Base<K> {\n"
+            + "    <R> java.util.List<R> map(java.util.function.Function<K, R> result, K e);\n"
+            + "}\n";
+        String client = "package sample;\n"
+            + "class Client {\n"
+            + "    ItemRepository<String> create(ItemRepository<String> target,"
+            + " hello.proxy.trace.logtrace.LogTrace logTrace) {\n"
+            + "        return new ItemRepositoryTraceProxy<>(target, logTrace);\n"
+            + "    }\n"
+            + "}\n";
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(
+            source("sample.Base", base), source("sample.ItemRepository", repository), source("sample.Client", client));
+
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void 인터페이스가_아니면_컴파일_오류() {
+        String service = "package sample;\n"
+            + "@hello.proxy.trace.processor.TraceProxy\n"
+            + "public class OrderService {}\n";
+
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(source("sample.OrderService", service));
+
+        assertThat(errors).extracting(error -> error.getMessage(Locale.ROOT))
+            .containsExactly("@TraceProxy can only be applied to interfaces");
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(JavaFileObject... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<JavaFileObject> units = new ArrayList<>(List.of(sources));
+        units.add(source("hello.proxy.trace.TraceStatus", TRACE_STATUS));
+        units.add(source("hello.proxy.trace.logtrace.LogTrace", LOG_TRACE));
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(output));
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(output));
+            fileManager.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(processorClasses()));
+            CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null, units);
+            task.setProcessors(List.of(new TraceProxyProcessor()));
+            task.call();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .collect(Collectors.toList());
+    }
+
+    // @TraceProxy 가 들어 있는 위치
+    private static Path processorClasses() {
+        try {
+            return Path.of(TraceProxy.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}